@@ -0,0 +1,145 @@
+package com.voiceagent.app.ai;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.work.ListenableWorker;
+import androidx.work.WorkerFactory;
+import androidx.work.WorkerParameters;
+import androidx.work.testing.TestListenableWorkerBuilder;
+import com.voiceagent.app.data.CommandEntity;
+import com.voiceagent.app.data.InterpretationEntity;
+import com.voiceagent.app.data.RuleEntity;
+import com.voiceagent.app.data.TrainingDatabase;
+import com.voiceagent.app.utils.ApiKeyManager;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the batch interpretation job against MockMessagesServer with an in-memory
+ * database, so it needs no network and leaves the app's data alone
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchInterpretationWorkerTest {
+    
+    private Context context;
+    private ApiKeyManager apiKeyManager;
+    private String savedApiKey;
+    private MockMessagesServer server;
+    private TrainingDatabase database;
+    private ClaudeApiService claudeService;
+    private AILearningEngine engine;
+    
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        
+        // The test shares the app's preferences; put the real key back afterwards
+        apiKeyManager = new ApiKeyManager(context);
+        savedApiKey = apiKeyManager.getApiKey();
+        apiKeyManager.saveApiKey("sk-ant-REDACTED");
+        
+        MockMessagesServer.Profile profile = new MockMessagesServer.Profile();
+        profile.medianLatencyMs = 50;
+        profile.throttledRate = 0;
+        profile.overloadedRate = 0;
+        profile.malformedRate = 0;
+        profile.streamedRate = 0;
+        server = new MockMessagesServer(profile);
+        String url = server.start();
+        
+        database = Room.inMemoryDatabaseBuilder(context, TrainingDatabase.class).build();
+        SharedPreferences usagePreferences =
+            context.getSharedPreferences("batch_worker_test_usage", Context.MODE_PRIVATE);
+        usagePreferences.edit().clear().commit();
+        claudeService = new ClaudeApiService(context, url,
+            new TokenUsageTracker(database.tokenUsageDao(), usagePreferences));
+        engine = new AILearningEngine(context, database);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        // The database is left open: the engine's own threads may still be writing
+        // rule hit counts, and an in-memory database goes away with the process
+        server.shutdown();
+        if (savedApiKey != null) {
+            apiKeyManager.saveApiKey(savedApiKey);
+        } else {
+            apiKeyManager.clearApiKey();
+        }
+    }
+    
+    @Test
+    public void storesInterpretationsAndRulesThatResolveLocally() {
+        recordUnknown("ring zelda");
+        recordUnknown("buzz link");
+        
+        ListenableWorker.Result result = newWorker().doWork();
+        
+        assertEquals(ListenableWorker.Result.success(), result);
+        assertEquals(1, server.requests.get());
+        
+        InterpretationEntity stored = database.interpretationDao().getInterpretation("ring zelda");
+        assertNotNull(stored);
+        assertEquals("call", stored.actionType);
+        assertNotNull(database.interpretationDao().getInterpretation("buzz link"));
+        
+        List<RuleEntity> rules = database.ruleDao().getAllRules();
+        assertEquals(2, rules.size());
+        boolean ringRule = false;
+        for (RuleEntity rule : rules) {
+            ringRule |= "ring {contact}".equals(rule.pattern);
+        }
+        assertTrue(ringRule);
+        
+        // The same and similar utterances now resolve without Claude
+        ClaudeCommandInterpreter.InterpretationResult learned = engine.getLearnedInterpretation("Ring Zelda");
+        assertNotNull(learned);
+        assertEquals("zelda", learned.getParameter("contact"));
+        ClaudeCommandInterpreter.InterpretationResult matched = engine.matchLocalRule("ring ganon");
+        assertNotNull(matched);
+        assertEquals("call", matched.actionType);
+        assertEquals("ganon", matched.getParameter("contact"));
+    }
+    
+    @Test
+    public void skipsCommandsAlreadyInterpreted() {
+        recordUnknown("ring zelda");
+        assertEquals(ListenableWorker.Result.success(), newWorker().doWork());
+        
+        recordUnknown("ring zelda");
+        assertEquals(ListenableWorker.Result.success(), newWorker().doWork());
+        
+        assertEquals(1, server.requests.get());
+    }
+    
+    private void recordUnknown(String command) {
+        CommandEntity entity = new CommandEntity();
+        entity.command = command;
+        entity.commandType = "unknown";
+        entity.success = false;
+        entity.timestamp = System.currentTimeMillis();
+        database.trainingDataDao().insert(entity);
+    }
+    
+    private BatchInterpretationWorker newWorker() {
+        return TestListenableWorkerBuilder.from(context, BatchInterpretationWorker.class)
+            .setWorkerFactory(new WorkerFactory() {
+                @Override
+                public ListenableWorker createWorker(Context appContext, String workerClassName,
+                                                     WorkerParameters params) {
+                    return new BatchInterpretationWorker(appContext, params, claudeService, database, engine);
+                }
+            })
+            .build();
+    }
+}
@@ -0,0 +1,291 @@
+package com.voiceagent.app.ai;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.util.Log;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.voiceagent.app.data.TrainingDatabase;
+import com.voiceagent.app.utils.ApiKeyManager;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Drives ClaudeCommandInterpreter at fixed request rates against MockMessagesServer
+ * and reports throughput, latency percentiles, executor queueing delay and heap per
+ * in-flight request. Talks only to localhost, so it runs offline.
+ *
+ * Run with: ./gradlew :app:connectedAndroidTest
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.voiceagent.app.ai.ClaudeLoadTest
+ * Arguments (all optional): claudeLoadRates=1,2,5,10 (requests/s), claudeLoadSeconds=30,
+ * claudeLoadLatencyMs, claudeLoadSigma, claudeLoadThrottled, claudeLoadOverloaded,
+ * claudeLoadMalformed, claudeLoadStreamed
+ */
+@RunWith(AndroidJUnit4.class)
+public class ClaudeLoadTest {
+    
+    private static final String TAG = "ClaudeLoadTest";
+    private static final long SAMPLE_INTERVAL_MS = 100;
+    // Requests still running this long after the last arrival count as hung
+    private static final long DRAIN_TIMEOUT_MS = ClaudeApiService.DEFAULT_BUDGET_MS + 10000;
+    
+    /**
+     * Timestamps of one interpretation
+     */
+    private static final class Sample {
+        final long submitNanos = System.nanoTime();
+        volatile long startNanos;
+        volatile long endNanos;
+        volatile String failure;
+    }
+    
+    private Bundle arguments;
+    private Context context;
+    private ApiKeyManager apiKeyManager;
+    private String savedApiKey;
+    private TrainingDatabase usageDatabase;
+    private TokenUsageTracker usageTracker;
+    private PrintWriter csv;
+    
+    @Before
+    public void setUp() throws IOException {
+        arguments = InstrumentationRegistry.getArguments();
+        context = ApplicationProvider.getApplicationContext();
+        
+        // The test shares the app's preferences; put the real key back afterwards
+        apiKeyManager = new ApiKeyManager(context);
+        savedApiKey = apiKeyManager.getApiKey();
+        apiKeyManager.saveApiKey("sk-ant-REDACTED");
+        
+        // The mock's tokens must not count against the user's daily budget, nor the
+        // user's budget cut the run short
+        usageDatabase = Room.inMemoryDatabaseBuilder(context, TrainingDatabase.class).build();
+        SharedPreferences usagePreferences =
+            context.getSharedPreferences("claude_load_test_usage", Context.MODE_PRIVATE);
+        usagePreferences.edit().clear().commit();
+        usageTracker = new TokenUsageTracker(usageDatabase.tokenUsageDao(), usagePreferences);
+        
+        String dir = arguments.getString("additionalTestOutputDir");
+        File outDir = dir != null ? new File(dir) : context.getExternalFilesDir(null);
+        csv = new PrintWriter(new FileWriter(new File(outDir, "claude-load.csv")));
+        csv.println("rate_rps,offered,succeeded,failed,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms,"
+            + "queue_p50_ms,queue_p99_ms,peak_in_flight,heap_bytes_per_in_flight,"
+            + "http_requests,http_429,http_529,http_malformed,http_streamed");
+    }
+    
+    @After
+    public void tearDown() {
+        csv.close();
+        usageDatabase.close();
+        if (savedApiKey != null) {
+            apiKeyManager.saveApiKey(savedApiKey);
+        } else {
+            apiKeyManager.clearApiKey();
+        }
+    }
+    
+    @Test
+    public void loadSteps() throws Exception {
+        long seconds = Long.parseLong(arguments.getString("claudeLoadSeconds", "30"));
+        for (String rate : arguments.getString("claudeLoadRates", "1,2,5,10").split(",")) {
+            runStep(Double.parseDouble(rate.trim()), seconds);
+        }
+    }
+    
+    private MockMessagesServer.Profile profile() {
+        MockMessagesServer.Profile profile = new MockMessagesServer.Profile();
+        profile.medianLatencyMs = doubleArgument("claudeLoadLatencyMs", profile.medianLatencyMs);
+        profile.latencySigma = doubleArgument("claudeLoadSigma", profile.latencySigma);
+        profile.throttledRate = doubleArgument("claudeLoadThrottled", profile.throttledRate);
+        profile.overloadedRate = doubleArgument("claudeLoadOverloaded", profile.overloadedRate);
+        profile.malformedRate = doubleArgument("claudeLoadMalformed", profile.malformedRate);
+        profile.streamedRate = doubleArgument("claudeLoadStreamed", profile.streamedRate);
+        return profile;
+    }
+    
+    private double doubleArgument(String key, double defaultValue) {
+        String value = arguments.getString(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+    
+    private void runStep(double rate, long seconds) throws Exception {
+        MockMessagesServer server = new MockMessagesServer(profile());
+        String url = server.start();
+        
+        Map<String, Sample> samples = new ConcurrentHashMap<>();
+        AtomicInteger completed = new AtomicInteger();
+        
+        // Breaker and limiter state is per endpoint, and each step's server has
+        // its own URL, so nothing carries over between steps
+        ClaudeApiService service = new ClaudeApiService(context, url, usageTracker) {
+            @Override
+            public ClaudeResponse interpretCommand(String command, Deadline deadline) {
+                Sample sample = samples.get(command);
+                if (sample != null) {
+                    sample.startNanos = System.nanoTime();
+                }
+                return super.interpretCommand(command, deadline);
+            }
+        };
+        ClaudeCommandInterpreter interpreter = new ClaudeCommandInterpreter(service);
+        
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        long baselineHeap = runtime.totalMemory() - runtime.freeMemory();
+        
+        // Heap and in-flight count sampled while the load runs
+        List<long[]> heapSamples = new ArrayList<>();
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long inFlight = samples.size() - completed.get();
+                synchronized (heapSamples) {
+                    heapSamples.add(new long[] {inFlight, runtime.totalMemory() - runtime.freeMemory()});
+                }
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "LoadSampler");
+        sampler.start();
+        
+        // Open-loop Poisson arrivals, so a slow client does not slow the offered load
+        Random arrivals = new Random(7);
+        long endNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        int index = 0;
+        while (System.nanoTime() < endNanos) {
+            String command = "load test command " + index++;
+            Sample sample = new Sample();
+            samples.put(command, sample);
+            interpreter.interpretCommand(command, new ClaudeCommandInterpreter.InterpretationCallback() {
+                @Override
+                public void onInterpretationComplete(ClaudeCommandInterpreter.InterpretationResult result) {
+                    sample.endNanos = System.nanoTime();
+                    completed.incrementAndGet();
+                }
+                
+                @Override
+                public void onInterpretationFailed(String error) {
+                    sample.failure = error != null ? error : "null";
+                    sample.endNanos = System.nanoTime();
+                    completed.incrementAndGet();
+                }
+            });
+            long gapMs = (long) (-Math.log(1 - arrivals.nextDouble()) * 1000 / rate);
+            Thread.sleep(gapMs);
+        }
+        
+        long drainDeadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (completed.get() < samples.size() && System.currentTimeMillis() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        long finishNanos = System.nanoTime();
+        sampler.interrupt();
+        sampler.join();
+        interpreter.shutdown();
+        server.shutdown();
+        
+        report(rate, samples, server, heapSamples, baselineHeap,
+            (finishNanos - (endNanos - TimeUnit.SECONDS.toNanos(seconds))) / 1e9);
+        assertEquals("Requests still in flight at " + rate + " rps", samples.size(), completed.get());
+    }
+    
+    private void report(double rate, Map<String, Sample> samples, MockMessagesServer server,
+                        List<long[]> heapSamples, long baselineHeap, double elapsedSeconds) {
+        List<Double> latencies = new ArrayList<>();
+        List<Double> queueDelays = new ArrayList<>();
+        Map<String, Integer> failures = new TreeMap<>();
+        int succeeded = 0;
+        for (Sample sample : samples.values()) {
+            if (sample.endNanos == 0) {
+                continue;
+            }
+            latencies.add((sample.endNanos - sample.submitNanos) / 1e6);
+            // Requests that expired in the queue never reached the service
+            long startNanos = sample.startNanos != 0 ? sample.startNanos : sample.endNanos;
+            queueDelays.add((startNanos - sample.submitNanos) / 1e6);
+            if (sample.failure == null) {
+                succeeded++;
+            } else {
+                failures.merge(sample.failure, 1, Integer::sum);
+            }
+        }
+        
+        long peakInFlight = 0;
+        double bytesPerInFlight = 0;
+        int loaded = 0;
+        synchronized (heapSamples) {
+            for (long[] heapSample : heapSamples) {
+                peakInFlight = Math.max(peakInFlight, heapSample[0]);
+                if (heapSample[0] > 0) {
+                    // Includes garbage not yet collected, so this is an upper bound
+                    bytesPerInFlight += (double) Math.max(0, heapSample[1] - baselineHeap) / heapSample[0];
+                    loaded++;
+                }
+            }
+        }
+        if (loaded > 0) {
+            bytesPerInFlight /= loaded;
+        }
+        
+        int failed = latencies.size() - succeeded;
+        double throughput = succeeded / elapsedSeconds;
+        String line = String.format(Locale.US,
+            "%.1f,%d,%d,%d,%.2f,%.0f,%.0f,%.0f,%.0f,%.1f,%.1f,%d,%.0f,%d,%d,%d,%d,%d",
+            rate, samples.size(), succeeded, failed, throughput,
+            percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+            percentile(latencies, 100), percentile(queueDelays, 50), percentile(queueDelays, 99),
+            peakInFlight, bytesPerInFlight,
+            server.requests.get(), server.throttled.get(), server.overloaded.get(),
+            server.malformed.get(), server.streamed.get());
+        csv.println(line);
+        csv.flush();
+        
+        Log.i(TAG, String.format(Locale.US,
+            "%.1f rps: %d offered, %.2f/s succeeded, p50 %.0f ms, p99 %.0f ms, queue p99 %.1f ms, "
+                + "peak %d in flight, ~%.0f KB each",
+            rate, samples.size(), throughput, percentile(latencies, 50), percentile(latencies, 99),
+            percentile(queueDelays, 99), peakInFlight, bytesPerInFlight / 1024));
+        for (Map.Entry<String, Integer> failure : failures.entrySet()) {
+            Log.i(TAG, "  failed " + failure.getValue() + "x: " + failure.getKey());
+        }
+    }
+    
+    /**
+     * Nearest-rank percentile
+     */
+    private static double percentile(List<Double> values, double percentile) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        double[] sorted = new double[values.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = values.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
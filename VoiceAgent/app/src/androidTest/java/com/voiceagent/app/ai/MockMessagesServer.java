@@ -0,0 +1,218 @@
+package com.voiceagent.app.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Local stand-in for the Messages endpoint with a seeded latency distribution
+ * and a configurable mix of throttling, overload, slow streamed bodies and malformed JSON.
+ * Batch prompts get one call interpretation per listed command, with its last word
+ * as the contact.
+ */
+class MockMessagesServer {
+    
+    /**
+     * How the mock endpoint behaves; rates are fractions of all requests
+     */
+    static class Profile {
+        public double medianLatencyMs = 700;
+        public double latencySigma = 0.5;
+        public double throttledRate = 0.02;
+        public double overloadedRate = 0.01;
+        public double malformedRate = 0.01;
+        public double lowConfidenceRate = 0.05;
+        // Body trickled out in small chunks after the headers, like a streamed reply
+        public double streamedRate = 0.2;
+        public long streamChunkDelayMs = 30;
+        public double retryAfterSeconds = 1;
+        public int requestsPerMinute = 4000;
+        public long seed = 1;
+    }
+    
+    private static final String[][] INTERPRETATIONS = {
+        {"call", "contact", "mom"},
+        {"message", "contact", "sarah"},
+        {"search", "query", "pizza near me"},
+        {"open_app", "app_name", "maps"},
+        {"weather", "location", "london"},
+        {"navigation", "destination", "home"},
+    };
+    
+    // "0. \"ring mom\"" lines of a batch prompt
+    private static final Pattern BATCH_COMMAND = Pattern.compile("(?m)^(\\d+)\\. \"(.*)\"$");
+    
+    private final Profile profile;
+    private final Random random;
+    private final Gson gson = new Gson();
+    private final MockWebServer server = new MockWebServer();
+    
+    final AtomicInteger requests = new AtomicInteger();
+    final AtomicInteger ok = new AtomicInteger();
+    final AtomicInteger throttled = new AtomicInteger();
+    final AtomicInteger overloaded = new AtomicInteger();
+    final AtomicInteger malformed = new AtomicInteger();
+    final AtomicInteger streamed = new AtomicInteger();
+    
+    MockMessagesServer(Profile profile) {
+        this.profile = profile;
+        this.random = new Random(profile.seed);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(batchCommands(request));
+            }
+        });
+    }
+    
+    String start() throws IOException {
+        server.start();
+        return server.url("/v1/messages").toString();
+    }
+    
+    void shutdown() throws IOException {
+        server.shutdown();
+    }
+    
+    /**
+     * Commands listed in a batch prompt, or null for a single interpretation
+     */
+    private List<String> batchCommands(RecordedRequest request) {
+        JsonObject body = gson.fromJson(request.getBody().readUtf8(), JsonObject.class);
+        String prompt = body.getAsJsonArray("messages").get(0).getAsJsonObject()
+            .get("content").getAsString();
+        Matcher matcher = BATCH_COMMAND.matcher(prompt);
+        List<String> commands = new ArrayList<>();
+        while (matcher.find()) {
+            commands.add(matcher.group(2));
+        }
+        return commands.isEmpty() ? null : commands;
+    }
+    
+    private MockResponse respond(List<String> batch) {
+        requests.incrementAndGet();
+        
+        double roll;
+        long latencyMs;
+        int pick;
+        boolean lowConfidence;
+        boolean stream;
+        synchronized (random) {
+            roll = random.nextDouble();
+            latencyMs = (long) (profile.medianLatencyMs * Math.exp(profile.latencySigma * random.nextGaussian()));
+            pick = random.nextInt(INTERPRETATIONS.length);
+            lowConfidence = random.nextDouble() < profile.lowConfidenceRate;
+            stream = random.nextDouble() < profile.streamedRate;
+        }
+        
+        MockResponse response = new MockResponse()
+            .setHeader("content-type", "application/json")
+            .setHeader("anthropic-ratelimit-requests-limit", profile.requestsPerMinute)
+            .setHeader("anthropic-ratelimit-requests-remaining", profile.requestsPerMinute);
+        
+        // Errors come back quickly, like a gateway rejecting the request
+        if ((roll -= profile.throttledRate) < 0) {
+            throttled.incrementAndGet();
+            return response.setResponseCode(429)
+                .setHeader("retry-after", profile.retryAfterSeconds)
+                .setBody(error("rate_limit_error", "Number of requests has exceeded your rate limit"));
+        }
+        if ((roll -= profile.overloadedRate) < 0) {
+            overloaded.incrementAndGet();
+            return response.setResponseCode(529)
+                .setBody(error("overloaded_error", "Overloaded"));
+        }
+        
+        String body;
+        if ((roll -= profile.malformedRate) < 0) {
+            malformed.incrementAndGet();
+            body = "{\"content\":[{\"type\":\"text\",\"text\":\"Sure! Here is the interpretation: {\\\"intent\\\": \"}";
+        } else {
+            ok.incrementAndGet();
+            body = batch != null
+                ? textMessage(gson.toJson(batchInterpretations(batch)))
+                : textMessage(gson.toJson(interpretation(INTERPRETATIONS[pick], lowConfidence ? 0.4f : 0.92f)));
+        }
+        
+        if (stream) {
+            streamed.incrementAndGet();
+            int chunk = 64;
+            long headersMs = latencyMs / 3;
+            response.setHeadersDelay(headersMs, TimeUnit.MILLISECONDS)
+                .setChunkedBody(body, chunk)
+                .throttleBody(chunk, profile.streamChunkDelayMs, TimeUnit.MILLISECONDS);
+        } else {
+            response.setHeadersDelay(latencyMs, TimeUnit.MILLISECONDS).setBody(body);
+        }
+        return response;
+    }
+    
+    private static JsonObject interpretation(String[] interpretation, float confidence) {
+        JsonObject parameters = new JsonObject();
+        parameters.addProperty(interpretation[1], interpretation[2]);
+        
+        JsonObject text = new JsonObject();
+        text.addProperty("intent", interpretation[0] + " " + interpretation[2]);
+        text.addProperty("action_type", interpretation[0]);
+        text.add("parameters", parameters);
+        text.addProperty("explanation", "Load test interpretation");
+        text.addProperty("executable", true);
+        text.addProperty("confidence", confidence);
+        return text;
+    }
+    
+    private static JsonArray batchInterpretations(List<String> commands) {
+        JsonArray interpretations = new JsonArray();
+        for (int i = 0; i < commands.size(); i++) {
+            String[] words = commands.get(i).split(" ");
+            JsonObject interpretation = interpretation(
+                new String[] {"call", "contact", words[words.length - 1]}, 0.92f);
+            interpretation.addProperty("index", i);
+            interpretations.add(interpretation);
+        }
+        return interpretations;
+    }
+    
+    private String textMessage(String text) {
+        JsonObject content = new JsonObject();
+        content.addProperty("type", "text");
+        content.addProperty("text", text);
+        JsonArray contents = new JsonArray();
+        contents.add(content);
+        
+        JsonObject usage = new JsonObject();
+        usage.addProperty("input_tokens", 310);
+        usage.addProperty("output_tokens", 85);
+        
+        JsonObject message = new JsonObject();
+        message.addProperty("id", "msg_load_" + requests.get());
+        message.addProperty("type", "message");
+        message.addProperty("role", "assistant");
+        message.add("content", contents);
+        message.addProperty("stop_reason", "end_turn");
+        message.add("usage", usage);
+        return gson.toJson(message);
+    }
+    
+    private String error(String type, String text) {
+        JsonObject error = new JsonObject();
+        error.addProperty("type", type);
+        error.addProperty("message", text);
+        JsonObject body = new JsonObject();
+        body.addProperty("type", "error");
+        body.add("error", error);
+        return gson.toJson(body);
+    }
+}
@@ -0,0 +1,115 @@
+package com.voiceagent.app.data;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a year of always-on command history with realistic mixes of
+ * command types, success rates and time-of-day contexts
+ */
+class SyntheticHistory {
+    
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    
+    // Command type, share of traffic, success rate, example utterances
+    private static final Object[][] TYPES = {
+        {"call", 0.20, 0.95, new String[] {"call mom", "call dad", "call the office", "dial 5551234"}},
+        {"message", 0.14, 0.90, new String[] {"text sarah saying on my way", "message john saying running late"}},
+        {"open_app", 0.14, 0.85, new String[] {"open maps", "open chrome", "launch gmail", "open camera"}},
+        {"search", 0.11, 0.97, new String[] {"search for pizza near me", "google flights to berlin"}},
+        {"time", 0.09, 1.00, new String[] {"what time is it", "what's the time"}},
+        {"weather", 0.07, 0.96, new String[] {"what's the weather", "weather in london"}},
+        {"alarm", 0.06, 0.92, new String[] {"set an alarm for 7", "wake me up at 8"}},
+        {"navigation", 0.05, 0.93, new String[] {"navigate home", "navigate to work"}},
+        {"music", 0.04, 0.90, new String[] {"play music", "play song yesterday"}},
+        {"date", 0.03, 1.00, new String[] {"what's the date today"}},
+        {"custom", 0.03, 0.88, new String[] {"start workout", "good night"}},
+        {"other", 0.02, 0.60, new String[] {"turn on the flashlight", "remind me to buy milk"}},
+        {"unknown", 0.02, 0.00, new String[] {"how far is the moon", "order a coffee", "read my notifications"}},
+    };
+    
+    // Relative activity per hour of day
+    private static final double[] HOURLY_WEIGHT = {
+        0.2, 0.1, 0.05, 0.05, 0.05, 0.2, 0.8, 1.5, 1.8, 1.2, 1.0, 1.0,
+        1.3, 1.1, 0.9, 0.9, 1.0, 1.4, 1.6, 1.5, 1.3, 1.0, 0.7, 0.4
+    };
+    
+    private final Random random;
+    private final long endTime;
+    private final double[] cumulativeHours = new double[24];
+    
+    SyntheticHistory(long seed, long endTime) {
+        this.random = new Random(seed);
+        this.endTime = endTime;
+        double sum = 0;
+        for (int hour = 0; hour < 24; hour++) {
+            sum += HOURLY_WEIGHT[hour];
+            cumulativeHours[hour] = sum;
+        }
+        for (int hour = 0; hour < 24; hour++) {
+            cumulativeHours[hour] /= sum;
+        }
+    }
+    
+    /**
+     * Rows spread over the 365 days before the end time
+     */
+    List<CommandEntity> next(int count) {
+        List<CommandEntity> rows = new ArrayList<>(count);
+        Calendar calendar = Calendar.getInstance();
+        for (int i = 0; i < count; i++) {
+            Object[] type = pickType();
+            String[] examples = (String[]) type[3];
+            
+            long day = endTime - (1 + random.nextInt(365)) * DAY_MS;
+            calendar.setTimeInMillis(day);
+            calendar.set(Calendar.HOUR_OF_DAY, pickHour());
+            calendar.set(Calendar.MINUTE, random.nextInt(60));
+            
+            CommandEntity entity = new CommandEntity();
+            entity.command = examples[random.nextInt(examples.length)];
+            entity.commandType = (String) type[0];
+            entity.success = random.nextDouble() < (Double) type[2];
+            entity.timestamp = calendar.getTimeInMillis();
+            entity.context = contextFor(calendar);
+            rows.add(entity);
+        }
+        return rows;
+    }
+    
+    private Object[] pickType() {
+        double r = random.nextDouble();
+        for (Object[] type : TYPES) {
+            r -= (Double) type[1];
+            if (r <= 0) {
+                return type;
+            }
+        }
+        return TYPES[TYPES.length - 1];
+    }
+    
+    private int pickHour() {
+        double r = random.nextDouble();
+        for (int hour = 0; hour < 24; hour++) {
+            if (r <= cumulativeHours[hour]) {
+                return hour;
+            }
+        }
+        return 23;
+    }
+    
+    /**
+     * Same format as AILearningEngine.getCurrentContext()
+     */
+    static String contextFor(Calendar calendar) {
+        int hour = calendar.get(Calendar.HOUR_OF_DAY);
+        String timeOfDay;
+        if (hour < 12) timeOfDay = "morning";
+        else if (hour < 17) timeOfDay = "afternoon";
+        else if (hour < 21) timeOfDay = "evening";
+        else timeOfDay = "night";
+        return timeOfDay + "_" + calendar.get(Calendar.DAY_OF_WEEK);
+    }
+}
@@ -0,0 +1,345 @@
+package com.voiceagent.app.data;
+
+import android.content.Context;
+import android.os.Bundle;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Times every TrainingDataDao method against in-memory and on-disk databases
+ * holding a synthetic command history.
+ *
+ * Run with: ./gradlew :app:connectedAndroidTest
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.voiceagent.app.data.TrainingDataDaoBenchmark
+ * Table sizes can be narrowed with -Pandroid.testInstrumentationRunnerArguments.daoBenchmarkSizes=10000
+ */
+@RunWith(Parameterized.class)
+public class TrainingDataDaoBenchmark {
+    
+    private static final String DEFAULT_SIZES = "10000,100000,1000000";
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int BATCH_SIZE = 100;
+    private static final long SEED = 42;
+    
+    // Benchmark inserts use timestamp 0 so they can be cleaned up without touching the history
+    private static final long SCRATCH_TIMESTAMP = 0;
+    
+    enum Storage { IN_MEMORY, ON_DISK }
+    
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+    
+    @Parameterized.Parameter(0)
+    public int rows;
+    
+    @Parameterized.Parameter(1)
+    public Storage storage;
+    
+    // Loading a million rows takes a while, so the database is shared by all tests of one configuration
+    private static String openKey;
+    private static TrainingDatabase database;
+    
+    private TrainingDataDao dao;
+    private SyntheticHistory history;
+    
+    @Parameterized.Parameters(name = "{0}rows_{1}")
+    public static Collection<Object[]> parameters() {
+        String sizes = InstrumentationRegistry.getArguments().getString("daoBenchmarkSizes", DEFAULT_SIZES);
+        List<Object[]> parameters = new ArrayList<>();
+        for (String size : sizes.split(",")) {
+            for (Storage storage : Storage.values()) {
+                parameters.add(new Object[] {Integer.parseInt(size.trim()), storage});
+            }
+        }
+        return parameters;
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        history = new SyntheticHistory(SEED, System.currentTimeMillis());
+        String key = rows + "_" + storage;
+        if (!key.equals(openKey)) {
+            closeDatabase();
+            database = open(ApplicationProvider.getApplicationContext(), key);
+            openKey = key;
+        }
+        dao = database.trainingDataDao();
+    }
+    
+    @AfterClass
+    public static void closeDatabase() {
+        if (database != null) {
+            database.close();
+            database = null;
+            openKey = null;
+        }
+    }
+    
+    private TrainingDatabase open(Context context, String key) throws IOException {
+        if (storage == Storage.IN_MEMORY) {
+            TrainingDatabase db = Room.inMemoryDatabaseBuilder(context, TrainingDatabase.class).build();
+            long loadNanos = load(db);
+            recordSize(key, loadNanos, 0);
+            return db;
+        }
+        
+        // Same builder options as TrainingDatabase.getInstance()
+        String name = "dao_benchmark_" + rows + ".db";
+        TrainingDatabase db = Room.databaseBuilder(context, TrainingDatabase.class, name)
+            .addMigrations(TrainingDatabase.MIGRATION_1_2, TrainingDatabase.MIGRATION_2_3,
+                TrainingDatabase.MIGRATION_3_4, TrainingDatabase.MIGRATION_4_5)
+            .fallbackToDestructiveMigration()
+            .build();
+        
+        // Reuse the file from a previous run when it holds the expected history
+        long loadNanos = 0;
+        if (db.trainingDataDao().getTotalCommandCount() != rows) {
+            db.close();
+            context.deleteDatabase(name);
+            db = Room.databaseBuilder(context, TrainingDatabase.class, name)
+                .addMigrations(TrainingDatabase.MIGRATION_1_2, TrainingDatabase.MIGRATION_2_3,
+                    TrainingDatabase.MIGRATION_3_4, TrainingDatabase.MIGRATION_4_5)
+                .fallbackToDestructiveMigration()
+                .build();
+            loadNanos = load(db);
+        }
+        
+        db.getOpenHelper().getWritableDatabase().query("PRAGMA wal_checkpoint(TRUNCATE)").close();
+        recordSize(key, loadNanos, fileSize(context.getDatabasePath(name)));
+        return db;
+    }
+    
+    private long load(TrainingDatabase db) {
+        TrainingDataDao loader = db.trainingDataDao();
+        long start = System.nanoTime();
+        for (int loaded = 0; loaded < rows; loaded += LOAD_CHUNK) {
+            loader.insertAll(history.next(Math.min(LOAD_CHUNK, rows - loaded)));
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(rows, loader.getTotalCommandCount());
+        return elapsed;
+    }
+    
+    private static long fileSize(File dbFile) {
+        long size = 0;
+        for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            size += new File(dbFile.getPath() + suffix).length();
+        }
+        return size;
+    }
+    
+    /**
+     * Append load time and file size next to the benchmark JSON so both are archived together
+     */
+    private static void recordSize(String key, long loadNanos, long bytes) throws IOException {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String dir = arguments.getString("additionalTestOutputDir");
+        File outDir = dir != null ? new File(dir)
+            : ApplicationProvider.getApplicationContext().getExternalFilesDir(null);
+        File csv = new File(outDir, "dao-benchmark-files.csv");
+        boolean header = !csv.exists();
+        try (PrintWriter out = new PrintWriter(new FileWriter(csv, true))) {
+            if (header) {
+                out.println("configuration,load_ms,file_bytes");
+            }
+            out.println(key + "," + loadNanos / 1_000_000 + "," + bytes);
+        }
+    }
+    
+    private CommandEntity scratchRow() {
+        CommandEntity entity = history.next(1).get(0);
+        entity.timestamp = SCRATCH_TIMESTAMP;
+        return entity;
+    }
+    
+    private void removeScratchRows() {
+        dao.deleteOldCommands(SCRATCH_TIMESTAMP + 1);
+    }
+    
+    // --- Writes ---
+    
+    @Test
+    public void insert() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            CommandEntity entity = scratchRow();
+            state.resumeTiming();
+            dao.insert(entity);
+        }
+        removeScratchRows();
+    }
+    
+    /**
+     * The path AILearningEngine.recordCommand() takes outside a batch
+     */
+    @Test
+    public void insertOnNewThread() throws InterruptedException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            CommandEntity entity = scratchRow();
+            state.resumeTiming();
+            Thread thread = new Thread(() -> dao.insert(entity));
+            thread.start();
+            thread.join();
+        }
+        removeScratchRows();
+    }
+    
+    @Test
+    public void insertSingle100() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            List<CommandEntity> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(scratchRow());
+            }
+            state.resumeTiming();
+            for (CommandEntity entity : batch) {
+                dao.insert(entity);
+            }
+        }
+        removeScratchRows();
+    }
+    
+    @Test
+    public void insertAll100() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            List<CommandEntity> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(scratchRow());
+            }
+            state.resumeTiming();
+            dao.insertAll(batch);
+        }
+        removeScratchRows();
+    }
+    
+    @Test
+    public void update() {
+        CommandEntity entity = dao.getRecentCommands(1).get(0);
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            entity.userFeedback = (i++ & 1) == 0 ? 1 : -1;
+            dao.update(entity);
+        }
+    }
+    
+    /**
+     * Deletes 1000 expired rows; the timed part is the scan over the whole history
+     */
+    @Test
+    public void deleteOldCommands() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            List<CommandEntity> expired = new ArrayList<>(1000);
+            for (int i = 0; i < 1000; i++) {
+                expired.add(scratchRow());
+            }
+            dao.insertAll(expired);
+            state.resumeTiming();
+            removeScratchRows();
+        }
+    }
+    
+    // --- Reads ---
+    
+    @Test
+    public void getRecentCommands() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getRecentCommands(50);
+        }
+    }
+    
+    @Test
+    public void getRecentSuccessfulCommands() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getRecentSuccessfulCommands(50);
+        }
+    }
+    
+    @Test
+    public void getUnknownCommands() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getUnknownCommands(50);
+        }
+    }
+    
+    @Test
+    public void getCommandByTextHit() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getCommandByText("call mom");
+        }
+    }
+    
+    @Test
+    public void getCommandByTextMiss() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getCommandByText("never said this");
+        }
+    }
+    
+    @Test
+    public void getTotalCommandCount() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getTotalCommandCount();
+        }
+    }
+    
+    @Test
+    public void getSuccessfulCommandCount() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getSuccessfulCommandCount();
+        }
+    }
+    
+    /**
+     * Unbounded: returns every row of a rare type, about 3% of the table
+     */
+    @Test
+    public void getCommandsByType() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getCommandsByType("date");
+        }
+    }
+    
+    @Test
+    public void getCommandsByContext() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dao.getCommandsByContext("morning_2", 20);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.voiceagent.app;
+
+import android.app.Service;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Messenger;
+import android.os.RemoteException;
+import android.os.SystemClock;
+import android.util.Log;
+import com.voiceagent.app.ai.AILearningEngine;
+import com.voiceagent.app.ai.ClaudeApiService;
+import com.voiceagent.app.ai.Deadline;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bound service that runs batches of text commands through the same pipeline as
+ * spoken ones, without speech recognition.
+ *
+ * Send MSG_SUBMIT_BATCH with arg1 = batch id, a KEY_COMMANDS string list and replyTo set.
+ * Every callback of every command comes back as MSG_COMMAND_RESULT (arg1 = batch id,
+ * arg2 = index), followed by one MSG_BATCH_COMPLETE. Batches run one at a time in
+ * submission order, and each command starts after the previous one's last result;
+ * commands in a batch share normalization work and are recorded in a single
+ * database transaction. With KEY_DRY_RUN set, intents are logged instead of started.
+ */
+public class CommandBatchService extends Service {
+    
+    private static final String TAG = "CommandBatchService";
+    private static final long COMPLETION_GRACE_MS = 500;
+    
+    public static final int MSG_SUBMIT_BATCH = 1;
+    public static final int MSG_COMMAND_RESULT = 2;
+    public static final int MSG_BATCH_COMPLETE = 3;
+    
+    public static final String KEY_COMMANDS = "commands";
+    public static final String KEY_DRY_RUN = "dry_run";
+    public static final String KEY_COMMAND = "command";
+    public static final String KEY_STATUS = "status";
+    public static final String KEY_MESSAGE = "message";
+    public static final String KEY_ELAPSED_MS = "elapsed_ms";
+    public static final String KEY_COUNT = "count";
+    public static final String KEY_RECORDED = "recorded";
+    
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_ERROR = "error";
+    public static final String STATUS_UNKNOWN = "unknown";
+    public static final String STATUS_TIMEOUT = "timeout";
+    
+    private HandlerThread workerThread;
+    private Messenger messenger;
+    private VoiceCommandProcessor commandProcessor;
+    private VoiceCommandProcessor dryRunProcessor;
+    
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        commandProcessor = VoiceCommandProcessor.getInstance(this);
+        dryRunProcessor = commandProcessor.dryRun();
+        
+        workerThread = new HandlerThread("CommandBatch");
+        workerThread.start();
+        messenger = new Messenger(new BatchHandler(workerThread.getLooper()));
+    }
+    
+    @Override
+    public IBinder onBind(Intent intent) {
+        return messenger.getBinder();
+    }
+    
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if (workerThread != null) {
+            workerThread.quit();
+        }
+    }
+    
+    private class BatchHandler extends Handler {
+        
+        BatchHandler(Looper looper) {
+            super(looper);
+        }
+        
+        @Override
+        public void handleMessage(Message msg) {
+            if (msg.what != MSG_SUBMIT_BATCH) {
+                super.handleMessage(msg);
+                return;
+            }
+            
+            Bundle data = msg.getData();
+            ArrayList<String> commands = data.getStringArrayList(KEY_COMMANDS);
+            if (msg.replyTo == null || commands == null) {
+                Log.w(TAG, "Ignoring batch without commands or reply messenger");
+                return;
+            }
+            VoiceCommandProcessor processor = data.getBoolean(KEY_DRY_RUN)
+                ? dryRunProcessor : commandProcessor;
+            runBatch(processor, msg.arg1, commands, msg.replyTo);
+        }
+    }
+    
+    private void runBatch(VoiceCommandProcessor processor, int batchId,
+                          ArrayList<String> commands, Messenger client) {
+        long batchStart = SystemClock.elapsedRealtime();
+        AILearningEngine aiEngine = processor.getAiEngine();
+        
+        int recorded;
+        AILearningEngine.Batch batch = aiEngine.beginBatch();
+        try {
+            for (int i = 0; i < commands.size(); i++) {
+                if (!runCommand(processor, batch, batchId, i, commands.get(i), client)) {
+                    Log.w(TAG, "Client went away, abandoning batch " + batchId);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            recorded = aiEngine.endBatch(batch);
+        }
+        
+        long elapsed = SystemClock.elapsedRealtime() - batchStart;
+        Log.d(TAG, "Batch " + batchId + ": " + commands.size() + " commands in " + elapsed
+            + " ms, " + recorded + " recorded");
+        
+        Bundle data = new Bundle();
+        data.putInt(KEY_COUNT, commands.size());
+        data.putInt(KEY_RECORDED, recorded);
+        data.putLong(KEY_ELAPSED_MS, elapsed);
+        send(client, MSG_BATCH_COMPLETE, batchId, 0, data);
+    }
+    
+    /**
+     * Run one command and wait for its last result. Returns false once the client is gone.
+     */
+    private boolean runCommand(VoiceCommandProcessor processor, AILearningEngine.Batch batch,
+                               int batchId, int index, String command, Messenger client)
+            throws InterruptedException {
+        long start = SystemClock.elapsedRealtime();
+        Deadline deadline = Deadline.after(ClaudeApiService.DEFAULT_BUDGET_MS);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean clientAlive = new AtomicBoolean(true);
+        
+        processor.processCommand(command, deadline, batch, new VoiceCommandProcessor.CommandCallback() {
+            @Override
+            public void onSuccess(String result) {
+                report(STATUS_SUCCESS, result);
+            }
+            
+            @Override
+            public void onError(String error) {
+                report(STATUS_ERROR, error);
+            }
+            
+            @Override
+            public void onUnknownCommand(String unknownCommand) {
+                report(STATUS_UNKNOWN, unknownCommand);
+            }
+            
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+            
+            // Interim results (e.g. "Asking Claude") are streamed as they arrive
+            private void report(String status, String message) {
+                if (!sendResult(client, batchId, index, command, status, message,
+                        SystemClock.elapsedRealtime() - start)) {
+                    clientAlive.set(false);
+                }
+            }
+        });
+        
+        if (!done.await(deadline.remainingMillis() + COMPLETION_GRACE_MS, TimeUnit.MILLISECONDS)) {
+            return sendResult(client, batchId, index, command, STATUS_TIMEOUT, null,
+                SystemClock.elapsedRealtime() - start);
+        }
+        return clientAlive.get();
+    }
+    
+    private boolean sendResult(Messenger client, int batchId, int index, String command,
+                               String status, String message, long elapsedMs) {
+        Bundle data = new Bundle();
+        data.putString(KEY_COMMAND, command);
+        data.putString(KEY_STATUS, status);
+        data.putString(KEY_MESSAGE, message);
+        data.putLong(KEY_ELAPSED_MS, elapsedMs);
+        return send(client, MSG_COMMAND_RESULT, batchId, index, data);
+    }
+    
+    private boolean send(Messenger client, int what, int arg1, int arg2, Bundle data) {
+        Message reply = Message.obtain(null, what, arg1, arg2);
+        reply.setData(data);
+        try {
+            client.send(reply);
+            return true;
+        } catch (RemoteException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.voiceagent.app;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+import com.voiceagent.app.ai.TokenBudget;
+import com.voiceagent.app.ai.TokenUsageTracker;
+import com.voiceagent.app.data.TokenUsageEntity;
+import com.voiceagent.app.data.TrainingDatabase;
+import com.voiceagent.app.data.WakeWordHourEntity;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.Gauge;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.WakeWordTelemetry;
+import com.voiceagent.app.utils.TraceExporter;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Live view of the metrics registry: latency percentiles, counters and
+ * their rates since the previous refresh, and gauges. Above them, Claude
+ * token usage for the last days against the daily budget, and the wake word
+ * service's hourly totals per detection strategy.
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+    
+    private static final long REFRESH_INTERVAL_MS = 1000;
+    private static final int USAGE_DAYS = 7;
+    private static final int WAKE_WORD_HOURS = 24;
+    
+    private TextView usageText;
+    private TextView wakeWordText;
+    private TextView histogramsText;
+    private TextView countersText;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable refresh = this::refresh;
+    
+    // Counts at the previous refresh, to turn totals into rates
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private long previousRefreshAt = 0;
+    
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+        
+        usageText = findViewById(R.id.usageText);
+        wakeWordText = findViewById(R.id.wakeWordText);
+        histogramsText = findViewById(R.id.histogramsText);
+        countersText = findViewById(R.id.countersText);
+        findViewById(R.id.exportMetricsButton).setOnClickListener(v -> exportMetrics());
+    }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+        loadUsage();
+        loadWakeWordHours();
+    }
+    
+    @Override
+    protected void onPause() {
+        super.onPause();
+        handler.removeCallbacks(refresh);
+    }
+    
+    private void refresh() {
+        long now = SystemClock.elapsedRealtime();
+        double elapsedSeconds = previousRefreshAt > 0 ? (now - previousRefreshAt) / 1000.0 : 0;
+        previousRefreshAt = now;
+        
+        StringBuilder histograms = new StringBuilder(String.format(Locale.US,
+            "%-26s %7s %6s %8s %8s %8s %8s%n", "latency (ms)", "count", "/s", "p50", "p95", "p99", "max"));
+        for (LatencyHistogram histogram : Metrics.histograms()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            histograms.append(String.format(Locale.US, "%-26s %7d %6s %8s %8s %8s %8s%n",
+                histogram.getName(), snapshot.count,
+                rate(histogram.getName(), snapshot.count, elapsedSeconds),
+                millis(snapshot.percentile(50)), millis(snapshot.percentile(95)),
+                millis(snapshot.percentile(99)), millis(snapshot.maxMicros)));
+        }
+        histogramsText.setText(histograms.toString());
+        
+        StringBuilder counters = new StringBuilder(String.format(Locale.US,
+            "%-34s %9s %6s%n", "counter", "total", "/s"));
+        for (Counter counter : Metrics.counters()) {
+            long value = counter.get();
+            counters.append(String.format(Locale.US, "%-34s %9d %6s%n",
+                counter.getName(), value, rate(counter.getName(), value, elapsedSeconds)));
+        }
+        counters.append(String.format(Locale.US, "%n%-34s %9s%n", "gauge", "value"));
+        for (Gauge gauge : Metrics.gauges()) {
+            counters.append(String.format(Locale.US, "%-34s %9d%n", gauge.getName(), gauge.get()));
+        }
+        countersText.setText(counters.toString());
+        
+        handler.postDelayed(refresh, REFRESH_INTERVAL_MS);
+    }
+    
+    /**
+     * Daily totals come from the database, so they load once per visit off the main thread
+     */
+    private void loadUsage() {
+        TokenUsageTracker tracker = TokenUsageTracker.getInstance(this);
+        new Thread(() -> {
+            long budget = tracker.getDailyBudget();
+            TokenBudget.Level level = tracker.getLevel();
+            List<TokenUsageEntity> days = tracker.getRecentDays(USAGE_DAYS);
+            
+            StringBuilder usage = new StringBuilder(String.format(Locale.US, "tokens today: %d of %s (%s)%n%n",
+                tracker.getUsedToday(), budget > 0 ? String.valueOf(budget) : "no limit", level));
+            usage.append(String.format(Locale.US, "%-10s %6s %9s %9s %10s%n",
+                "day", "calls", "input", "output", "ms/output"));
+            for (TokenUsageEntity day : days) {
+                usage.append(String.format(Locale.US, "%-10s %6d %9d %9d %10s%n",
+                    day.day, day.calls, day.inputTokens, day.outputTokens,
+                    day.outputTokens > 0
+                        ? String.format(Locale.US, "%.1f", (double) day.latencyMs / day.outputTokens)
+                        : "-"));
+            }
+            String text = usage.toString();
+            runOnUiThread(() -> usageText.setText(text));
+        }).start();
+    }
+    
+    /**
+     * Stored hours lag the service by up to one flush interval
+     */
+    private void loadWakeWordHours() {
+        TrainingDatabase database = TrainingDatabase.getInstance(this);
+        new Thread(() -> {
+            long since = System.currentTimeMillis() - WAKE_WORD_HOURS * WakeWordTelemetry.HOUR_MS;
+            List<WakeWordHourEntity> hours = database.wakeWordHourDao().getHoursSince(since);
+            SimpleDateFormat hourFormat = new SimpleDateFormat("HH:00", Locale.US);
+            
+            StringBuilder text = new StringBuilder(String.format(Locale.US,
+                "%-5s %-20s %5s %6s %4s %6s %6s %6s %5s %6s%n", "hour", "strategy", "sess", "avg s",
+                "det", "avg ms", "max ms", "cpu s", "false", "no cmd"));
+            for (WakeWordHourEntity hour : hours) {
+                text.append(String.format(Locale.US, "%-5s %-20s %5d %6s %4d %6s %6d %6.1f %5d %6d%n",
+                    hourFormat.format(new Date(hour.hourStart)), hour.strategy, hour.sessions,
+                    hour.sessions > 0
+                        ? String.format(Locale.US, "%.1f", hour.sessionMs / 1000.0 / hour.sessions)
+                        : "-",
+                    hour.detections,
+                    hour.timedDetections > 0
+                        ? String.valueOf(hour.detectionLatencyMs / hour.timedDetections)
+                        : "-",
+                    hour.maxDetectionLatencyMs, hour.cpuMs / 1000.0,
+                    hour.falseWakes, hour.wakesWithoutCommand));
+                if (hour.errors != null && !hour.errors.isEmpty()) {
+                    text.append("      restarts by error code: ").append(hour.errors).append('\n');
+                }
+            }
+            if (hours.isEmpty()) {
+                text.append("no wake word activity recorded yet\n");
+            }
+            String result = text.toString();
+            runOnUiThread(() -> wakeWordText.setText(result));
+        }).start();
+    }
+    
+    private String rate(String name, long count, double elapsedSeconds) {
+        Long previous = previousCounts.put(name, count);
+        if (previous == null || elapsedSeconds <= 0) {
+            return "-";
+        }
+        return String.format(Locale.US, "%.1f", (count - previous) / elapsedSeconds);
+    }
+    
+    private static String millis(long micros) {
+        return String.format(Locale.US, "%.1f", micros / 1000.0);
+    }
+    
+    private void exportMetrics() {
+        new Thread(() -> {
+            String message;
+            try {
+                File file = TraceExporter.exportMetrics(this);
+                message = "Metrics saved to " + file.getAbsolutePath();
+            } catch (IOException e) {
+                message = "Failed to export metrics: " + e.getMessage();
+            }
+            String result = message;
+            runOnUiThread(() -> Toast.makeText(this, result, Toast.LENGTH_LONG).show());
+        }).start();
+    }
+}
@@ -6,7 +6,6 @@ import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.speech.RecognitionListener;
-import android.speech.RecognizerIntent;
 import android.speech.SpeechRecognizer;
 import android.view.View;
 import android.widget.ImageButton;
@@ -19,6 +18,12 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.voiceagent.app.ai.AILearningEngine;
+import com.voiceagent.app.ai.BatchInterpretationWorker;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
+import com.voiceagent.app.speech.RecognitionSession;
 import java.util.ArrayList;
 import java.util.Locale;
 
@@ -27,6 +32,10 @@ public class MainActivity extends AppCompatActivity {
     private static final int REQUEST_RECORD_AUDIO = 1;
     private static final int REQUEST_PERMISSIONS = 100;
     
+    private static final LatencyHistogram RECOGNIZER_SESSION = Metrics.histogram("recognizer.session");
+    private static final LatencyHistogram RECOGNIZER_FINALIZE = Metrics.histogram("recognizer.finalize");
+    private static final Counter RECOGNIZER_ERRORS = Metrics.counter("recognizer.errors");
+    
     private SpeechRecognizer speechRecognizer;
     private ImageButton micButton;
     private TextView statusText;
@@ -34,6 +43,10 @@ public class MainActivity extends AppCompatActivity {
     private TextView wakeWordStatusText;
     private boolean isListening = false;
     private boolean wakeWordServiceRunning = false;
+    private long listenSpan = 0;
+    private long finalizeSpan = 0;
+    private long listenStartNanos = 0;
+    private long finalizeStartNanos = 0;
     
     private AILearningEngine aiEngine;
     private VoiceCommandProcessor commandProcessor;
@@ -50,8 +63,8 @@ public class MainActivity extends AppCompatActivity {
         wakeWordStatusText = findViewById(R.id.wakeWordStatusText);
         
         // Initialize AI engine and command processor
-        aiEngine = new AILearningEngine(this);
-        commandProcessor = new VoiceCommandProcessor(this, aiEngine);
+        commandProcessor = VoiceCommandProcessor.getInstance(this);
+        aiEngine = commandProcessor.getAiEngine();
         
         // Request permissions
         requestPermissions();
@@ -80,6 +93,9 @@ public class MainActivity extends AppCompatActivity {
         // Start wake word service
         startWakeWordService();
         
+        // Learn unknown commands in the background
+        BatchInterpretationWorker.schedule(this);
+        
         // Check if activated by wake word
         handleWakeWordActivation(getIntent());
     }
@@ -92,6 +108,15 @@ public class MainActivity extends AppCompatActivity {
     
     private void handleWakeWordActivation(Intent intent) {
         if (intent != null && intent.getBooleanExtra("wake_word_activated", false)) {
+            Tracer.instant("main.wakeWordActivation");
+            
+            // Command spoken in the same breath as the wake word ("Nekro, call mom")
+            String command = intent.getStringExtra("wake_word_command");
+            if (command != null && !command.isEmpty()) {
+                processCommand(command);
+                return;
+            }
+            
             statusText.setText("Wake word detected! Listening for command...");
             startListening();
         }
@@ -173,10 +198,16 @@ public class MainActivity extends AppCompatActivity {
                 @Override
                 public void onEndOfSpeech() {
                     statusText.setText("Processing...");
+                    finalizeSpan = Tracer.begin();
+                    finalizeStartNanos = System.nanoTime();
                 }
                 
                 @Override
                 public void onError(int error) {
+                    Tracer.end("recognizer.session", listenSpan);
+                    listenSpan = 0;
+                    RECOGNIZER_ERRORS.increment();
+                    recordRecognizerSession();
                     String errorMessage = getErrorText(error);
                     statusText.setText("Error: " + errorMessage);
                     isListening = false;
@@ -185,6 +216,12 @@ public class MainActivity extends AppCompatActivity {
                 
                 @Override
                 public void onResults(Bundle results) {
+                    // Session covers the whole utterance, finalize only the wait after end of speech
+                    Tracer.end("recognizer.session", listenSpan);
+                    Tracer.end("recognizer.finalize", finalizeSpan);
+                    listenSpan = 0;
+                    finalizeSpan = 0;
+                    recordRecognizerSession();
                     ArrayList<String> matches = results.getStringArrayList(
                         SpeechRecognizer.RESULTS_RECOGNITION);
                     if (matches != null && !matches.isEmpty()) {
@@ -224,17 +261,28 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         
-        Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
-        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL,
-            RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
-        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, Locale.getDefault());
-        intent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
+        Intent intent = RecognitionSession.createUtteranceIntent();
         
+        listenSpan = Tracer.begin();
+        finalizeSpan = 0;
+        listenStartNanos = System.nanoTime();
+        finalizeStartNanos = 0;
         speechRecognizer.startListening(intent);
         isListening = true;
         updateMicButton();
     }
     
+    private void recordRecognizerSession() {
+        if (listenStartNanos != 0) {
+            RECOGNIZER_SESSION.recordSince(listenStartNanos);
+        }
+        if (finalizeStartNanos != 0) {
+            RECOGNIZER_FINALIZE.recordSince(finalizeStartNanos);
+        }
+        listenStartNanos = 0;
+        finalizeStartNanos = 0;
+    }
+    
     private void stopListening() {
         speechRecognizer.stopListening();
         isListening = false;
@@ -254,6 +302,7 @@ public class MainActivity extends AppCompatActivity {
     
     private void processCommand(String command) {
         statusText.setText("You said: " + command);
+        long span = Tracer.begin();
         
         // Process command with AI learning
         commandProcessor.processCommand(command, new VoiceCommandProcessor.CommandCallback() {
@@ -280,6 +329,7 @@ public class MainActivity extends AppCompatActivity {
                 });
             }
         });
+        Tracer.end("main.processCommand", span);
     }
     
     private void updateLearningStats() {
@@ -1,5 +1,6 @@
 package com.voiceagent.app;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -8,20 +9,30 @@ import android.widget.Switch;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import com.voiceagent.app.ai.TokenUsageTracker;
+import com.voiceagent.app.diagnostics.Tracer;
 import com.voiceagent.app.utils.ApiKeyManager;
+import com.voiceagent.app.utils.TraceExporter;
+import java.io.File;
+import java.io.IOException;
 
 /**
  * Settings activity for API key configuration
  */
 public class SettingsActivity extends AppCompatActivity {
     
+    private static final long TRACE_EXPORT_WINDOW_MS = 60000;
+    
     private EditText apiKeyInput;
+    private EditText tokenBudgetInput;
     private Button saveButton;
     private Button testButton;
     private Switch claudeToggle;
+    private Switch traceToggle;
     private TextView statusText;
     
     private ApiKeyManager apiKeyManager;
+    private TokenUsageTracker usageTracker;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,13 +41,16 @@ public class SettingsActivity extends AppCompatActivity {
         
         // Initialize views
         apiKeyInput = findViewById(R.id.apiKeyInput);
+        tokenBudgetInput = findViewById(R.id.tokenBudgetInput);
         saveButton = findViewById(R.id.saveButton);
         testButton = findViewById(R.id.testButton);
         claudeToggle = findViewById(R.id.claudeToggle);
+        traceToggle = findViewById(R.id.traceToggle);
         statusText = findViewById(R.id.statusText);
         
         // Initialize API key manager
         apiKeyManager = new ApiKeyManager(this);
+        usageTracker = TokenUsageTracker.getInstance(this);
         
         // Load existing settings
         loadSettings();
@@ -44,10 +58,16 @@ public class SettingsActivity extends AppCompatActivity {
         // Set up listeners
         saveButton.setOnClickListener(v -> saveApiKey());
         testButton.setOnClickListener(v -> testApiKey());
+        findViewById(R.id.saveBudgetButton).setOnClickListener(v -> saveTokenBudget());
         claudeToggle.setOnCheckedChangeListener((buttonView, isChecked) -> {
             apiKeyManager.setClaudeEnabled(isChecked);
             updateStatus();
         });
+        traceToggle.setOnCheckedChangeListener((buttonView, isChecked) ->
+            TraceExporter.setEnabled(this, isChecked));
+        findViewById(R.id.exportTraceButton).setOnClickListener(v -> exportTrace());
+        findViewById(R.id.diagnosticsButton).setOnClickListener(v ->
+            startActivity(new Intent(this, DiagnosticsActivity.class)));
     }
     
     private void loadSettings() {
@@ -58,6 +78,9 @@ public class SettingsActivity extends AppCompatActivity {
         }
         
         claudeToggle.setChecked(apiKeyManager.isClaudeEnabled());
+        long budget = usageTracker.getDailyBudget();
+        tokenBudgetInput.setText(budget > 0 ? String.valueOf(budget) : "");
+        traceToggle.setChecked(Tracer.isEnabled());
         updateStatus();
     }
     
@@ -87,6 +110,21 @@ public class SettingsActivity extends AppCompatActivity {
         updateStatus();
     }
     
+    private void saveTokenBudget() {
+        String text = tokenBudgetInput.getText().toString().trim();
+        long budget;
+        try {
+            budget = text.isEmpty() ? 0 : Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            Toast.makeText(this, "Enter a whole number of tokens", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        
+        usageTracker.setDailyBudget(budget);
+        Toast.makeText(this, budget > 0 ? "Daily budget set to " + budget + " tokens" : "No daily token limit",
+            Toast.LENGTH_SHORT).show();
+    }
+    
     private void testApiKey() {
         if (!apiKeyManager.hasApiKey()) {
             Toast.makeText(this, "Please save an API key first", Toast.LENGTH_SHORT).show();
@@ -107,6 +145,20 @@ public class SettingsActivity extends AppCompatActivity {
         }, 1000);
     }
     
+    private void exportTrace() {
+        new Thread(() -> {
+            String message;
+            try {
+                File file = TraceExporter.export(this, TRACE_EXPORT_WINDOW_MS);
+                message = "Trace saved to " + file.getAbsolutePath();
+            } catch (IOException e) {
+                message = "Failed to export trace: " + e.getMessage();
+            }
+            String result = message;
+            runOnUiThread(() -> Toast.makeText(this, result, Toast.LENGTH_LONG).show());
+        }).start();
+    }
+    
     private void updateStatus() {
         if (apiKeyManager.hasApiKey()) {
             if (apiKeyManager.isClaudeEnabled()) {
@@ -45,7 +45,7 @@ public class TrainingActivity extends AppCompatActivity {
         instructionsText = findViewById(R.id.instructionsText);
         
         // Initialize AI engine
-        aiEngine = new AILearningEngine(this);
+        aiEngine = VoiceCommandProcessor.getInstance(this).getAiEngine();
         
         // Initialize speech recognizer
         initializeSpeechRecognizer();
@@ -0,0 +1,16 @@
+package com.voiceagent.app;
+
+import android.app.Application;
+import com.voiceagent.app.utils.TraceExporter;
+
+/**
+ * Process-wide setup shared by the activities and services
+ */
+public class VoiceAgentApplication extends Application {
+    
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        TraceExporter.restore(this);
+    }
+}
@@ -1,109 +1,280 @@
 package com.voiceagent.app;
 
+import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.provider.AlarmClock;
+import android.util.Log;
 import android.widget.Toast;
 import com.voiceagent.app.ai.AILearningEngine;
+import com.voiceagent.app.ai.ClaudeApiService;
 import com.voiceagent.app.ai.ClaudeCommandInterpreter;
+import com.voiceagent.app.ai.Deadline;
 import com.voiceagent.app.data.CommandEntity;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
 import java.util.Calendar;
 import java.util.Locale;
 
 public class VoiceCommandProcessor {
     
+    private static final String TAG = "VoiceCommandProcessor";
+    
+    private static VoiceCommandProcessor instance;
+    
+    private static final LatencyHistogram DISPATCH_LATENCY = Metrics.histogram("command.dispatch");
+    private static final LatencyHistogram CLAUDE_LATENCY = Metrics.histogram("command.claude");
+    // How each command was resolved
+    private static final Counter ROUTE_CUSTOM = Metrics.counter("command.route.custom");
+    private static final Counter ROUTE_BUILTIN = Metrics.counter("command.route.builtin");
+    private static final Counter ROUTE_LEARNED = Metrics.counter("command.route.learned");
+    private static final Counter ROUTE_CLAUDE = Metrics.counter("command.route.claude");
+    private static final Counter ROUTE_UNKNOWN = Metrics.counter("command.route.unknown");
+    private static final Counter CLAUDE_FAILURES = Metrics.counter("command.claudeFailures");
+    
     private Context context;
     private AILearningEngine aiEngine;
     private ClaudeCommandInterpreter claudeInterpreter;
+    private ActivityLauncher launcher;
     
     public interface CommandCallback {
         void onSuccess(String result);
         void onError(String error);
         void onUnknownCommand(String command);
+        
+        /**
+         * Called once after the command's last result, e.g. after Claude's answer
+         * rather than the "Asking Claude" status that precedes it
+         */
+        default void onComplete() {
+        }
+    }
+    
+    /**
+     * Starts the activity a command resolves to
+     */
+    public interface ActivityLauncher {
+        void launch(Intent intent);
     }
     
     public VoiceCommandProcessor(Context context, AILearningEngine aiEngine) {
         this.context = context;
         this.aiEngine = aiEngine;
         this.claudeInterpreter = new ClaudeCommandInterpreter(context);
+        this.launcher = this::startActivity;
+    }
+    
+    private VoiceCommandProcessor(VoiceCommandProcessor base, ActivityLauncher launcher) {
+        this.context = base.context;
+        this.aiEngine = base.aiEngine;
+        this.claudeInterpreter = base.claudeInterpreter;
+        this.launcher = launcher;
+    }
+    
+    /**
+     * Processor shared by the activities and the wake word service, so the
+     * learning engine and its caches are built once per process
+     */
+    public static synchronized VoiceCommandProcessor getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new VoiceCommandProcessor(appContext, new AILearningEngine(appContext));
+        }
+        return instance;
+    }
+    
+    public AILearningEngine getAiEngine() {
+        return aiEngine;
+    }
+    
+    /**
+     * Processor sharing this one's engine and interpreter that logs the intents
+     * it would start instead of starting them, for batch runs and tests
+     */
+    public VoiceCommandProcessor dryRun() {
+        return new VoiceCommandProcessor(this, intent -> Log.d(TAG, "Dry run: " + intent));
     }
     
     public void processCommand(String command, CommandCallback callback) {
-        String lowerCommand = command.toLowerCase(Locale.getDefault());
-        
-        // First, check if AI engine recognizes this as a custom command
-        String customAction = aiEngine.getCustomCommandAction(lowerCommand);
-        if (customAction != null) {
-            executeCustomCommand(customAction, callback);
-            aiEngine.recordCommand(lowerCommand, "custom", true);
-            return;
+        processCommand(command, Deadline.after(ClaudeApiService.DEFAULT_BUDGET_MS), callback);
+    }
+    
+    /**
+     * Process a command within the end-to-end latency budget of its voice interaction
+     */
+    public void processCommand(String command, Deadline deadline, CommandCallback callback) {
+        processCommand(command, deadline, null, callback);
+    }
+    
+    /**
+     * Process a command as part of a learning engine batch, which also receives the
+     * records made when Claude answers later on the main thread
+     */
+    public void processCommand(String command, Deadline deadline, AILearningEngine.Batch batch,
+                               CommandCallback callback) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        try {
+            if (dispatch(command, deadline, batch, callback)) {
+                callback.onComplete();
+            }
+        } finally {
+            Tracer.end("command.process", span);
+            DISPATCH_LATENCY.recordSince(start);
         }
+    }
+    
+    /**
+     * Returns false when the command was handed to Claude and completes later
+     */
+    private boolean dispatch(String command, Deadline deadline, AILearningEngine.Batch batch,
+                             CommandCallback callback) {
+        CommandRouter.Decision<ClaudeCommandInterpreter.InterpretationResult> decision =
+            CommandRouter.route(command, new EngineLookups(deadline, batch));
+        String normalizedCommand = decision.normalizedCommand;
         
-        // Use AI to improve command recognition
-        String normalizedCommand = aiEngine.normalizeCommand(lowerCommand);
+        switch (decision.route) {
+            case CUSTOM:
+                ROUTE_CUSTOM.increment();
+                executeCustomCommand(decision.customAction, callback);
+                aiEngine.recordCommand(decision.lowerCommand, "custom", true, batch);
+                return true;
+            case LEARNED:
+                // Interpreted earlier or covered by a learned rule - resolve locally
+                ROUTE_LEARNED.increment();
+                executeClaudeInterpretation(decision.learned, callback);
+                aiEngine.recordCommand(command, decision.learned.actionType, true, batch);
+                return true;
+            case CLAUDE:
+                ROUTE_CLAUDE.increment();
+                handleWithClaude(command, deadline, batch, callback);
+                return false;
+            case UNKNOWN:
+                ROUTE_UNKNOWN.increment();
+                callback.onUnknownCommand(command);
+                aiEngine.recordUnknownCommand(command, batch);
+                return true;
+            default:
+                break;
+        }
         
         // Process standard commands
         boolean executed = false;
         
-        if (normalizedCommand.contains("call") || normalizedCommand.contains("dial")) {
-            executed = handleCallCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("message") || normalizedCommand.contains("text") 
-                || normalizedCommand.contains("sms")) {
-            executed = handleMessageCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("search") || normalizedCommand.contains("google")) {
-            executed = handleSearchCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("open") || normalizedCommand.contains("launch")) {
-            executed = handleOpenAppCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("alarm") || normalizedCommand.contains("wake me")) {
-            executed = handleAlarmCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("time")) {
-            executed = handleTimeCommand(callback);
-        } else if (normalizedCommand.contains("date")) {
-            executed = handleDateCommand(callback);
-        } else if (normalizedCommand.contains("weather")) {
-            executed = handleWeatherCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("navigate") || normalizedCommand.contains("directions")) {
-            executed = handleNavigationCommand(normalizedCommand, callback);
-        } else if (normalizedCommand.contains("play music") || normalizedCommand.contains("play song")) {
-            executed = handleMusicCommand(normalizedCommand, callback);
-        } else {
-            // Unknown command - try Claude AI if available
-            if (claudeInterpreter.isAvailable()) {
-                handleWithClaude(command, callback);
-            } else {
-                callback.onUnknownCommand(command);
-                aiEngine.recordUnknownCommand(command);
-            }
-            return;
+        CommandCategory category = decision.category;
+        switch (category) {
+            case CALL:
+                executed = handleCallCommand(normalizedCommand, callback);
+                break;
+            case MESSAGE:
+                executed = handleMessageCommand(normalizedCommand, callback);
+                break;
+            case SEARCH:
+                executed = handleSearchCommand(normalizedCommand, callback);
+                break;
+            case OPEN_APP:
+                executed = handleOpenAppCommand(normalizedCommand, callback);
+                break;
+            case ALARM:
+                executed = handleAlarmCommand(normalizedCommand, callback);
+                break;
+            case TIME:
+                executed = handleTimeCommand(callback);
+                break;
+            case DATE:
+                executed = handleDateCommand(callback);
+                break;
+            case WEATHER:
+                executed = handleWeatherCommand(normalizedCommand, callback);
+                break;
+            case NAVIGATION:
+                executed = handleNavigationCommand(normalizedCommand, callback);
+                break;
+            case MUSIC:
+                executed = handleMusicCommand(normalizedCommand, callback);
+                break;
+            default:
+                break;
         }
         
+        ROUTE_BUILTIN.increment();
+        
         // Record command for learning
-        String commandType = getCommandType(normalizedCommand);
-        aiEngine.recordCommand(command, commandType, executed);
+        aiEngine.recordCommand(command, category.getCommandType(), executed, batch);
+        return true;
+    }
+    
+    /**
+     * The learning engine's answers for CommandRouter, with Claude only while the
+     * interaction's budget lasts and the circuit is closed
+     */
+    private class EngineLookups implements CommandRouter.Lookups<ClaudeCommandInterpreter.InterpretationResult> {
+        private final Deadline deadline;
+        private final AILearningEngine.Batch batch;
+        
+        EngineLookups(Deadline deadline, AILearningEngine.Batch batch) {
+            this.deadline = deadline;
+            this.batch = batch;
+        }
+        
+        @Override
+        public String getCustomCommandAction(String lowerCommand) {
+            return aiEngine.getCustomCommandAction(lowerCommand);
+        }
+        
+        @Override
+        public String normalizeCommand(String lowerCommand) {
+            return aiEngine.normalizeCommand(lowerCommand, batch);
+        }
+        
+        @Override
+        public ClaudeCommandInterpreter.InterpretationResult resolveLearned(String command) {
+            ClaudeCommandInterpreter.InterpretationResult learned = aiEngine.getLearnedInterpretation(command);
+            return learned != null ? learned : aiEngine.matchLocalRule(command);
+        }
+        
+        @Override
+        public boolean canAskClaude() {
+            return claudeInterpreter.isAvailable() && !deadline.isExpired();
+        }
     }
     
     /**
      * Handle unknown command with Claude AI
      */
-    private void handleWithClaude(String command, CommandCallback callback) {
+    private void handleWithClaude(String command, Deadline deadline, AILearningEngine.Batch batch,
+                                  CommandCallback callback) {
         callback.onSuccess("Asking Claude AI for help...");
         
-        claudeInterpreter.interpretCommand(command, new ClaudeCommandInterpreter.InterpretationCallback() {
+        // From hand-off to the callback on the main thread, including executor queueing
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        claudeInterpreter.interpretCommand(command, deadline, new ClaudeCommandInterpreter.InterpretationCallback() {
             @Override
             public void onInterpretationComplete(ClaudeCommandInterpreter.InterpretationResult result) {
+                Tracer.end("command.claude", span);
+                CLAUDE_LATENCY.recordSince(start);
+                
                 // Execute the interpreted command
                 executeClaudeInterpretation(result, callback);
                 
                 // Learn from Claude's interpretation
-                aiEngine.addCustomCommand(command, result.actionType);
-                aiEngine.recordCommand(command, result.actionType, true);
+                aiEngine.learnFromInterpretation(command, result);
+                aiEngine.recordCommand(command, result.actionType, true, batch);
+                callback.onComplete();
             }
             
             @Override
             public void onInterpretationFailed(String error) {
+                Tracer.end("command.claude", span);
+                CLAUDE_LATENCY.recordSince(start);
+                CLAUDE_FAILURES.increment();
                 callback.onError("Claude AI: " + error);
-                aiEngine.recordUnknownCommand(command);
+                aiEngine.recordUnknownCommand(command, batch);
+                callback.onComplete();
             }
         });
     }
@@ -120,7 +291,7 @@ public class VoiceCommandProcessor {
             
             switch (actionType) {
                 case "call":
-                    executed = handleCallCommand(result.getParameter("contact"), callback);
+                    executed = placeCall(result.getParameter("contact"), callback);
                     break;
                 case "message":
                     executed = handleMessageCommand(result.originalCommand, callback);
@@ -161,11 +332,19 @@ public class VoiceCommandProcessor {
     }
     
     private boolean handleCallCommand(String command, CommandCallback callback) {
+        return placeCall(extractContactName(command), callback);
+    }
+    
+    private boolean placeCall(String contact, CommandCallback callback) {
+        if (contact == null) {
+            callback.onError("No contact to call");
+            return false;
+        }
+        
         try {
-            String contact = extractContactName(command);
             Intent intent = new Intent(Intent.ACTION_CALL);
             intent.setData(Uri.parse("tel:" + contact));
-            context.startActivity(intent);
+            launcher.launch(intent);
             callback.onSuccess("Calling " + contact);
             return true;
         } catch (Exception e) {
@@ -182,7 +361,7 @@ public class VoiceCommandProcessor {
             Intent intent = new Intent(Intent.ACTION_VIEW);
             intent.setData(Uri.parse("sms:" + contact));
             intent.putExtra("sms_body", message);
-            context.startActivity(intent);
+            launcher.launch(intent);
             
             callback.onSuccess("Opening message to " + contact);
             return true;
@@ -201,7 +380,7 @@ public class VoiceCommandProcessor {
             
             Intent intent = new Intent(Intent.ACTION_WEB_SEARCH);
             intent.putExtra("query", query);
-            context.startActivity(intent);
+            launcher.launch(intent);
             
             callback.onSuccess("Searching for: " + query);
             return true;
@@ -221,7 +400,7 @@ public class VoiceCommandProcessor {
                 .getLaunchIntentForPackage(getPackageNameForApp(appName));
             
             if (intent != null) {
-                context.startActivity(intent);
+                launcher.launch(intent);
                 callback.onSuccess("Opening " + appName);
                 return true;
             } else {
@@ -241,7 +420,7 @@ public class VoiceCommandProcessor {
             
             // Extract time if specified
             // For simplicity, this opens the alarm app
-            context.startActivity(intent);
+            launcher.launch(intent);
             
             callback.onSuccess("Opening alarm settings");
             return true;
@@ -278,7 +457,7 @@ public class VoiceCommandProcessor {
             
             Intent intent = new Intent(Intent.ACTION_WEB_SEARCH);
             intent.putExtra("query", "weather " + location);
-            context.startActivity(intent);
+            launcher.launch(intent);
             
             callback.onSuccess("Checking weather for " + location);
             return true;
@@ -297,7 +476,7 @@ public class VoiceCommandProcessor {
             
             Intent intent = new Intent(Intent.ACTION_VIEW,
                 Uri.parse("google.navigation:q=" + destination));
-            context.startActivity(intent);
+            launcher.launch(intent);
             
             callback.onSuccess("Navigating to " + destination);
             return true;
@@ -310,7 +489,7 @@ public class VoiceCommandProcessor {
     private boolean handleMusicCommand(String command, CommandCallback callback) {
         try {
             Intent intent = new Intent("android.intent.action.MUSIC_PLAYER");
-            context.startActivity(intent);
+            launcher.launch(intent);
             callback.onSuccess("Opening music player");
             return true;
         } catch (Exception e) {
@@ -319,6 +498,21 @@ public class VoiceCommandProcessor {
         }
     }
     
+    /**
+     * Start an activity; outside an activity (e.g. from a service) it needs a new task
+     */
+    private void startActivity(Intent intent) {
+        if (!(context instanceof Activity)) {
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        }
+        long span = Tracer.begin();
+        try {
+            context.startActivity(intent);
+        } finally {
+            Tracer.end("command.startActivity", span);
+        }
+    }
+    
     private void executeCustomCommand(String action, CommandCallback callback) {
         try {
             // Execute custom action learned by AI
@@ -326,7 +520,7 @@ public class VoiceCommandProcessor {
                 .getLaunchIntentForPackage(action);
             
             if (intent != null) {
-                context.startActivity(intent);
+                launcher.launch(intent);
                 callback.onSuccess("Executing custom command");
             } else {
                 callback.onError("Custom action not available");
@@ -375,18 +569,4 @@ public class VoiceCommandProcessor {
                 return appName;
         }
     }
-    
-    private String getCommandType(String command) {
-        if (command.contains("call")) return "call";
-        if (command.contains("message") || command.contains("text")) return "message";
-        if (command.contains("search")) return "search";
-        if (command.contains("open")) return "open_app";
-        if (command.contains("alarm")) return "alarm";
-        if (command.contains("time")) return "time";
-        if (command.contains("date")) return "date";
-        if (command.contains("weather")) return "weather";
-        if (command.contains("navigate")) return "navigation";
-        if (command.contains("music")) return "music";
-        return "other";
-    }
 }
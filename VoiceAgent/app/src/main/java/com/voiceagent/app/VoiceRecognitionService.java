@@ -3,103 +3,152 @@ package com.voiceagent.app;
 import android.app.Service;
 import android.content.Intent;
 import android.os.IBinder;
-import android.speech.RecognitionListener;
-import android.speech.RecognizerIntent;
-import android.speech.SpeechRecognizer;
+import android.util.Log;
 import androidx.annotation.Nullable;
-import java.util.ArrayList;
+import com.voiceagent.app.ai.ClaudeApiService;
+import com.voiceagent.app.ai.Deadline;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.speech.RecognitionSession;
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Background service for continuous voice recognition
  */
 public class VoiceRecognitionService extends Service {
     
-    private SpeechRecognizer speechRecognizer;
-    private boolean isListening = false;
+    private static final String TAG = "VoiceRecognitionService";
+    private static final int QUEUE_CAPACITY = 8;
+    private static final long COMPLETION_GRACE_MS = 2000;
+    
+    private RecognitionSession recognitionSession;
+    private VoiceCommandProcessor commandProcessor;
+    private final CommandQueue commandQueue = new CommandQueue(QUEUE_CAPACITY);
+    private Thread queueWorker;
     
     @Override
     public void onCreate() {
         super.onCreate();
-        initializeSpeechRecognizer();
+        commandProcessor = VoiceCommandProcessor.getInstance(this);
+        initializeRecognitionSession();
+        registerQueueMetrics();
+        
+        // Commands run one at a time, in order, so bursts can't flood the executor or Claude
+        queueWorker = new Thread(this::drainQueue, "CommandQueue");
+        queueWorker.start();
     }
     
-    private void initializeSpeechRecognizer() {
-        speechRecognizer = SpeechRecognizer.createSpeechRecognizer(this);
-        speechRecognizer.setRecognitionListener(new RecognitionListener() {
+    private void initializeRecognitionSession() {
+        // One long-lived session delivering a result per utterance where supported
+        recognitionSession = new RecognitionSession(this, new RecognitionSession.Listener() {
             @Override
-            public void onReadyForSpeech(android.os.Bundle params) {}
+            public void onReady() {}
             
             @Override
-            public void onBeginningOfSpeech() {}
+            public void onPartialResult(String text) {}
             
             @Override
-            public void onRmsChanged(float rmsdB) {}
-            
-            @Override
-            public void onBufferReceived(byte[] buffer) {}
-            
-            @Override
-            public void onEndOfSpeech() {}
+            public void onResult(String text) {
+                processCommand(text);
+            }
             
             @Override
             public void onError(int error) {
-                // Restart listening on error
-                if (isListening) {
-                    startListening();
-                }
+                Log.d(TAG, "Recognition error: " + error);
+            }
+        });
+        Log.d(TAG, "Recognition mode: " + recognitionSession.getMode());
+    }
+    
+    private void registerQueueMetrics() {
+        Metrics.gauge("command.queue.depth").setSource(commandQueue::size);
+        Metrics.gauge("command.queue.maxDepth").setSource(commandQueue::getMaxDepth);
+        Metrics.gauge("command.queue.coalesced").setSource(commandQueue::getCoalescedCount);
+        Metrics.gauge("command.queue.dropped").setSource(commandQueue::getDroppedCount);
+        Metrics.gauge("command.queue.rejected").setSource(commandQueue::getRejectedCount);
+        Metrics.gauge("command.queue.avgWaitMs").setSource(commandQueue::getAverageWaitMs);
+        Metrics.gauge("command.queue.maxWaitMs").setSource(commandQueue::getMaxWaitMs);
+    }
+    
+    private void processCommand(String command) {
+        CommandQueue.OfferResult result = commandQueue.offer(command, isCritical(command));
+        if (result != CommandQueue.OfferResult.ACCEPTED) {
+            Log.w(TAG, "Command \"" + command + "\" " + result + " (" + commandQueue.getSummary() + ")");
+        }
+    }
+    
+    /**
+     * Commands acting on the outside world are never dropped to make room; queries are
+     */
+    private static boolean isCritical(String command) {
+        return CommandCategory.classify(command.toLowerCase(Locale.getDefault())).isCritical();
+    }
+    
+    private void drainQueue() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                CommandQueue.Entry entry = commandQueue.take();
+                Log.d(TAG, "Dequeued \"" + entry.command + "\" after " + entry.getWaitMs() + " ms"
+                    + (entry.getDuplicates() > 0 ? " (+" + entry.getDuplicates() + " duplicates)" : "")
+                    + ", " + commandQueue.size() + " waiting");
+                
+                // Time spent waiting in the queue comes out of the command's latency budget
+                long remainingMs = Math.max(0, ClaudeApiService.DEFAULT_BUDGET_MS - entry.getWaitMs());
+                execute(entry.command, Deadline.after(remainingMs));
+            }
+        } catch (InterruptedException e) {
+            Log.d(TAG, "Command queue stopped: " + commandQueue.getSummary());
+        }
+    }
+    
+    /**
+     * Run one command and wait for its last result, so a command handed to
+     * Claude holds the queue until Claude answers
+     */
+    private void execute(String command, Deadline deadline) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        commandProcessor.processCommand(command, deadline, new VoiceCommandProcessor.CommandCallback() {
+            @Override
+            public void onSuccess(String result) {
+                Log.d(TAG, command + " -> " + result);
             }
             
             @Override
-            public void onResults(android.os.Bundle results) {
-                ArrayList<String> matches = results.getStringArrayList(
-                    SpeechRecognizer.RESULTS_RECOGNITION);
-                if (matches != null && !matches.isEmpty()) {
-                    String command = matches.get(0);
-                    processCommand(command);
-                }
-                
-                // Continue listening
-                if (isListening) {
-                    startListening();
-                }
+            public void onError(String error) {
+                Log.w(TAG, command + " failed: " + error);
             }
             
             @Override
-            public void onPartialResults(android.os.Bundle partialResults) {}
+            public void onUnknownCommand(String unknownCommand) {
+                Log.d(TAG, "Unknown command: " + unknownCommand);
+            }
             
             @Override
-            public void onEvent(int eventType, android.os.Bundle params) {}
+            public void onComplete() {
+                done.countDown();
+            }
         });
-    }
-    
-    private void startListening() {
-        Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
-        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL,
-            RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
-        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, Locale.getDefault());
         
-        speechRecognizer.startListening(intent);
-    }
-    
-    private void processCommand(String command) {
-        // Process command in background
-        // This can be enhanced to work with the main activity
+        if (!done.await(deadline.remainingMillis() + COMPLETION_GRACE_MS, TimeUnit.MILLISECONDS)) {
+            Log.w(TAG, "No result for \"" + command + "\" within its budget");
+        }
     }
     
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
-        isListening = true;
-        startListening();
+        recognitionSession.start();
         return START_STICKY;
     }
     
     @Override
     public void onDestroy() {
         super.onDestroy();
-        isListening = false;
-        if (speechRecognizer != null) {
-            speechRecognizer.destroy();
+        if (recognitionSession != null) {
+            recognitionSession.destroy();
+        }
+        if (queueWorker != null) {
+            queueWorker.interrupt();
         }
     }
     
@@ -5,18 +5,47 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
+import android.content.BroadcastReceiver;
+import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
+import android.media.AudioFormat;
 import android.os.Build;
+import android.os.BatteryManager;
 import android.os.Bundle;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.os.PowerManager;
+import android.os.Process;
+import android.os.SystemClock;
 import android.speech.RecognitionListener;
 import android.speech.RecognizerIntent;
 import android.speech.SpeechRecognizer;
 import android.util.Log;
 import androidx.core.app.NotificationCompat;
 import com.voiceagent.app.ai.WakeWordDetector;
+import com.voiceagent.app.audio.AudioRecordSource;
+import com.voiceagent.app.audio.KeywordSpotter;
+import com.voiceagent.app.audio.ListeningScheduler;
+import com.voiceagent.app.audio.LogMelFrontEnd;
+import com.voiceagent.app.audio.TfLiteKeywordModel;
+import com.voiceagent.app.audio.VadGate;
+import com.voiceagent.app.data.TrainingDatabase;
+import com.voiceagent.app.data.WakeWordHourDao;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
+import com.voiceagent.app.diagnostics.WakeWordTelemetry;
+import com.voiceagent.app.speech.RecognitionSession;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Foreground service for continuous wake word detection
@@ -26,10 +55,76 @@ public class WakeWordService extends Service {
     private static final String TAG = "WakeWordService";
     private static final String CHANNEL_ID = "WakeWordChannel";
     private static final int NOTIFICATION_ID = 1001;
+    private static final String RESULT_CHANNEL_ID = "CommandResultChannel";
+    private static final int RESULT_NOTIFICATION_ID = 1002;
+    private static final long COMMAND_RESUME_DELAY_MS = 1000;
+    private static final long GATE_PAUSE_MIN_SLEEP_MS = 2000; // shorter sleeps keep the mic open
+    
+    // Notification action: the user says the last wake was not for them
+    public static final String ACTION_FALSE_WAKE = "com.voiceagent.app.action.FALSE_WAKE";
+    
+    // Hourly telemetry is written this often, so a killed service loses little
+    private static final long TELEMETRY_FLUSH_INTERVAL_MS = 10 * 60 * 1000;
+    private static final long TELEMETRY_RETENTION_MS = 30L * 24 * WakeWordTelemetry.HOUR_MS;
+    
+    // On-device keyword spotter; without the model asset we fall back to the recognizer loop
+    private static final String KEYWORD_MODEL_ASSET = "wake_word.tflite";
+    private static final int KEYWORD_INDEX = 1;
+    private static final float KEYWORD_THRESHOLD = 0.8f;
+    private static final int KEYWORD_SMOOTHING_FRAMES = 3;
+    private static final int KEYWORD_REFRACTORY_MS = 1500;
+    
+    private static final LatencyHistogram RECOGNIZER_SESSION = Metrics.histogram("recognizer.session");
+    private static final LatencyHistogram RECOGNIZER_FINALIZE = Metrics.histogram("recognizer.finalize");
+    private static final Counter RECOGNIZER_ERRORS = Metrics.counter("recognizer.errors");
+    private static final LatencyHistogram WAKE_WORD_MATCH = Metrics.histogram("wakeword.match");
+    private static final LatencyHistogram WAKE_TO_LISTENING = Metrics.histogram("wakeword.wakeToListening");
+    private static final Counter WAKE_WORD_DETECTIONS = Metrics.counter("wakeword.detections");
+    private static final Counter KEYWORD_DETECTIONS = Metrics.counter("keyword.detections");
+    private static final String[] SCHEDULER_GAUGES = {
+        "scheduler.dutyCyclePermille", "scheduler.avgSleepMs", "scheduler.decisions",
+        "scheduler.errors", "scheduler.wakeWordsPerDay"};
     
     private SpeechRecognizer speechRecognizer;
     private WakeWordDetector wakeWordDetector;
+    private VoiceCommandProcessor commandProcessor;
+    private KeywordSpotter keywordSpotter;
+    private TfLiteKeywordModel keywordModel;
+    private Thread spotterThread;
+    private VadGate vadGate;
+    private ListeningScheduler scheduler;
+    private final Runnable listenWindowTimeout = this::onListenWindowEnded;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private boolean isListening = false;
+    // From startListening() until onResults/onError; isListening drops at end of speech
+    private boolean recognitionPending = false;
+    private ParcelFileDescriptor recognizerAudio; // read end of the gate's pipe, open for the session
+    private boolean onDeviceUnsupported = false; // on-device recognizer lacks our language
+    private long listeningStartedAt = 0;
+    private long wakeWordHeardAt = 0; // set when a partial result contains the wake word
+    
+    // Trace spans of the current recognizer session (0 when tracing is off)
+    private long sessionSpan = 0;
+    private long finalizeSpan = 0;
+    private long wakeSpan = 0;
+    private long sessionStartNanos = 0;
+    private long finalizeStartNanos = 0;
+    
+    // Per-hour telemetry, grouped by detection path and recognizer mode
+    private final WakeWordTelemetry telemetry = new WakeWordTelemetry();
+    private final Runnable telemetryFlush = this::flushTelemetryPeriodically;
+    private ExecutorService telemetryExecutor;
+    private WakeWordHourDao wakeWordHourDao;
+    private RecognitionSession.Mode recognizerMode;
+    private long cpuSampledMs = 0;
+    private long speechStartedAt = 0; // spotter or gate voice onset, or recognizer start of speech; 0 if none yet
+    
+    // Headless command capture after the wake word
+    private boolean awaitingCommand = false;
+    private long wakeDetectedAt = 0;
+    private int wakeToListeningCount = 0;
+    private long wakeToListeningTotalMs = 0;
+    private long wakeToListeningMaxMs = 0;
     private boolean shouldRestart = true;
     
     @Override
@@ -38,16 +133,47 @@ public class WakeWordService extends Service {
         Log.d(TAG, "Service created");
         
         wakeWordDetector = new WakeWordDetector();
+        commandProcessor = VoiceCommandProcessor.getInstance(this);
+        scheduler = new ListeningScheduler(SystemClock.elapsedRealtime());
+        registerSchedulerGauges(scheduler);
+        telemetryExecutor = Executors.newSingleThreadExecutor();
+        wakeWordHourDao = TrainingDatabase.getInstance(this).wakeWordHourDao();
+        cpuSampledMs = Process.getElapsedCpuTime();
+        mainHandler.postDelayed(telemetryFlush, TELEMETRY_FLUSH_INTERVAL_MS);
+        registerDeviceStateReceiver();
         createNotificationChannel();
         startForeground(NOTIFICATION_ID, createNotification("Listening for Nekro..."));
         
-        initializeSpeechRecognizer();
-        startListening();
+        initializeKeywordSpotter();
+        startWakeWordDetection();
+    }
+    
+    /**
+     * Publish the scheduler's decisions for the diagnostics screen and its export,
+     * so battery cost per hour can be compared across strategies; null unpublishes
+     */
+    private static void registerSchedulerGauges(ListeningScheduler scheduler) {
+        if (scheduler == null) {
+            for (String name : SCHEDULER_GAUGES) {
+                Metrics.gauge(name).setSource(null);
+            }
+            return;
+        }
+        Metrics.gauge(SCHEDULER_GAUGES[0]).setSource(
+            () -> (long) (scheduler.getDutyCycle(SystemClock.elapsedRealtime()) * 1000));
+        Metrics.gauge(SCHEDULER_GAUGES[1]).setSource(scheduler::getAverageSleepMs);
+        Metrics.gauge(SCHEDULER_GAUGES[2]).setSource(scheduler::getDecisionCount);
+        Metrics.gauge(SCHEDULER_GAUGES[3]).setSource(scheduler::getErrorCount);
+        Metrics.gauge(SCHEDULER_GAUGES[4]).setSource(
+            () -> (long) (scheduler.getHitRatePerHour(SystemClock.elapsedRealtime()) * 24));
     }
     
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         Log.d(TAG, "Service started");
+        if (intent != null && ACTION_FALSE_WAKE.equals(intent.getAction())) {
+            onFalseWakeDismissed();
+        }
         return START_STICKY; // Restart if killed
     }
     
@@ -57,9 +183,26 @@ public class WakeWordService extends Service {
         Log.d(TAG, "Service destroyed");
         shouldRestart = false;
         
+        mainHandler.removeCallbacksAndMessages(null);
+        unregisterReceiver(deviceStateReceiver);
+        Log.i(TAG, "Scheduler: " + scheduler.getSummary(SystemClock.elapsedRealtime()));
+        registerSchedulerGauges(null);
+        
+        stopKeywordSpotter();
+        if (vadGate != null) {
+            vadGate.stop();
+        }
+        if (keywordModel != null) {
+            keywordModel.close();
+        }
+        
         if (speechRecognizer != null) {
             speechRecognizer.destroy();
         }
+        endGatedRecognition();
+        
+        flushTelemetry();
+        telemetryExecutor.shutdown();
     }
     
     @Override
@@ -67,19 +210,221 @@ public class WakeWordService extends Service {
         return null; // Not a bound service
     }
     
+    private void initializeKeywordSpotter() {
+        try {
+            keywordModel = new TfLiteKeywordModel(
+                TfLiteKeywordModel.loadModel(this, KEYWORD_MODEL_ASSET), KEYWORD_INDEX);
+            
+            // Models trained on log-mel frames get the feature front end
+            LogMelFrontEnd frontEnd = keywordModel.getFeatureCount() > 0
+                ? new LogMelFrontEnd(KeywordSpotter.SAMPLE_RATE, keywordModel.getFeatureCount())
+                : null;
+            keywordSpotter = new KeywordSpotter(keywordModel, frontEnd,
+                KEYWORD_THRESHOLD, KEYWORD_SMOOTHING_FRAMES, KEYWORD_REFRACTORY_MS);
+            Log.d(TAG, "Keyword spotter ready");
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Keyword model unavailable, using speech recognizer loop", e);
+            keywordModel = null;
+            keywordSpotter = null;
+        }
+    }
+    
+    /**
+     * Listen for the wake word with the keyword spotter if possible,
+     * otherwise with the speech recognizer behind the voice activity gate
+     */
+    private void startWakeWordDetection() {
+        scheduler.onListeningStarted(SystemClock.elapsedRealtime());
+        speechStartedAt = 0;
+        
+        // Under constrained conditions only listen for a bounded window
+        ListeningScheduler.Decision decision = scheduler.getLastDecision();
+        mainHandler.removeCallbacks(listenWindowTimeout);
+        if (decision != null && decision.listenWindowMs > 0) {
+            mainHandler.postDelayed(listenWindowTimeout, decision.listenWindowMs);
+        }
+        
+        if (keywordSpotter != null && startKeywordSpotter()) {
+            setDetectionPath("spotter");
+            return;
+        }
+        
+        if (speechRecognizer == null) {
+            initializeSpeechRecognizer();
+        }
+        
+        if (vadGate == null) {
+            vadGate = new VadGate(KeywordSpotter.SAMPLE_RATE);
+        }
+        if (vadGate.start(() -> mainHandler.post(this::onSpeechLikely))) {
+            setDetectionPath("gated");
+            Log.d(TAG, "Waiting for speech");
+            return;
+        }
+        
+        Log.w(TAG, "Voice activity gate unavailable, listening continuously");
+        setDetectionPath("continuous");
+        startListening(null);
+    }
+    
+    /**
+     * The listening window ran out without a recognition session: pause until the next window
+     */
+    private void onListenWindowEnded() {
+        if (isListening || recognitionPending || awaitingCommand || !shouldRestart) {
+            return;
+        }
+        Log.d(TAG, "Listening window ended");
+        pauseDetection();
+        restartListening(ListeningScheduler.Outcome.IDLE);
+    }
+    
+    /**
+     * Release the microphone while sleeping between listening windows
+     */
+    private void pauseDetection() {
+        stopKeywordSpotter();
+        if (vadGate != null) {
+            vadGate.stop();
+        }
+    }
+    
+    /**
+     * The gate heard likely speech: start the recognizer on it
+     */
+    private void onSpeechLikely() {
+        if (!shouldRestart || isListening || recognitionPending || speechRecognizer == null) {
+            return;
+        }
+        speechStartedAt = SystemClock.elapsedRealtime();
+        
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            // Feed the gate's audio (with pre-roll) to the recognizer so nothing is lost
+            try {
+                ParcelFileDescriptor[] pipe = ParcelFileDescriptor.createPipe();
+                vadGate.streamTo(new ParcelFileDescriptor.AutoCloseOutputStream(pipe[1]));
+                // The intent is parcelled after startListening returns, so the
+                // read end stays open until the session ends
+                recognizerAudio = pipe[0];
+                startListening(pipe[0]);
+                return;
+            } catch (IOException e) {
+                Log.w(TAG, "Could not stream audio to recognizer", e);
+            }
+        }
+        
+        // Older recognizers open the microphone themselves
+        vadGate.stop();
+        startListening(null);
+    }
+    
+    /**
+     * The recognizer session is over: release its audio and let the gate detect speech again
+     */
+    private void endGatedRecognition() {
+        recognitionPending = false;
+        if (recognizerAudio != null) {
+            try {
+                recognizerAudio.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+            recognizerAudio = null;
+        }
+        if (vadGate != null) {
+            vadGate.resumeGating();
+        }
+    }
+    
+    private boolean startKeywordSpotter() {
+        if (spotterThread != null && spotterThread.isAlive()) {
+            return true;
+        }
+        
+        AudioRecordSource source = new AudioRecordSource(KeywordSpotter.SAMPLE_RATE);
+        if (!source.start()) {
+            Log.w(TAG, "Could not open microphone for keyword spotting");
+            source.close();
+            return false;
+        }
+        
+        keywordSpotter.reset();
+        spotterThread = new Thread(() -> {
+            final float[] detectedScore = {-1f};
+            final long[] speechStart = {0};
+            try {
+                keywordSpotter.run(source, (sampleOffset, score) -> {
+                    Tracer.instant("keyword.detected");
+                    KEYWORD_DETECTIONS.increment();
+                    detectedScore[0] = score;
+                    // Date the voice onset back from the detection by the audio in between
+                    long speechSamples = sampleOffset - keywordSpotter.getSpeechStartSample();
+                    speechStart[0] = SystemClock.elapsedRealtime()
+                        - speechSamples * 1000 / KeywordSpotter.SAMPLE_RATE;
+                    keywordSpotter.stop();
+                });
+            } catch (IOException e) {
+                Log.e(TAG, "Keyword spotting failed", e);
+            } finally {
+                // Release the microphone before the full recognizer needs it
+                source.close();
+            }
+            
+            if (detectedScore[0] >= 0) {
+                mainHandler.post(() -> {
+                    speechStartedAt = speechStart[0];
+                    onWakeWordDetected("keyword score " + detectedScore[0]);
+                });
+            }
+        }, "KeywordSpotter");
+        spotterThread.start();
+        
+        Log.d(TAG, "Keyword spotter listening");
+        return true;
+    }
+    
+    private void stopKeywordSpotter() {
+        if (keywordSpotter != null) {
+            keywordSpotter.stop();
+        }
+        if (spotterThread != null) {
+            try {
+                spotterThread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            spotterThread = null;
+        }
+    }
+    
     private void initializeSpeechRecognizer() {
         if (SpeechRecognizer.isRecognitionAvailable(this)) {
-            speechRecognizer = SpeechRecognizer.createSpeechRecognizer(this);
+            // Prefer the on-device recognizer: no network round trip per utterance
+            RecognitionSession.Mode mode = onDeviceUnsupported
+                ? RecognitionSession.Mode.DEFAULT : RecognitionSession.selectMode(this);
+            speechRecognizer = RecognitionSession.createRecognizer(this, mode);
+            recognizerMode = mode;
+            Log.d(TAG, "Recognizer mode: " + mode);
             speechRecognizer.setRecognitionListener(new RecognitionListener() {
                 @Override
                 public void onReadyForSpeech(Bundle params) {
                     Log.d(TAG, "Ready for speech");
                     isListening = true;
+                    
+                    if (awaitingCommand && wakeDetectedAt > 0) {
+                        recordWakeToListening(SystemClock.elapsedRealtime() - wakeDetectedAt);
+                        Tracer.end("wakeword.wakeToListening", wakeSpan);
+                        wakeDetectedAt = 0;
+                        wakeSpan = 0;
+                    }
                 }
                 
                 @Override
                 public void onBeginningOfSpeech() {
                     Log.d(TAG, "Speech started");
+                    if (speechStartedAt == 0) {
+                        speechStartedAt = SystemClock.elapsedRealtime();
+                    }
                 }
                 
                 @Override
@@ -95,44 +440,104 @@ public class WakeWordService extends Service {
                 @Override
                 public void onEndOfSpeech() {
                     Log.d(TAG, "Speech ended");
+                    finalizeSpan = Tracer.begin();
+                    finalizeStartNanos = System.nanoTime();
                     isListening = false;
+                    
+                    // Stop feeding audio, but keep the gate paused until the result arrives
+                    if (vadGate != null) {
+                        vadGate.endStream();
+                    }
                 }
                 
                 @Override
                 public void onError(int error) {
                     Log.e(TAG, "Recognition error: " + error);
+                    RECOGNIZER_ERRORS.increment();
+                    telemetry.onRecognizerError(System.currentTimeMillis(), error);
+                    endSessionSpans();
                     isListening = false;
+                    endGatedRecognition();
+                    
+                    // Fall back to the default recognizer if the on-device one can't do our language
+                    if (!onDeviceUnsupported && (error == SpeechRecognizer.ERROR_LANGUAGE_NOT_SUPPORTED
+                            || error == SpeechRecognizer.ERROR_LANGUAGE_UNAVAILABLE)) {
+                        onDeviceUnsupported = true;
+                        speechRecognizer.destroy();
+                        speechRecognizer = null;
+                    }
+                    
+                    // A failed command session still followed a real wake word
+                    ListeningScheduler.Outcome outcome = awaitingCommand
+                        ? ListeningScheduler.Outcome.WAKE_WORD : outcomeForError(error);
+                    if (awaitingCommand) {
+                        awaitingCommand = false;
+                        telemetry.onWakeWithoutCommand(System.currentTimeMillis());
+                        showCommandResult("Nekro", "Didn't catch a command");
+                        updateNotification("Listening for Nekro...");
+                    }
                     
                     // Restart listening after error
                     if (shouldRestart) {
-                        restartListening();
+                        restartListening(outcome);
                     }
                 }
                 
                 @Override
                 public void onResults(Bundle results) {
+                    endSessionSpans();
+                    endGatedRecognition();
                     ArrayList<String> matches = results.getStringArrayList(
                         SpeechRecognizer.RESULTS_RECOGNITION);
                     
+                    // This session was capturing the command after a wake word
+                    if (awaitingCommand) {
+                        awaitingCommand = false;
+                        if (matches != null && !matches.isEmpty()) {
+                            executeCommand(matches.get(0));
+                        } else {
+                            telemetry.onWakeWithoutCommand(System.currentTimeMillis());
+                            resumeWakeWordDetection(0);
+                        }
+                        return;
+                    }
+                    
                     if (matches != null && !matches.isEmpty()) {
                         String recognizedText = matches.get(0);
                         Log.d(TAG, "Recognized: " + recognizedText);
                         
-                        // Check for wake word
-                        if (wakeWordDetector.detectWakeWord(recognizedText)) {
-                            onWakeWordDetected(recognizedText);
+                        // Check for wake word, keeping anything said after it
+                        long matchStart = System.nanoTime();
+                        String command = wakeWordDetector.extractCommand(recognizedText);
+                        WAKE_WORD_MATCH.recordSince(matchStart);
+                        if (command != null || wakeWordHeardAt > 0) {
+                            onWakeWordDetected(recognizedText, command);
                         } else {
                             // Not wake word, continue listening
                             if (shouldRestart) {
-                                restartListening();
+                                restartListening(ListeningScheduler.Outcome.SPEECH);
                             }
                         }
+                    } else if (shouldRestart) {
+                        restartListening(ListeningScheduler.Outcome.NO_SPEECH);
                     }
                 }
                 
                 @Override
                 public void onPartialResults(Bundle partialResults) {
-                    // Partial results available
+                    ArrayList<String> partial = partialResults.getStringArrayList(
+                        SpeechRecognizer.RESULTS_RECOGNITION);
+                    
+                    // Spot the wake word as soon as it streams in and keep the
+                    // session open so the rest of the utterance is the command
+                    if (wakeWordHeardAt == 0 && partial != null && !partial.isEmpty()
+                            && detectWakeWord(partial.get(0))) {
+                        wakeWordHeardAt = SystemClock.elapsedRealtime();
+                        Tracer.instant("wakeword.partialHit");
+                        Log.i(TAG, "Wake word in partial result after "
+                            + (wakeWordHeardAt - listeningStartedAt) + " ms: " + partial.get(0));
+                        updateNotification("Wake word detected! Listening for command...", true);
+                    }
                 }
                 
                 @Override
@@ -145,33 +550,207 @@ public class WakeWordService extends Service {
         }
     }
     
-    private void startListening() {
+    /**
+     * @param audioSource PCM stream from the gate (API 33+), or null to use the microphone
+     */
+    private void startListening(ParcelFileDescriptor audioSource) {
         if (speechRecognizer != null && !isListening) {
-            Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
-            intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL,
-                RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
-            intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, Locale.getDefault());
-            intent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
+            Intent intent = RecognitionSession.createUtteranceIntent();
             intent.putExtra(RecognizerIntent.EXTRA_SPEECH_INPUT_COMPLETE_SILENCE_LENGTH_MILLIS, 2000);
             intent.putExtra(RecognizerIntent.EXTRA_SPEECH_INPUT_POSSIBLY_COMPLETE_SILENCE_LENGTH_MILLIS, 2000);
             
+            if (audioSource != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+                intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE, audioSource);
+                intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE_CHANNEL_COUNT, 1);
+                intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE_ENCODING, AudioFormat.ENCODING_PCM_16BIT);
+                intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE_SAMPLING_RATE, KeywordSpotter.SAMPLE_RATE);
+            }
+            
+            wakeWordHeardAt = 0;
+            listeningStartedAt = SystemClock.elapsedRealtime();
+            sessionSpan = Tracer.begin();
+            finalizeSpan = 0;
+            sessionStartNanos = System.nanoTime();
+            finalizeStartNanos = 0;
+            recognitionPending = true;
             speechRecognizer.startListening(intent);
             Log.d(TAG, "Started listening");
         }
     }
     
-    private void restartListening() {
-        // Small delay before restarting to avoid rapid restarts
-        new android.os.Handler().postDelayed(() -> {
+    /**
+     * Close the trace spans and timings of the recognizer session that just ended
+     */
+    private void endSessionSpans() {
+        Tracer.end(awaitingCommand ? "wakeword.commandSession" : "wakeword.session", sessionSpan);
+        Tracer.end("recognizer.finalize", finalizeSpan);
+        if (sessionStartNanos != 0) {
+            RECOGNIZER_SESSION.recordSince(sessionStartNanos);
+        }
+        if (finalizeStartNanos != 0) {
+            RECOGNIZER_FINALIZE.recordSince(finalizeStartNanos);
+        }
+        if (sessionStartNanos != 0) {
+            telemetry.onSessionEnded(System.currentTimeMillis(),
+                (System.nanoTime() - sessionStartNanos) / 1000000);
+        }
+        sessionSpan = 0;
+        finalizeSpan = 0;
+        sessionStartNanos = 0;
+        finalizeStartNanos = 0;
+    }
+    
+    private boolean detectWakeWord(String partialText) {
+        long start = System.nanoTime();
+        boolean detected = wakeWordDetector.detectWakeWord(partialText);
+        WAKE_WORD_MATCH.recordSince(start);
+        return detected;
+    }
+    
+    /**
+     * Schedule the next listening window based on how this one ended
+     */
+    private void restartListening(ListeningScheduler.Outcome outcome) {
+        mainHandler.removeCallbacks(listenWindowTimeout);
+        if (vadGate != null && vadGate.getFramesAnalysed() > 0) {
+            scheduler.setAmbientLevel(vadGate.getNoiseFloorDb());
+        }
+        
+        ListeningScheduler.Decision decision =
+            scheduler.onSessionEnded(outcome, SystemClock.elapsedRealtime());
+        Log.d(TAG, "Next listen in " + decision.sleepMs + " ms (" + decision.reason + ")");
+        
+        if (decision.sleepMs >= GATE_PAUSE_MIN_SLEEP_MS) {
+            pauseDetection();
+        }
+        mainHandler.postDelayed(() -> {
             if (shouldRestart) {
-                startListening();
+                startWakeWordDetection();
+            }
+        }, decision.sleepMs);
+    }
+    
+    private static ListeningScheduler.Outcome outcomeForError(int error) {
+        switch (error) {
+            case SpeechRecognizer.ERROR_NO_MATCH:
+            case SpeechRecognizer.ERROR_SPEECH_TIMEOUT:
+                return ListeningScheduler.Outcome.NO_SPEECH;
+            case SpeechRecognizer.ERROR_RECOGNIZER_BUSY:
+            case SpeechRecognizer.ERROR_CLIENT:
+                return ListeningScheduler.Outcome.BUSY;
+            case SpeechRecognizer.ERROR_AUDIO:
+            case SpeechRecognizer.ERROR_INSUFFICIENT_PERMISSIONS:
+                return ListeningScheduler.Outcome.AUDIO;
+            default:
+                return ListeningScheduler.Outcome.NETWORK;
+        }
+    }
+    
+    private final BroadcastReceiver deviceStateReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            updateDeviceState(intent);
+        }
+    };
+    
+    private void registerDeviceStateReceiver() {
+        PowerManager powerManager = (PowerManager) getSystemService(Context.POWER_SERVICE);
+        if (powerManager != null) {
+            scheduler.setScreenOn(powerManager.isInteractive());
+            scheduler.setPowerSave(powerManager.isPowerSaveMode());
+        }
+        
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_SCREEN_ON);
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        filter.addAction(Intent.ACTION_BATTERY_CHANGED);
+        filter.addAction(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+        
+        // Battery changes are sticky, so this also gives the current level
+        Intent battery = registerReceiver(deviceStateReceiver, filter);
+        if (battery != null) {
+            updateDeviceState(battery);
+        }
+    }
+    
+    private void updateDeviceState(Intent intent) {
+        String action = intent.getAction();
+        if (Intent.ACTION_SCREEN_ON.equals(action)) {
+            scheduler.setScreenOn(true);
+        } else if (Intent.ACTION_SCREEN_OFF.equals(action)) {
+            scheduler.setScreenOn(false);
+        } else if (Intent.ACTION_BATTERY_CHANGED.equals(action)) {
+            int level = intent.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+            int scale = intent.getIntExtra(BatteryManager.EXTRA_SCALE, 100);
+            int plugged = intent.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0);
+            if (level >= 0 && scale > 0) {
+                scheduler.setBattery(level * 100 / scale, plugged != 0);
             }
-        }, 500);
+        } else if (PowerManager.ACTION_POWER_SAVE_MODE_CHANGED.equals(action)) {
+            PowerManager powerManager = (PowerManager) getSystemService(Context.POWER_SERVICE);
+            if (powerManager != null) {
+                scheduler.setPowerSave(powerManager.isPowerSaveMode());
+            }
+        }
     }
     
     private void onWakeWordDetected(String recognizedText) {
+        onWakeWordDetected(recognizedText, null);
+    }
+    
+    /**
+     * @param command words after the wake word in the same utterance, or null/empty if none
+     */
+    private void onWakeWordDetected(String recognizedText, String command) {
         Log.i(TAG, "Wake word detected: " + recognizedText);
+        Tracer.instant("wakeword.detected");
+        WAKE_WORD_DETECTIONS.increment();
+        
+        // Latency from the start of speech to the wake word, when both are known
+        long detectedAt = wakeWordHeardAt > 0 ? wakeWordHeardAt : SystemClock.elapsedRealtime();
+        telemetry.onDetection(System.currentTimeMillis(),
+            speechStartedAt > 0 ? detectedAt - speechStartedAt : -1);
+        speechStartedAt = 0;
+        wakeWordHeardAt = 0;
+        
+        // Release the microphone for the command recognizer
+        if (vadGate != null) {
+            Log.d(TAG, String.format(Locale.US, "VAD: %d frames, %.1f%% speech, %d onsets, noise floor %.1f dB",
+                vadGate.getFramesAnalysed(), vadGate.getSpeechRatio() * 100,
+                vadGate.getSpeechOnsets(), vadGate.getNoiseFloorDb()));
+            vadGate.stop();
+        }
+        Log.d(TAG, "Scheduler: " + scheduler.getSummary(SystemClock.elapsedRealtime()));
+        
+        wakeDetectedAt = SystemClock.elapsedRealtime();
+        wakeSpan = Tracer.begin();
         
+        // Command said in the same breath: run it right away
+        if (command != null && !command.isEmpty()) {
+            recordWakeToListening(0);
+            executeCommand(command);
+            return;
+        }
+        
+        // Capture the command here with the warm recognizer instead of launching MainActivity
+        if (speechRecognizer == null) {
+            initializeSpeechRecognizer();
+        }
+        if (speechRecognizer != null) {
+            updateNotification("Wake word detected! Listening for command...", true);
+            awaitingCommand = true;
+            isListening = false;
+            startListening(null);
+            return;
+        }
+        
+        launchMainActivity(command);
+    }
+    
+    /**
+     * Fallback when the service has no recognizer: let MainActivity listen
+     */
+    private void launchMainActivity(String command) {
         // Update notification
         updateNotification("Wake word detected!");
         
@@ -179,17 +758,142 @@ public class WakeWordService extends Service {
         Intent launchIntent = new Intent(this, MainActivity.class);
         launchIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP);
         launchIntent.putExtra("wake_word_activated", true);
+        if (command != null && !command.isEmpty()) {
+            launchIntent.putExtra("wake_word_command", command);
+        }
         startActivity(launchIntent);
         
         // Wait a bit before resuming wake word listening
-        new android.os.Handler().postDelayed(() -> {
+        mainHandler.postDelayed(() -> {
             updateNotification("Listening for Nekro...");
             if (shouldRestart) {
-                restartListening();
+                restartListening(ListeningScheduler.Outcome.WAKE_WORD);
             }
         }, 5000); // 5 second delay
     }
     
+    /**
+     * Run a command through the shared processor and show the result as a notification
+     */
+    private void executeCommand(String command) {
+        Log.i(TAG, "Executing command: " + command);
+        updateNotification("Running: " + command);
+        long span = Tracer.begin();
+        
+        commandProcessor.processCommand(command, new VoiceCommandProcessor.CommandCallback() {
+            @Override
+            public void onSuccess(String result) {
+                showCommandResult(command, result);
+            }
+            
+            @Override
+            public void onError(String error) {
+                showCommandResult(command, "Error: " + error);
+            }
+            
+            @Override
+            public void onUnknownCommand(String unknownCommand) {
+                showCommandResult(command, "Unknown command. Open the app to train me.");
+            }
+        });
+        Tracer.end("wakeword.executeCommand", span);
+        
+        resumeWakeWordDetection(COMMAND_RESUME_DELAY_MS);
+    }
+    
+    private void resumeWakeWordDetection(long delayMs) {
+        mainHandler.postDelayed(() -> {
+            updateNotification("Listening for Nekro...");
+            if (shouldRestart) {
+                restartListening(ListeningScheduler.Outcome.WAKE_WORD);
+            }
+        }, delayMs);
+    }
+    
+    /**
+     * The user flagged the last wake as not meant for us: count it and stop
+     * capturing a command if that is still going on
+     */
+    private void onFalseWakeDismissed() {
+        Log.i(TAG, "False wake dismissed by user");
+        telemetry.onFalseWake(System.currentTimeMillis());
+        
+        NotificationManager manager = getSystemService(NotificationManager.class);
+        if (manager != null) {
+            manager.cancel(RESULT_NOTIFICATION_ID);
+        }
+        
+        if (awaitingCommand && speechRecognizer != null) {
+            awaitingCommand = false;
+            speechRecognizer.cancel();
+            isListening = false;
+            endSessionSpans();
+            endGatedRecognition();
+            updateNotification("Listening for Nekro...");
+            if (shouldRestart) {
+                restartListening(ListeningScheduler.Outcome.SPEECH);
+            }
+        }
+    }
+    
+    /**
+     * Label telemetry with the detection path and recognizer mode now in use
+     */
+    private void setDetectionPath(String path) {
+        String strategy = path + "/"
+            + (recognizerMode != null ? recognizerMode.name().toLowerCase(Locale.US) : "none");
+        if (!strategy.equals(telemetry.getStrategy())) {
+            // CPU so far belongs to the previous strategy
+            sampleCpuTime();
+            telemetry.setStrategy(strategy);
+        }
+    }
+    
+    /**
+     * Charge CPU time since the last sample to the current hour. This is the
+     * whole process, which the service dominates while the app is in the background.
+     */
+    private void sampleCpuTime() {
+        long cpuMs = Process.getElapsedCpuTime();
+        telemetry.onCpuTime(System.currentTimeMillis(), cpuMs - cpuSampledMs);
+        cpuSampledMs = cpuMs;
+    }
+    
+    private void flushTelemetryPeriodically() {
+        flushTelemetry();
+        mainHandler.postDelayed(telemetryFlush, TELEMETRY_FLUSH_INTERVAL_MS);
+    }
+    
+    /**
+     * Add the hours recorded since the last flush to the database
+     */
+    private void flushTelemetry() {
+        sampleCpuTime();
+        List<WakeWordTelemetry.Hour> hours = telemetry.drain();
+        long cutoff = System.currentTimeMillis() - TELEMETRY_RETENTION_MS;
+        telemetryExecutor.execute(() -> {
+            try {
+                wakeWordHourDao.addAll(hours);
+                wakeWordHourDao.deleteOlderThan(cutoff);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to store wake word telemetry", e);
+            }
+        });
+    }
+    
+    /**
+     * Time from the wake word to the recognizer being ready for the command
+     */
+    private void recordWakeToListening(long latencyMs) {
+        wakeToListeningCount++;
+        wakeToListeningTotalMs += latencyMs;
+        wakeToListeningMaxMs = Math.max(wakeToListeningMaxMs, latencyMs);
+        WAKE_TO_LISTENING.recordMicros(latencyMs * 1000);
+        Log.i(TAG, String.format(Locale.US, "Wake-to-listening: %d ms (avg %d ms, max %d ms over %d)",
+            latencyMs, wakeToListeningTotalMs / wakeToListeningCount,
+            wakeToListeningMaxMs, wakeToListeningCount));
+    }
+    
     private void createNotificationChannel() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             NotificationChannel channel = new NotificationChannel(
@@ -199,34 +903,85 @@ public class WakeWordService extends Service {
             );
             channel.setDescription("Listening for wake word 'Nekro'");
             
+            NotificationChannel resultChannel = new NotificationChannel(
+                RESULT_CHANNEL_ID,
+                "Command Results",
+                NotificationManager.IMPORTANCE_DEFAULT
+            );
+            resultChannel.setDescription("Results of commands run after the wake word");
+            
             NotificationManager manager = getSystemService(NotificationManager.class);
             if (manager != null) {
                 manager.createNotificationChannel(channel);
+                manager.createNotificationChannel(resultChannel);
             }
         }
     }
     
     private Notification createNotification(String contentText) {
+        return createNotification(contentText, false);
+    }
+    
+    /**
+     * @param falseWakeAction offer a button to dismiss the wake as a false one
+     */
+    private Notification createNotification(String contentText, boolean falseWakeAction) {
         Intent notificationIntent = new Intent(this, MainActivity.class);
         PendingIntent pendingIntent = PendingIntent.getActivity(
             this, 0, notificationIntent,
             PendingIntent.FLAG_IMMUTABLE
         );
         
-        return new NotificationCompat.Builder(this, CHANNEL_ID)
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
             .setContentTitle("Voice Agent AI")
             .setContentText(contentText)
             .setSmallIcon(R.drawable.ic_mic)
             .setContentIntent(pendingIntent)
             .setOngoing(true)
-            .setPriority(NotificationCompat.PRIORITY_LOW)
-            .build();
+            .setPriority(NotificationCompat.PRIORITY_LOW);
+        if (falseWakeAction) {
+            builder.addAction(R.drawable.ic_mic, "False wake", falseWakeIntent());
+        }
+        return builder.build();
+    }
+    
+    private PendingIntent falseWakeIntent() {
+        Intent intent = new Intent(this, WakeWordService.class).setAction(ACTION_FALSE_WAKE);
+        return PendingIntent.getService(this, 0, intent, PendingIntent.FLAG_IMMUTABLE);
     }
     
     private void updateNotification(String contentText) {
+        updateNotification(contentText, false);
+    }
+    
+    private void updateNotification(String contentText, boolean falseWakeAction) {
+        NotificationManager manager = getSystemService(NotificationManager.class);
+        if (manager != null) {
+            manager.notify(NOTIFICATION_ID, createNotification(contentText, falseWakeAction));
+        }
+    }
+    
+    private void showCommandResult(String command, String result) {
+        Intent notificationIntent = new Intent(this, MainActivity.class);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            this, 0, notificationIntent,
+            PendingIntent.FLAG_IMMUTABLE
+        );
+        
+        Notification notification = new NotificationCompat.Builder(this, RESULT_CHANNEL_ID)
+            .setContentTitle(command)
+            .setContentText(result)
+            .setStyle(new NotificationCompat.BigTextStyle().bigText(result))
+            .setSmallIcon(R.drawable.ic_mic)
+            .setContentIntent(pendingIntent)
+            .setAutoCancel(true)
+            .addAction(R.drawable.ic_mic, "False wake", falseWakeIntent())
+            .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+            .build();
+        
         NotificationManager manager = getSystemService(NotificationManager.class);
         if (manager != null) {
-            manager.notify(NOTIFICATION_ID, createNotification(contentText));
+            manager.notify(RESULT_NOTIFICATION_ID, notification);
         }
     }
 }
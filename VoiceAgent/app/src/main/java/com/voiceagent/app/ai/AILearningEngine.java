@@ -2,50 +2,162 @@ package com.voiceagent.app.ai;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.voiceagent.app.data.CommandEntity;
+import com.voiceagent.app.data.InterpretationDao;
+import com.voiceagent.app.data.InterpretationEntity;
+import com.voiceagent.app.data.RuleDao;
+import com.voiceagent.app.data.RuleEntity;
+import com.voiceagent.app.data.TracingTrainingDataDao;
 import com.voiceagent.app.data.TrainingDatabase;
 import com.voiceagent.app.data.TrainingDataDao;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * AI Learning Engine that learns from user interactions and improves over time
+ * AI Learning Engine that learns from user interactions and improves over time.
+ * Safe to use from several threads: the foreground UI, the recognition queue and
+ * batch runs share the process-wide instance.
  */
 public class AILearningEngine {
     
+    private static final LatencyHistogram NORMALIZE_LATENCY = Metrics.histogram("learning.normalize");
+    private static final LatencyHistogram RULE_MATCH_LATENCY = Metrics.histogram("learning.matchLocalRule");
+    private static final Counter NORMALIZE_MEMO_HITS = Metrics.counter("learning.normalizeMemo.hit");
+    private static final Counter NORMALIZE_MEMO_MISSES = Metrics.counter("learning.normalizeMemo.miss");
+    private static final Counter CUSTOM_HITS = Metrics.counter("learning.custom.hit");
+    private static final Counter CUSTOM_MISSES = Metrics.counter("learning.custom.miss");
+    private static final Counter INTERPRETATION_HITS = Metrics.counter("learning.interpretation.hit");
+    private static final Counter INTERPRETATION_MISSES = Metrics.counter("learning.interpretation.miss");
+    private static final Counter RULE_HITS = Metrics.counter("learning.rule.hit");
+    private static final Counter RULE_MISSES = Metrics.counter("learning.rule.miss");
+    
+    // Older versions stored Claude's action type as a custom command's action;
+    // custom actions are package names, so these can never be launched
+    private static final Set<String> ACTION_TYPES = new HashSet<>(Arrays.asList(
+        "call", "message", "search", "open_app", "alarm", "reminder", "navigation",
+        "weather", "time", "date", "settings", "custom", "music", "other"));
+    
     private Context context;
     private TrainingDatabase database;
     private TrainingDataDao dao;
+    private InterpretationDao interpretationDao;
+    private RuleDao ruleDao;
     private SharedPreferences preferences;
     private Map<String, String> customCommands;
     private Map<String, Integer> commandFrequency;
+    private Map<String, InterpretationEntity> learnedInterpretations;
+    private final LocalRuleSet localRules = new LocalRuleSet();
+    
+    /**
+     * Work shared by the commands of one batch: a single snapshot of recent commands,
+     * memoized normalizations, and records held back for one insert. It travels with
+     * each command, so records made later on another thread (after Claude answers)
+     * still land in the batch.
+     */
+    public static final class Batch {
+        private volatile List<String> recentCommands;
+        private final Map<String, String> normalized = new ConcurrentHashMap<>();
+        private final List<CommandEntity> pending = new ArrayList<>();
+        private boolean ended = false;
+        
+        private Batch() {
+        }
+        
+        /**
+         * Hold a record back for the batch insert; false once the batch has been written
+         */
+        private synchronized boolean hold(CommandEntity entity) {
+            if (ended) {
+                return false;
+            }
+            pending.add(entity);
+            return true;
+        }
+        
+        private synchronized List<CommandEntity> end() {
+            ended = true;
+            return new ArrayList<>(pending);
+        }
+    }
     
     public AILearningEngine(Context context) {
+        this(context, TrainingDatabase.getInstance(context));
+    }
+    
+    /**
+     * Engine over the given database, e.g. an in-memory one in tests
+     */
+    public AILearningEngine(Context context, TrainingDatabase database) {
         this.context = context;
-        this.database = TrainingDatabase.getInstance(context);
-        this.dao = database.trainingDataDao();
+        this.database = database;
+        this.dao = new TracingTrainingDataDao(database.trainingDataDao());
+        this.interpretationDao = database.interpretationDao();
+        this.ruleDao = database.ruleDao();
         this.preferences = context.getSharedPreferences("ai_learning", Context.MODE_PRIVATE);
-        this.customCommands = new HashMap<>();
-        this.commandFrequency = new HashMap<>();
+        this.customCommands = new ConcurrentHashMap<>();
+        this.commandFrequency = new ConcurrentHashMap<>();
+        this.learnedInterpretations = new ConcurrentHashMap<>();
         
         loadCustomCommands();
         loadCommandFrequency();
+        loadLearnedInterpretations();
+        loadLocalRules();
+        
+        Metrics.gauge("learning.localRules").setSource(() -> localRules.size());
+        Metrics.gauge("learning.learnedInterpretations").setSource(learnedInterpretations::size);
     }
     
     /**
      * Normalize command using AI learning patterns
      */
     public String normalizeCommand(String command) {
-        String normalized = command.toLowerCase(Locale.getDefault()).trim();
-        
-        // Remove common filler words
-        normalized = normalized.replaceAll("\\b(please|could you|can you|would you)\\b", "");
-        normalized = normalized.replaceAll("\\s+", " ").trim();
+        return normalizeCommand(command, null);
+    }
+    
+    /**
+     * Normalize a command of the given batch, or of none when it is null
+     */
+    public String normalizeCommand(String command, Batch batch) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        String normalized;
+        if (batch != null) {
+            normalized = batch.normalized.get(command);
+            if (normalized == null) {
+                NORMALIZE_MEMO_MISSES.increment();
+                normalized = normalizeUncached(command, batch);
+                batch.normalized.put(command, normalized);
+            } else {
+                NORMALIZE_MEMO_HITS.increment();
+            }
+        } else {
+            normalized = normalizeUncached(command, null);
+        }
+        Tracer.end("learning.normalize", span);
+        NORMALIZE_LATENCY.recordSince(start);
+        return normalized;
+    }
+    
+    private String normalizeUncached(String command, Batch batch) {
+        String normalized = CommandNormalizer.clean(command);
         
         // Check for similar commands in history
-        String similarCommand = findSimilarCommand(normalized);
+        String similarCommand = CommandNormalizer.findSimilar(normalized, getRecentCommandTexts(batch));
         if (similarCommand != null) {
             return similarCommand;
         }
@@ -54,83 +166,69 @@ public class AILearningEngine {
     }
     
     /**
-     * Find similar command using pattern matching
+     * Recently successful commands to match against, loaded once per batch
      */
-    private String findSimilarCommand(String command) {
-        List<CommandEntity> recentCommands = dao.getRecentSuccessfulCommands(50);
-        
-        double maxSimilarity = 0.0;
-        String mostSimilar = null;
-        
-        for (CommandEntity entity : recentCommands) {
-            double similarity = calculateSimilarity(command, entity.command);
-            if (similarity > maxSimilarity && similarity > 0.7) {
-                maxSimilarity = similarity;
-                mostSimilar = entity.command;
-            }
+    private List<String> getRecentCommandTexts(Batch batch) {
+        if (batch != null && batch.recentCommands != null) {
+            return batch.recentCommands;
         }
         
-        return mostSimilar;
+        List<String> texts = new ArrayList<>();
+        for (CommandEntity entity : dao.getRecentSuccessfulCommands(50)) {
+            texts.add(entity.command);
+        }
+        if (batch != null) {
+            batch.recentCommands = texts;
+        }
+        return texts;
     }
     
     /**
-     * Calculate similarity between two strings using Levenshtein distance
+     * Record command execution for learning
      */
-    private double calculateSimilarity(String s1, String s2) {
-        int maxLen = Math.max(s1.length(), s2.length());
-        if (maxLen == 0) return 1.0;
-        
-        int distance = levenshteinDistance(s1, s2);
-        return 1.0 - ((double) distance / maxLen);
+    public void recordCommand(String command, String type, boolean success) {
+        recordCommand(command, type, success, null);
     }
     
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-        
-        for (int i = 0; i <= s1.length(); i++) {
-            dp[i][0] = i;
-        }
-        for (int j = 0; j <= s2.length(); j++) {
-            dp[0][j] = j;
-        }
-        
-        for (int i = 1; i <= s1.length(); i++) {
-            for (int j = 1; j <= s2.length(); j++) {
-                int cost = (s1.charAt(i - 1) == s2.charAt(j - 1)) ? 0 : 1;
-                dp[i][j] = Math.min(Math.min(
-                    dp[i - 1][j] + 1,      // deletion
-                    dp[i][j - 1] + 1),     // insertion
-                    dp[i - 1][j - 1] + cost // substitution
-                );
+    /**
+     * Record a command of the given batch, or of none when it is null
+     */
+    public void recordCommand(String command, String type, boolean success, Batch batch) {
+        long span = Tracer.begin();
+        try {
+            CommandEntity entity = new CommandEntity();
+            entity.command = command;
+            entity.commandType = type;
+            entity.success = success;
+            entity.timestamp = System.currentTimeMillis();
+            entity.context = getCurrentContext();
+            
+            // Update frequency map
+            commandFrequency.merge(command, 1, Integer::sum);
+            
+            if (batch != null && batch.hold(entity)) {
+                return;
             }
+            
+            // Save to database
+            new Thread(() -> dao.insert(entity)).start();
+            saveCommandFrequency();
+        } finally {
+            Tracer.end("learning.recordCommand", span);
         }
-        
-        return dp[s1.length()][s2.length()];
     }
     
     /**
-     * Record command execution for learning
+     * Record unknown command for future learning
      */
-    public void recordCommand(String command, String type, boolean success) {
-        CommandEntity entity = new CommandEntity();
-        entity.command = command;
-        entity.commandType = type;
-        entity.success = success;
-        entity.timestamp = System.currentTimeMillis();
-        entity.context = getCurrentContext();
-        
-        // Save to database
-        new Thread(() -> dao.insert(entity)).start();
-        
-        // Update frequency map
-        commandFrequency.put(command, commandFrequency.getOrDefault(command, 0) + 1);
-        saveCommandFrequency();
+    public void recordUnknownCommand(String command) {
+        recordUnknownCommand(command, null);
     }
     
     /**
-     * Record unknown command for future learning
+     * Record an unknown command of the given batch, or of none when it is null
      */
-    public void recordUnknownCommand(String command) {
+    public void recordUnknownCommand(String command, Batch batch) {
         CommandEntity entity = new CommandEntity();
         entity.command = command;
         entity.commandType = "unknown";
@@ -138,9 +236,38 @@ public class AILearningEngine {
         entity.timestamp = System.currentTimeMillis();
         entity.context = getCurrentContext();
         
+        if (batch != null && batch.hold(entity)) {
+            return;
+        }
+        
         new Thread(() -> dao.insert(entity)).start();
     }
     
+    /**
+     * Start a batch: until endBatch(), commands processed with it share normalization
+     * work and their records are held back
+     */
+    public Batch beginBatch() {
+        return new Batch();
+    }
+    
+    /**
+     * Write the batch's records in one transaction. Must run off the main thread.
+     * Records made after this are written one by one. Returns the number written.
+     */
+    public int endBatch(Batch batch) {
+        List<CommandEntity> pending = batch.end();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        long span = Tracer.begin();
+        dao.insertAll(pending);
+        saveCommandFrequency();
+        Tracer.end("learning.endBatch", span);
+        return pending.size();
+    }
+    
     /**
      * Add custom command mapping
      */
@@ -156,7 +283,166 @@ public class AILearningEngine {
      * Get action for custom command
      */
     public String getCustomCommandAction(String command) {
-        return customCommands.get(command.toLowerCase(Locale.getDefault()));
+        String action = customCommands.get(command.toLowerCase(Locale.getDefault()));
+        (action != null ? CUSTOM_HITS : CUSTOM_MISSES).increment();
+        return action;
+    }
+    
+    /**
+     * Get a stored Claude interpretation for a command, or null if none was learned.
+     * Served from memory so lookups add no latency.
+     */
+    public ClaudeCommandInterpreter.InterpretationResult getLearnedInterpretation(String command) {
+        InterpretationEntity entity = learnedInterpretations.get(
+            command.toLowerCase(Locale.getDefault()).trim());
+        if (entity == null) {
+            INTERPRETATION_MISSES.increment();
+            return null;
+        }
+        INTERPRETATION_HITS.increment();
+        
+        JsonObject parameters = entity.parameters != null
+            ? JsonParser.parseString(entity.parameters).getAsJsonObject()
+            : null;
+        return new ClaudeCommandInterpreter.InterpretationResult(
+            command, entity.actionType, parameters, entity.explanation);
+    }
+    
+    /**
+     * Load interpretations learned by the background batch job
+     */
+    private void loadLearnedInterpretations() {
+        new Thread(() -> {
+            for (InterpretationEntity entity : interpretationDao.getAllInterpretations()) {
+                learnedInterpretations.put(entity.command, entity);
+            }
+        }).start();
+    }
+    
+    /**
+     * Serve interpretations and rules stored by the background batch job
+     * without waiting for the next process start
+     */
+    public void addLearned(List<InterpretationEntity> interpretations, List<RuleEntity> rules) {
+        for (InterpretationEntity entity : interpretations) {
+            learnedInterpretations.put(entity.command, entity);
+        }
+        for (RuleEntity rule : rules) {
+            addLocalRule(toTemplate(rule));
+        }
+    }
+    
+    /**
+     * Distill a Claude interpretation into a local parameterised rule, so similar
+     * utterances with different arguments are handled on-device next time
+     */
+    public void learnFromInterpretation(String command, ClaudeCommandInterpreter.InterpretationResult result) {
+        RuleEntity rule = createRule(command, result.actionType, result.parameters, result.explanation);
+        if (rule == null) {
+            return;
+        }
+        
+        addLocalRule(toTemplate(rule));
+        new Thread(() -> ruleDao.insert(rule)).start();
+    }
+    
+    /**
+     * Match a command against the learned local rules (most specific first)
+     */
+    public ClaudeCommandInterpreter.InterpretationResult matchLocalRule(String command) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        ClaudeCommandInterpreter.InterpretationResult result = null;
+        try {
+            result = matchLocalRuleUntraced(command);
+            return result;
+        } finally {
+            Tracer.end("learning.matchLocalRule", span);
+            RULE_MATCH_LATENCY.recordSince(start);
+            (result != null ? RULE_HITS : RULE_MISSES).increment();
+        }
+    }
+    
+    private ClaudeCommandInterpreter.InterpretationResult matchLocalRuleUntraced(String command) {
+        LocalRuleSet.Match match = localRules.match(command);
+        if (match == null) {
+            return null;
+        }
+        CommandTemplate template = match.template;
+        new Thread(() -> ruleDao.incrementHitCount(template.getPattern())).start();
+        
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, String> entry : match.parameters.entrySet()) {
+            json.addProperty(entry.getKey(), entry.getValue());
+        }
+        return new ClaudeCommandInterpreter.InterpretationResult(
+            command, template.getActionType(), json, template.getExplanation());
+    }
+    
+    /**
+     * Get number of learned local rules
+     */
+    public int getLocalRuleCount() {
+        return localRules.size();
+    }
+    
+    /**
+     * Build a rule row for an interpreted command, or null if no useful rule can be derived
+     */
+    public static RuleEntity createRule(String command, String actionType,
+                                        JsonObject parameters, String explanation) {
+        Map<String, String> values = new HashMap<>();
+        if (parameters != null) {
+            for (Map.Entry<String, JsonElement> entry : parameters.entrySet()) {
+                if (entry.getValue().isJsonPrimitive()) {
+                    values.put(entry.getKey(), entry.getValue().getAsString());
+                }
+            }
+        }
+        
+        CommandTemplate template = CommandTemplate.distill(command, actionType, values, explanation);
+        if (template == null) {
+            return null;
+        }
+        
+        JsonObject fixed = new JsonObject();
+        for (Map.Entry<String, String> entry : template.getFixedParameters().entrySet()) {
+            fixed.addProperty(entry.getKey(), entry.getValue());
+        }
+        
+        RuleEntity rule = new RuleEntity();
+        rule.pattern = template.getPattern();
+        rule.actionType = actionType;
+        rule.parameters = fixed.toString();
+        rule.explanation = explanation;
+        rule.timestamp = System.currentTimeMillis();
+        return rule;
+    }
+    
+    private static CommandTemplate toTemplate(RuleEntity rule) {
+        Map<String, String> fixed = new HashMap<>();
+        if (rule.parameters != null) {
+            JsonObject json = JsonParser.parseString(rule.parameters).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+                fixed.put(entry.getKey(), entry.getValue().getAsString());
+            }
+        }
+        return new CommandTemplate(rule.pattern, rule.actionType, fixed, rule.explanation);
+    }
+    
+    private void addLocalRule(CommandTemplate template) {
+        localRules.add(template);
+    }
+    
+    /**
+     * Load learned local rules
+     */
+    private void loadLocalRules() {
+        new Thread(() -> {
+            for (RuleEntity rule : ruleDao.getAllRules()) {
+                addLocalRule(toTemplate(rule));
+            }
+        }).start();
     }
     
     /**
@@ -238,17 +524,29 @@ public class AILearningEngine {
     }
     
     /**
-     * Load custom commands from preferences
+     * Load custom commands from preferences, deleting legacy entries whose action is
+     * an action type, so those commands reach learned interpretations and rules
      */
     private void loadCustomCommands() {
         Map<String, ?> all = preferences.getAll();
+        SharedPreferences.Editor legacy = null;
         for (Map.Entry<String, ?> entry : all.entrySet()) {
             if (entry.getKey().startsWith("custom_")) {
                 String command = entry.getKey().substring(7);
                 String action = (String) entry.getValue();
+                if (ACTION_TYPES.contains(action)) {
+                    if (legacy == null) {
+                        legacy = preferences.edit();
+                    }
+                    legacy.remove(entry.getKey());
+                    continue;
+                }
                 customCommands.put(command, action);
             }
         }
+        if (legacy != null) {
+            legacy.apply();
+        }
     }
     
     /**
@@ -281,11 +579,19 @@ public class AILearningEngine {
      */
     public String[] getLearningSuggestions() {
         // Analyze patterns and suggest improvements
-        List<CommandEntity> unknownCommands = dao.getUnknownCommands(10);
+        // Skip repeats and commands already resolved by background learning
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (CommandEntity entity : dao.getUnknownCommands(10)) {
+            String command = entity.command.toLowerCase(Locale.getDefault()).trim();
+            if (!learnedInterpretations.containsKey(command)) {
+                unresolved.add(entity.command);
+            }
+        }
         
+        List<String> unknownCommands = new ArrayList<>(unresolved);
         String[] suggestions = new String[Math.min(3, unknownCommands.size())];
         for (int i = 0; i < suggestions.length; i++) {
-            suggestions[i] = "Learn: \"" + unknownCommands.get(i).command + "\"";
+            suggestions[i] = "Learn: \"" + unknownCommands.get(i) + "\"";
         }
         
         return suggestions;
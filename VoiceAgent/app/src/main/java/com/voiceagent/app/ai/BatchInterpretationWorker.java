@@ -0,0 +1,173 @@
+package com.voiceagent.app.ai;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.voiceagent.app.VoiceCommandProcessor;
+import com.voiceagent.app.data.CommandEntity;
+import com.voiceagent.app.data.InterpretationDao;
+import com.voiceagent.app.data.InterpretationEntity;
+import com.voiceagent.app.data.RuleEntity;
+import com.voiceagent.app.data.TracingTrainingDataDao;
+import com.voiceagent.app.data.TrainingDatabase;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that sends recorded unknown commands to Claude in batches
+ * and stores the interpretations, so they resolve locally next time
+ */
+public class BatchInterpretationWorker extends Worker {
+    
+    private static final String TAG = "BatchInterpretation";
+    private static final String WORK_NAME = "batch_interpretation";
+    
+    // Optional input: endpoint override, e.g. a local stand-in server
+    public static final String KEY_API_URL = "api_url";
+    
+    private static final int MAX_UNKNOWN_COMMANDS = 200;
+    private static final int BATCH_SIZE = 20;
+    private static final long BATCH_BUDGET_MS = 60000;
+    
+    // Supplied collaborators; null means the app's own, resolved in doWork()
+    private final ClaudeApiService suppliedService;
+    private final TrainingDatabase suppliedDatabase;
+    private final AILearningEngine suppliedEngine;
+    
+    public BatchInterpretationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        this(context, params, null, null, null);
+    }
+    
+    /**
+     * Worker with its collaborators supplied, e.g. a service pointed at a local
+     * stand-in server and an in-memory database in tests
+     */
+    public BatchInterpretationWorker(@NonNull Context context, @NonNull WorkerParameters params,
+                                     ClaudeApiService claudeService, TrainingDatabase database,
+                                     AILearningEngine engine) {
+        super(context, params);
+        this.suppliedService = claudeService;
+        this.suppliedDatabase = database;
+        this.suppliedEngine = engine;
+    }
+    
+    /**
+     * Schedule the daily job on unmetered networks while charging
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.UNMETERED)
+            .setRequiresCharging(true)
+            .build();
+        
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+            BatchInterpretationWorker.class, 1, TimeUnit.DAYS)
+            .setConstraints(constraints)
+            .build();
+        
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+            WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        ClaudeApiService claudeService = suppliedService;
+        if (claudeService == null) {
+            String apiUrl = getInputData().getString(KEY_API_URL);
+            claudeService = apiUrl != null
+                ? new ClaudeApiService(context, apiUrl)
+                : new ClaudeApiService(context);
+        }
+        
+        if (!claudeService.isConfigured()) {
+            return Result.success();
+        }
+        
+        TrainingDatabase database = suppliedDatabase != null
+            ? suppliedDatabase : TrainingDatabase.getInstance(context);
+        InterpretationDao interpretationDao = database.interpretationDao();
+        
+        // Collect distinct unknown commands that have not been interpreted yet
+        Set<String> pending = new LinkedHashSet<>();
+        for (CommandEntity entity : new TracingTrainingDataDao(database.trainingDataDao()).getUnknownCommands(MAX_UNKNOWN_COMMANDS)) {
+            String command = entity.command.toLowerCase(Locale.getDefault()).trim();
+            if (!command.isEmpty() && interpretationDao.getInterpretation(command) == null) {
+                pending.add(command);
+            }
+        }
+        
+        if (pending.isEmpty()) {
+            return Result.success();
+        }
+        
+        List<String> commands = new ArrayList<>(pending);
+        int learned = 0;
+        AILearningEngine engine = suppliedEngine != null
+            ? suppliedEngine : VoiceCommandProcessor.getInstance(context).getAiEngine();
+        
+        for (int start = 0; start < commands.size(); start += BATCH_SIZE) {
+            if (isStopped()) {
+                return Result.retry();
+            }
+            if (claudeService.getBudgetLevel() == TokenBudget.Level.LOCAL_ONLY) {
+                // Retrying won't help today; the next daily run picks up the rest
+                Log.i(TAG, "Daily token budget used up, stopping after " + learned + " interpretations");
+                return Result.success();
+            }
+            
+            List<String> batch = commands.subList(start, Math.min(start + BATCH_SIZE, commands.size()));
+            Map<String, ClaudeResponse> results =
+                claudeService.interpretBatch(batch, Deadline.after(BATCH_BUDGET_MS));
+            
+            if (results == null) {
+                Log.w(TAG, "Batch request failed, will retry later");
+                return Result.retry();
+            }
+            
+            List<InterpretationEntity> entities = new ArrayList<>();
+            List<RuleEntity> rules = new ArrayList<>();
+            for (Map.Entry<String, ClaudeResponse> entry : results.entrySet()) {
+                ClaudeResponse response = entry.getValue();
+                if (!response.success) {
+                    continue;
+                }
+                
+                InterpretationEntity entity = new InterpretationEntity();
+                entity.command = entry.getKey();
+                entity.actionType = response.actionType;
+                entity.parameters = response.parameters != null ? response.parameters.toString() : null;
+                entity.explanation = response.explanation;
+                entity.timestamp = System.currentTimeMillis();
+                entities.add(entity);
+                
+                RuleEntity rule = AILearningEngine.createRule(
+                    entry.getKey(), response.actionType, response.parameters, response.explanation);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+            
+            interpretationDao.insertAll(entities);
+            database.ruleDao().insertAll(rules);
+            engine.addLearned(entities, rules);
+            learned += entities.size();
+        }
+        
+        Log.i(TAG, "Learned " + learned + " of " + commands.size() + " unknown commands");
+        return Result.success();
+    }
+}
@@ -4,13 +4,23 @@ import android.content.Context;
 import android.util.Log;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
 import com.voiceagent.app.utils.ApiKeyManager;
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -21,24 +31,142 @@ public class ClaudeApiService {
     private static final String TAG = "ClaudeApiService";
     private static final String CLAUDE_API_URL = "https://api.anthropic.com/v1/messages";
     private static final String CLAUDE_VERSION = "2023-06-01";
-    private static final String MODEL = "claude-3-5-sonnet-20241022";
+    
+    // Model tiers: the fast model answers first, the smart model only on escalation
+    private static final String FAST_MODEL = "claude-3-5-haiku-20241022";
+    private static final String SMART_MODEL = "claude-3-5-sonnet-20241022";
+    private static final float ESCALATION_CONFIDENCE = 0.7f;
+    
     private static final int MAX_TOKENS = 1024;
+    private static final int SHORT_MAX_TOKENS = 256; // interpretations fit well under this
+    private static final int BATCH_MAX_TOKENS = 4096;
+    
+    // Latency budget used when the caller does not supply one
+    public static final long DEFAULT_BUDGET_MS = Deadline.DEFAULT_BUDGET_MS;
+    
+    // Circuit breaker tuning
+    private static final int BREAKER_FAILURE_THRESHOLD = 3;
+    private static final long BREAKER_SLOW_CALL_MS = 5000;
+    private static final long BREAKER_OPEN_DURATION_MS = 60000;
+    
+    // Retry and rate limiting tuning
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_BASE_DELAY_MS = 500;
+    private static final long RETRY_MAX_DELAY_MS = 8000;
+    private static final int DEFAULT_REQUESTS_PER_MINUTE = 50;
+    private static final int MIN_CONCURRENCY = 1;
+    public static final int MAX_CONCURRENCY = 8;
+    
+    private static final LatencyHistogram INTERPRET_LATENCY = Metrics.histogram("claude.interpret");
+    private static final LatencyHistogram BATCH_LATENCY = Metrics.histogram("claude.batch");
+    private static final LatencyHistogram HTTP_LATENCY = Metrics.histogram("claude.http");
+    private static final LatencyHistogram RATE_LIMIT_WAIT = Metrics.histogram("claude.rateLimitWait");
+    private static final Counter FAILURES = Metrics.counter("claude.failures");
+    private static final Counter CIRCUIT_REJECTIONS = Metrics.counter("claude.circuitOpen");
+    private static final Counter ESCALATIONS = Metrics.counter("claude.escalations");
+    private static final Counter RETRIES = Metrics.counter("claude.retries");
+    private static final Counter THROTTLED = Metrics.counter("claude.throttled");
+    private static final Counter BUDGET_REJECTIONS = Metrics.counter("claude.budgetRejections");
+    // Interpretations answered by the tiers; escalation rate is claude.escalations over this
+    private static final Counter ROUTED = Metrics.counter("claude.routed");
+    
+    static {
+        Metrics.gauge("claude.escalationRatePct").setSource(() -> {
+            long routed = ROUTED.get();
+            return routed == 0 ? 0 : ESCALATIONS.get() * 100 / routed;
+        });
+    }
+    
+    /**
+     * Each tier's model, with its own trace span, latency histogram and failure count
+     */
+    private enum Tier {
+        FAST(FAST_MODEL, "claude.fast"),
+        SMART(SMART_MODEL, "claude.smart");
+        
+        final String model;
+        final String spanName;
+        final LatencyHistogram latency;
+        final Counter failures;
+        
+        Tier(String model, String name) {
+            this.model = model;
+            this.spanName = name;
+            this.latency = Metrics.histogram(name);
+            this.failures = Metrics.counter(name + "Failures");
+        }
+    }
+    
+    /**
+     * Slowest single HTTP round trip of an interpretation, which is what the breaker
+     * judges; waits, retries and a second tier do not make an endpoint slow
+     */
+    private static final class HttpTiming {
+        long slowestMs;
+        
+        void record(long latencyMs) {
+            slowestMs = Math.max(slowestMs, latencyMs);
+        }
+    }
+    
+    // One limiter and breaker per endpoint, so every client in the process draws on
+    // the same request budget and backs off together when the endpoint is failing
+    private static final Map<String, ClaudeRateLimiter> RATE_LIMITERS = new ConcurrentHashMap<>();
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+    
+    /**
+     * The client gave up on a call before the endpoint answered it: rate limit wait,
+     * exhausted budget or interruption. Not held against the endpoint.
+     */
+    private static class LocalRejectionException extends InterruptedIOException {
+        LocalRejectionException(String message) {
+            super(message);
+        }
+    }
     
     private final OkHttpClient client;
     private final Gson gson;
+    private final ClaudeResponseParser parser;
     private final ApiKeyManager apiKeyManager;
     private final Context context;
+    private final String apiUrl;
+    private final CircuitBreaker circuitBreaker;
+    private final ClaudeRateLimiter rateLimiter;
+    private final TokenUsageTracker usageTracker;
     
     public ClaudeApiService(Context context) {
+        this(context, CLAUDE_API_URL);
+    }
+    
+    /**
+     * Create a service talking to a custom endpoint (e.g. a local mock server)
+     */
+    public ClaudeApiService(Context context, String apiUrl) {
+        this(context, apiUrl, TokenUsageTracker.getInstance(context));
+    }
+    
+    /**
+     * Create a service that accounts its tokens in the given tracker instead of the shared one
+     */
+    public ClaudeApiService(Context context, String apiUrl, TokenUsageTracker usageTracker) {
         this.context = context;
+        this.apiUrl = apiUrl;
         this.apiKeyManager = new ApiKeyManager(context);
         this.gson = new Gson();
+        this.parser = new ClaudeResponseParser(gson);
+        this.circuitBreaker = CIRCUIT_BREAKERS.computeIfAbsent(apiUrl, url -> new CircuitBreaker(
+            BREAKER_FAILURE_THRESHOLD, BREAKER_SLOW_CALL_MS, BREAKER_OPEN_DURATION_MS));
+        this.rateLimiter = RATE_LIMITERS.computeIfAbsent(apiUrl, url -> new ClaudeRateLimiter(
+            DEFAULT_REQUESTS_PER_MINUTE, MIN_CONCURRENCY, MAX_CONCURRENCY));
+        this.usageTracker = usageTracker;
         
-        // Configure OkHttp client with timeouts
+        // Per-phase timeouts are only upper bounds; each call is further
+        // limited by the remaining budget of its voice interaction
         this.client = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
+            .connectTimeout(5, TimeUnit.SECONDS)
+            .readTimeout(10, TimeUnit.SECONDS)
+            .writeTimeout(10, TimeUnit.SECONDS)
+            .eventListenerFactory(NetworkTimingListener.FACTORY)
             .build();
     }
     
@@ -46,26 +174,147 @@ public class ClaudeApiService {
      * Interpret a voice command using Claude AI
      */
     public ClaudeResponse interpretCommand(String command) {
+        return interpretCommand(command, Deadline.after(DEFAULT_BUDGET_MS));
+    }
+    
+    /**
+     * Interpret a voice command using Claude AI within the given latency budget
+     */
+    public ClaudeResponse interpretCommand(String command, Deadline deadline) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        ClaudeResponse response = null;
+        try {
+            response = interpret(command, deadline);
+            return response;
+        } finally {
+            Tracer.end("claude.interpret", span);
+            INTERPRET_LATENCY.recordSince(start);
+            if (response == null || !response.success) {
+                FAILURES.increment();
+            }
+        }
+    }
+    
+    private ClaudeResponse interpret(String command, Deadline deadline) {
         String apiKey = apiKeyManager.getApiKey();
         
         if (apiKey == null || apiKey.isEmpty()) {
             return new ClaudeResponse(false, "API key not configured", null, null);
         }
         
+        if (deadline.isExpired()) {
+            return new ClaudeResponse(false, "Timed out before contacting Claude", null, null);
+        }
+        
+        // Near the daily token budget, spend less per call; past it, stay local
+        TokenBudget.Level level = usageTracker.getLevel();
+        if (level == TokenBudget.Level.LOCAL_ONLY) {
+            BUDGET_REJECTIONS.increment();
+            return new ClaudeResponse(false, "Daily token budget used up", null, null);
+        }
+        
+        if (!circuitBreaker.tryAcquire()) {
+            Log.d(TAG, "Circuit open, skipping API call");
+            CIRCUIT_REJECTIONS.increment();
+            return new ClaudeResponse(false, "Claude temporarily unavailable", null, null);
+        }
+        
+        HttpTiming timing = new HttpTiming();
         try {
-            String prompt = buildCommandInterpretationPrompt(command);
-            String response = callClaudeApi(apiKey, prompt);
-            return parseClaudeResponse(response);
+            boolean fullContext = level == TokenBudget.Level.NORMAL;
+            String prompt = fullContext
+                ? buildCommandInterpretationPrompt(command)
+                : buildCompactInterpretationPrompt(command);
+            int maxTokens = fullContext ? MAX_TOKENS : SHORT_MAX_TOKENS;
+            ClaudeResponse result = callTier(apiKey, Tier.FAST, prompt, maxTokens, deadline, timing);
+            
+            // Escalate on invalid JSON or low confidence, if the latency and token budgets allow
+            boolean escalated = false;
+            if ((!result.success || result.confidence < ESCALATION_CONFIDENCE) && !deadline.isExpired()
+                    && level.compareTo(TokenBudget.Level.FAST_ONLY) < 0) {
+                escalated = true;
+                ESCALATIONS.increment();
+                Log.d(TAG, "Escalating to smart model (confidence " + result.confidence + ")");
+                try {
+                    ClaudeResponse smartResult = callTier(apiKey, Tier.SMART, prompt, maxTokens, deadline, timing);
+                    if (smartResult.success || !result.success) {
+                        result = smartResult;
+                    }
+                } catch (IOException e) {
+                    if (!result.success) {
+                        throw e;
+                    }
+                    Log.w(TAG, "Escalation failed, using fast model answer", e);
+                }
+            }
             
+            ROUTED.increment();
+            circuitBreaker.onSuccess(timing.slowestMs);
+            return result;
+            
+        } catch (LocalRejectionException e) {
+            circuitBreaker.onAbandoned();
+            Log.w(TAG, "API call abandoned: " + e.getMessage());
+            return new ClaudeResponse(false, "Timed out: " + e.getMessage(), null, null);
         } catch (IOException e) {
+            circuitBreaker.onFailure();
             Log.e(TAG, "API call failed", e);
             return new ClaudeResponse(false, "Network error: " + e.getMessage(), null, null);
         } catch (Exception e) {
+            // Still report the outcome, or a half-open breaker would wait on this trial forever
+            circuitBreaker.onFailure();
             Log.e(TAG, "Unexpected error", e);
             return new ClaudeResponse(false, "Error: " + e.getMessage(), null, null);
         }
     }
     
+    /**
+     * Interpret many commands with a single API request.
+     * Returns interpretations keyed by command; commands Claude could not
+     * interpret are left out. Returns null if the request itself failed.
+     */
+    public Map<String, ClaudeResponse> interpretBatch(List<String> commands, Deadline deadline) {
+        String apiKey = apiKeyManager.getApiKey();
+        
+        if (apiKey == null || apiKey.isEmpty() || commands.isEmpty()) {
+            return null;
+        }
+        
+        TokenBudget.Level level = usageTracker.getLevel();
+        if (level == TokenBudget.Level.LOCAL_ONLY) {
+            BUDGET_REJECTIONS.increment();
+            return null;
+        }
+        
+        // Leave a failing endpoint alone. Batch calls are slow by design, so they
+        // report network failures to the breaker but not their latency.
+        if (!circuitBreaker.isCallPermitted()) {
+            CIRCUIT_REJECTIONS.increment();
+            return null;
+        }
+        
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        try {
+            String prompt = buildBatchInterpretationPrompt(commands);
+            String model = level == TokenBudget.Level.FAST_ONLY ? FAST_MODEL : SMART_MODEL;
+            String response = callClaudeApi(apiKey, model, prompt, BATCH_MAX_TOKENS, deadline, null);
+            return parseBatchResponse(response, commands);
+            
+        } catch (LocalRejectionException e) {
+            Log.w(TAG, "Batch API call abandoned: " + e.getMessage());
+            return null;
+        } catch (IOException e) {
+            circuitBreaker.onFailure();
+            Log.e(TAG, "Batch API call failed", e);
+            return null;
+        } finally {
+            Tracer.end("claude.batch", span);
+            BATCH_LATENCY.recordSince(start);
+        }
+    }
+    
     /**
      * Build prompt for command interpretation
      */
@@ -84,22 +333,86 @@ public class ClaudeApiService {
                "    \"key\": \"value\"\n" +
                "  },\n" +
                "  \"explanation\": \"brief explanation\",\n" +
-               "  \"executable\": true/false\n" +
+               "  \"executable\": true/false,\n" +
+               "  \"confidence\": number from 0.0 to 1.0, how sure you are of this interpretation\n" +
                "}";
     }
     
     /**
-     * Call Claude API
+     * Shorter variant of the interpretation prompt, used when tokens are running low
+     */
+    private String buildCompactInterpretationPrompt(String command) {
+        return "Interpret this Android voice command: \"" + command + "\"\n" +
+               "Reply with JSON only: {\"intent\": string, \"action_type\": one of call|message|search|open_app|alarm|reminder|navigation|weather|time|date|settings|custom, " +
+               "\"parameters\": object, \"explanation\": string, \"executable\": boolean, \"confidence\": 0.0-1.0}";
+    }
+    
+    /**
+     * Build prompt interpreting a numbered list of commands at once
      */
-    private String callClaudeApi(String apiKey, String prompt) throws IOException {
+    private String buildBatchInterpretationPrompt(List<String> commands) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < commands.size(); i++) {
+            list.append(i).append(". \"").append(commands.get(i)).append("\"\n");
+        }
+        
+        return "You are an Android voice assistant interpreter. Users said the following commands:\n\n" +
+               list + "\n" +
+               "For each command provide the intent, the action type (one of: call, message, search, open_app, alarm, reminder, navigation, weather, time, date, settings, custom), " +
+               "any parameters needed (contact name, app name, search query, etc.) and a brief explanation.\n\n" +
+               "Respond ONLY with a JSON array containing one object per command in this format:\n" +
+               "[\n" +
+               "  {\n" +
+               "    \"index\": number of the command,\n" +
+               "    \"intent\": \"brief description of intent\",\n" +
+               "    \"action_type\": \"action type from list above\",\n" +
+               "    \"parameters\": {\n" +
+               "      \"key\": \"value\"\n" +
+               "    },\n" +
+               "    \"explanation\": \"brief explanation\",\n" +
+               "    \"executable\": true/false\n" +
+               "  }\n" +
+               "]";
+    }
+    
+    /**
+     * Call one model tier and record its latency
+     */
+    private ClaudeResponse callTier(String apiKey, Tier tier, String prompt, int maxTokens,
+                                    Deadline deadline, HttpTiming timing) throws IOException {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        boolean success = false;
+        
+        try {
+            String response = callClaudeApi(apiKey, tier.model, prompt, maxTokens, deadline, timing);
+            long parseSpan = Tracer.begin();
+            ClaudeResponse result = parseClaudeResponse(response);
+            Tracer.end("claude.parse", parseSpan);
+            success = result.success;
+            return result;
+        } finally {
+            Tracer.end(tier.spanName, span);
+            tier.latency.recordSince(start);
+            if (!success) {
+                tier.failures.increment();
+            }
+        }
+    }
+    
+    /**
+     * Call Claude API, adding each HTTP round trip to the timing if one is given
+     */
+    private String callClaudeApi(String apiKey, String model, String prompt, int maxTokens,
+                                 Deadline deadline, HttpTiming timing) throws IOException {
         // Build request body
         JsonObject message = new JsonObject();
         message.addProperty("role", "user");
         message.addProperty("content", prompt);
         
         JsonObject requestJson = new JsonObject();
-        requestJson.addProperty("model", MODEL);
-        requestJson.addProperty("max_tokens", MAX_TOKENS);
+        requestJson.addProperty("model", model);
+        requestJson.addProperty("max_tokens", maxTokens);
         requestJson.add("messages", gson.toJsonTree(new JsonObject[]{gson.fromJson(message, JsonObject.class)}));
         
         String jsonBody = gson.toJson(requestJson);
@@ -111,53 +424,158 @@ public class ClaudeApiService {
         
         // Build request
         Request request = new Request.Builder()
-            .url(CLAUDE_API_URL)
+            .url(apiUrl)
             .addHeader("x-api-key", apiKey)
             .addHeader("anthropic-version", CLAUDE_VERSION)
             .addHeader("content-type", "application/json")
             .post(body)
             .build();
         
-        // Execute request
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                throw new IOException("API call failed: " + response.code() + " - " + errorBody);
+        int attempt = 0;
+        while (true) {
+            long waitStart = System.nanoTime();
+            long waitSpan = Tracer.begin();
+            try {
+                if (!rateLimiter.acquire(deadline)) {
+                    throw new LocalRejectionException("Rate limit wait exceeded latency budget");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LocalRejectionException("Interrupted while waiting for rate limit");
+            } finally {
+                Tracer.end("claude.rateLimitWait", waitSpan);
+                RATE_LIMIT_WAIT.recordSince(waitStart);
             }
             
-            return response.body() != null ? response.body().string() : "";
+            long httpStart = System.nanoTime();
+            long httpSpan = Tracer.begin();
+            long retryDelayMs;
+            try {
+                long remainingMs = deadline.remainingMillis();
+                if (remainingMs <= 0) {
+                    throw new LocalRejectionException("Latency budget exhausted");
+                }
+                
+                // Execute request, bounded end-to-end by the remaining budget
+                Call call = client.newCall(request);
+                call.timeout().timeout(remainingMs, TimeUnit.MILLISECONDS);
+                try (Response response = call.execute()) {
+                    if (timing != null) {
+                        timing.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - httpStart));
+                    }
+                    rateLimiter.updateFromHeaders(response.headers());
+                    
+                    if (response.isSuccessful()) {
+                        rateLimiter.onSuccess();
+                        String responseBody = response.body() != null ? response.body().string() : "";
+                        recordUsage(responseBody, System.nanoTime() - httpStart);
+                        return responseBody;
+                    }
+                    
+                    int code = response.code();
+                    String errorBody = response.body() != null ? response.body().string() : "Unknown error";
+                    if (!isRetryable(code) || attempt >= MAX_RETRIES) {
+                        throw new IOException("API call failed: " + code + " - " + errorBody);
+                    }
+                    
+                    retryDelayMs = getRetryDelay(response.header("retry-after"), attempt);
+                    if (code == 429 || code == 529) {
+                        rateLimiter.onThrottled(retryDelayMs);
+                        THROTTLED.increment();
+                    }
+                    Log.w(TAG, "API returned " + code + ", retrying in " + retryDelayMs + "ms");
+                }
+            } finally {
+                rateLimiter.release();
+                Tracer.end("claude.http", httpSpan);
+                HTTP_LATENCY.recordSince(httpStart);
+            }
+            
+            if (retryDelayMs >= deadline.remainingMillis()) {
+                throw new LocalRejectionException("Retry delay exceeds latency budget");
+            }
+            long backoffSpan = Tracer.begin();
+            try {
+                Thread.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LocalRejectionException("Interrupted during retry backoff");
+            } finally {
+                Tracer.end("claude.retryBackoff", backoffSpan);
+            }
+            attempt++;
+            RETRIES.increment();
         }
     }
     
+    /**
+     * Add the call's tokens to today's total; responses without a usage block are skipped
+     */
+    private void recordUsage(String responseBody, long latencyNanos) {
+        TokenUsage usage;
+        try {
+            usage = parser.parseUsage(responseBody);
+        } catch (RuntimeException e) {
+            return; // Malformed body, reported by the caller's parse
+        }
+        if (usage != null) {
+            usageTracker.record(usage, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+    }
+    
+    /**
+     * Rate limiting (429), overload (529) and transient server errors are retried
+     */
+    private boolean isRetryable(int code) {
+        return code == 429 || code == 529 || code == 500 || code == 502 || code == 503;
+    }
+    
+    /**
+     * Honour retry-after when present, otherwise use full-jitter exponential backoff
+     */
+    private long getRetryDelay(String retryAfter, int attempt) {
+        long jitterMs = (long) (Math.random() * RETRY_BASE_DELAY_MS);
+        
+        if (retryAfter != null) {
+            try {
+                return (long) (Double.parseDouble(retryAfter.trim()) * 1000) + jitterMs;
+            } catch (NumberFormatException e) {
+                // Fall through to exponential backoff
+            }
+        }
+        
+        long cap = Math.min(RETRY_MAX_DELAY_MS, RETRY_BASE_DELAY_MS << attempt);
+        return (long) (Math.random() * cap);
+    }
+    
     /**
      * Parse Claude's response
      */
     private ClaudeResponse parseClaudeResponse(String responseJson) {
         try {
-            JsonObject json = gson.fromJson(responseJson, JsonObject.class);
-            
-            // Extract content from Claude's response
-            String content = json.getAsJsonArray("content")
-                .get(0).getAsJsonObject()
-                .get("text").getAsString();
-            
-            // Parse the JSON content from Claude
-            JsonObject interpretation = gson.fromJson(content, JsonObject.class);
-            
-            String intent = interpretation.get("intent").getAsString();
-            String actionType = interpretation.get("action_type").getAsString();
-            JsonObject parameters = interpretation.getAsJsonObject("parameters");
-            String explanation = interpretation.get("explanation").getAsString();
-            boolean executable = interpretation.get("executable").getAsBoolean();
-            
-            return new ClaudeResponse(true, explanation, actionType, parameters);
-            
+            return parser.parseResponse(responseJson);
         } catch (Exception e) {
             Log.e(TAG, "Failed to parse Claude response", e);
             return new ClaudeResponse(false, "Failed to parse response", null, null);
         }
     }
     
+    /**
+     * Parse a batch response, matching array entries back to their commands by index
+     */
+    private Map<String, ClaudeResponse> parseBatchResponse(String responseJson, List<String> commands) {
+        try {
+            Map<String, ClaudeResponse> results = parser.parseBatchResponse(responseJson, commands);
+            if (results.size() < commands.size()) {
+                Log.w(TAG, "Batch response covered " + results.size() + " of " + commands.size() + " commands");
+            }
+            return results;
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to parse batch response", e);
+            return new HashMap<>();
+        }
+    }
+    
     /**
      * Check if API key is configured
      */
@@ -167,26 +585,17 @@ public class ClaudeApiService {
     }
     
     /**
-     * Response class for Claude API results
+     * How far calls degrade under this service's daily token budget. Reads the
+     * database on first use, so call it off the main thread.
      */
-    public static class ClaudeResponse {
-        public final boolean success;
-        public final String explanation;
-        public final String actionType;
-        public final JsonObject parameters;
-        
-        public ClaudeResponse(boolean success, String explanation, String actionType, JsonObject parameters) {
-            this.success = success;
-            this.explanation = explanation;
-            this.actionType = actionType;
-            this.parameters = parameters;
-        }
-        
-        public String getParameter(String key) {
-            if (parameters != null && parameters.has(key)) {
-                return parameters.get(key).getAsString();
-            }
-            return null;
-        }
+    public TokenBudget.Level getBudgetLevel() {
+        return usageTracker.getLevel();
+    }
+    
+    /**
+     * Check if the circuit breaker currently lets calls through
+     */
+    public boolean isReachable() {
+        return circuitBreaker.isCallPermitted();
     }
 }
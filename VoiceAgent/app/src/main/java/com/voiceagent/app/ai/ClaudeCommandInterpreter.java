@@ -25,8 +25,13 @@ public class ClaudeCommandInterpreter {
     }
     
     public ClaudeCommandInterpreter(Context context) {
-        this.claudeService = new ClaudeApiService(context);
-        this.executor = Executors.newSingleThreadExecutor();
+        this(new ClaudeApiService(context));
+    }
+    
+    public ClaudeCommandInterpreter(ClaudeApiService claudeService) {
+        this.claudeService = claudeService;
+        // Concurrency is capped by the API service's rate limiter, not the pool size
+        this.executor = Executors.newFixedThreadPool(ClaudeApiService.MAX_CONCURRENCY);
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
     
@@ -34,9 +39,22 @@ public class ClaudeCommandInterpreter {
      * Interpret command using Claude AI (async)
      */
     public void interpretCommand(String command, InterpretationCallback callback) {
+        interpretCommand(command, Deadline.after(ClaudeApiService.DEFAULT_BUDGET_MS), callback);
+    }
+    
+    /**
+     * Interpret command using Claude AI (async) within the given latency budget
+     */
+    public void interpretCommand(String command, Deadline deadline, InterpretationCallback callback) {
         executor.execute(() -> {
             try {
-                ClaudeApiService.ClaudeResponse response = claudeService.interpretCommand(command);
+                // Time spent waiting in the queue counts against the budget
+                if (deadline.isExpired()) {
+                    mainHandler.post(() -> callback.onInterpretationFailed("Timed out"));
+                    return;
+                }
+                
+                ClaudeResponse response = claudeService.interpretCommand(command, deadline);
                 
                 if (response.success) {
                     InterpretationResult result = new InterpretationResult(
@@ -59,10 +77,17 @@ public class ClaudeCommandInterpreter {
     }
     
     /**
-     * Check if Claude is available
+     * Check if Claude is available (configured and circuit not open)
      */
     public boolean isAvailable() {
-        return claudeService.isConfigured();
+        return claudeService.isConfigured() && claudeService.isReachable();
+    }
+    
+    /**
+     * Stop accepting commands and let the pool's threads exit once queued ones finish
+     */
+    public void shutdown() {
+        executor.shutdown();
     }
     
     /**
@@ -0,0 +1,168 @@
+package com.voiceagent.app.ai;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import okhttp3.Headers;
+
+/**
+ * Client-side limiter for Claude API calls.
+ * Combines a token bucket seeded from the anthropic-ratelimit-* response headers
+ * with an AIMD-adjusted cap on concurrent requests. The server's limit covers the
+ * whole API key, so one limiter is shared by every client of an endpoint.
+ */
+public class ClaudeRateLimiter {
+    
+    private static final String HEADER_LIMIT = "anthropic-ratelimit-requests-limit";
+    private static final String HEADER_REMAINING = "anthropic-ratelimit-requests-remaining";
+    private static final String HEADER_RESET = "anthropic-ratelimit-requests-reset";
+    
+    // Anthropic request limits are expressed per minute
+    private static final long LIMIT_WINDOW_MS = 60000;
+    
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    
+    // Token bucket
+    private double capacity;
+    private double tokens;
+    private double refillPerMs;
+    private long lastRefillMs;
+    private long pausedUntilMs = 0;
+    
+    // AIMD concurrency
+    private double concurrencyLimit;
+    private int inFlight = 0;
+    
+    public ClaudeRateLimiter(int requestsPerMinute, int minConcurrency, int maxConcurrency) {
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.concurrencyLimit = minConcurrency;
+        this.capacity = requestsPerMinute;
+        this.tokens = requestsPerMinute;
+        this.refillPerMs = (double) requestsPerMinute / LIMIT_WINDOW_MS;
+        this.lastRefillMs = now();
+    }
+    
+    /**
+     * Wait for a token and a concurrency slot.
+     * Returns false if the deadline expires first. Must be paired with release().
+     */
+    public synchronized boolean acquire(Deadline deadline) throws InterruptedException {
+        while (true) {
+            refill();
+            long nowMs = now();
+            // Read once, so a waitMs taken from it can never exceed it
+            long remainingMs = deadline.remainingMillis();
+            
+            long waitMs;
+            if (nowMs < pausedUntilMs) {
+                waitMs = pausedUntilMs - nowMs;
+            } else if (inFlight >= (int) concurrencyLimit) {
+                waitMs = remainingMs;
+            } else if (tokens < 1.0) {
+                waitMs = (long) Math.ceil((1.0 - tokens) / refillPerMs);
+            } else {
+                tokens -= 1.0;
+                inFlight++;
+                return true;
+            }
+            
+            if (remainingMs <= 0 || waitMs > remainingMs) {
+                return false;
+            }
+            wait(Math.max(1, waitMs));
+        }
+    }
+    
+    /**
+     * Give back the concurrency slot taken by acquire()
+     */
+    public synchronized void release() {
+        inFlight = Math.max(0, inFlight - 1);
+        notifyAll();
+    }
+    
+    /**
+     * Additive increase after a successful call
+     */
+    public synchronized void onSuccess() {
+        concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / concurrencyLimit);
+        notifyAll();
+    }
+    
+    /**
+     * Multiplicative decrease after a 429/529, pausing new calls for the given time
+     */
+    public synchronized void onThrottled(long retryAfterMs) {
+        concurrencyLimit = Math.max(minConcurrency, concurrencyLimit / 2.0);
+        pausedUntilMs = Math.max(pausedUntilMs, now() + retryAfterMs);
+    }
+    
+    /**
+     * Re-seed the token bucket from rate-limit response headers
+     */
+    public synchronized void updateFromHeaders(Headers headers) {
+        String limit = headers.get(HEADER_LIMIT);
+        String remaining = headers.get(HEADER_REMAINING);
+        if (limit == null || remaining == null) {
+            return;
+        }
+        
+        try {
+            int limitValue = Integer.parseInt(limit.trim());
+            int remainingValue = Integer.parseInt(remaining.trim());
+            if (limitValue <= 0) {
+                return;
+            }
+            
+            // The server's count is authoritative in both directions
+            refill();
+            capacity = limitValue;
+            refillPerMs = (double) limitValue / LIMIT_WINDOW_MS;
+            tokens = Math.min(capacity, remainingValue);
+            
+            long resetAtMs = parseResetTime(headers.get(HEADER_RESET));
+            if (remainingValue == 0 && resetAtMs > 0) {
+                pausedUntilMs = Math.max(pausedUntilMs, now() + (resetAtMs - System.currentTimeMillis()));
+            }
+        } catch (NumberFormatException e) {
+            // Ignore malformed headers and keep the current estimate
+        }
+    }
+    
+    public synchronized int getConcurrencyLimit() {
+        return (int) concurrencyLimit;
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+    
+    private void refill() {
+        long nowMs = now();
+        tokens = Math.min(capacity, tokens + (nowMs - lastRefillMs) * refillPerMs);
+        lastRefillMs = nowMs;
+    }
+    
+    /**
+     * Parse an RFC 3339 reset timestamp into epoch milliseconds, or 0 if absent
+     */
+    private long parseResetTime(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssX", Locale.US);
+            Date date = format.parse(value);
+            return date != null ? date.getTime() : 0;
+        } catch (ParseException e) {
+            return 0;
+        }
+    }
+    
+    private long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
@@ -0,0 +1,205 @@
+package com.voiceagent.app.ai;
+
+import android.util.Log;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Locale;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Times the phases of each OkHttp call: DNS, connect, TLS, request write,
+ * time to first byte and body read. Durations go into the metrics registry and
+ * onto the trace timeline, and every call is logged with its connection reuse
+ * and sizes, so a failure says which phase it failed in.
+ *
+ * One instance per call, created by {@link #FACTORY}.
+ */
+public class NetworkTimingListener extends EventListener {
+    
+    private static final String TAG = "NetworkTiming";
+    
+    public static final EventListener.Factory FACTORY = call -> new NetworkTimingListener();
+    
+    private static final LatencyHistogram CALL = Metrics.histogram("net.call");
+    private static final LatencyHistogram DNS = Metrics.histogram("net.dns");
+    private static final LatencyHistogram CONNECT = Metrics.histogram("net.connect");
+    private static final LatencyHistogram TLS = Metrics.histogram("net.tls");
+    private static final LatencyHistogram REQUEST_WRITE = Metrics.histogram("net.requestWrite");
+    private static final LatencyHistogram FIRST_BYTE = Metrics.histogram("net.timeToFirstByte");
+    private static final LatencyHistogram BODY_READ = Metrics.histogram("net.bodyRead");
+    private static final Counter CONNECTIONS_NEW = Metrics.counter("net.connection.new");
+    private static final Counter CONNECTIONS_REUSED = Metrics.counter("net.connection.reused");
+    private static final Counter BYTES_SENT = Metrics.counter("net.bytesSent");
+    private static final Counter BYTES_RECEIVED = Metrics.counter("net.bytesReceived");
+    private static final Counter FAILURES = Metrics.counter("net.failures");
+    
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long tlsStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseBodyStart;
+    
+    // Per call, logged at the end
+    private String phase = "queue";
+    private boolean connected = false; // a new connection was opened since the last request
+    private Boolean reused; // null until a request is written
+    private long dnsNanos = -1;
+    private long connectNanos = -1;
+    private long tlsNanos = -1;
+    private long firstByteNanos = -1;
+    private long bytesSent = 0;
+    private long bytesReceived = 0;
+    private Protocol protocol;
+    
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        phase = "dns";
+        dnsStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+        dnsNanos = record("net.dns", DNS, dnsStart);
+    }
+    
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+        phase = "connect";
+        connectStart = System.nanoTime();
+        connected = true;
+    }
+    
+    @Override
+    public void secureConnectStart(Call call) {
+        phase = "tls";
+        tlsStart = System.nanoTime();
+    }
+    
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsNanos = record("net.tls", TLS, tlsStart);
+    }
+    
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+        connectNanos = record("net.connect", CONNECT, connectStart);
+        this.protocol = protocol;
+    }
+    
+    @Override
+    public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol,
+                              IOException e) {
+        record("net.connect", CONNECT, connectStart);
+    }
+    
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        protocol = connection.protocol();
+    }
+    
+    @Override
+    public void requestHeadersStart(Call call) {
+        phase = "request";
+        requestStart = System.nanoTime();
+        // A pooled connection can be acquired and then dropped as stale, so
+        // decide reuse only once a request actually goes out on it
+        reused = !connected;
+        (reused ? CONNECTIONS_REUSED : CONNECTIONS_NEW).increment();
+        connected = false;
+    }
+    
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+    
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+        bytesSent += byteCount;
+        BYTES_SENT.add(byteCount);
+    }
+    
+    @Override
+    public void responseHeadersStart(Call call) {
+        phase = "response";
+        long now = System.nanoTime();
+        REQUEST_WRITE.recordNanos(requestEnd - requestStart);
+        Tracer.record("net.requestWrite", requestStart, requestEnd - requestStart);
+        // Server time plus one round trip
+        firstByteNanos = now - requestEnd;
+        FIRST_BYTE.recordNanos(firstByteNanos);
+        Tracer.record("net.timeToFirstByte", requestEnd, firstByteNanos);
+    }
+    
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        phase = "body";
+    }
+    
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+    
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        record("net.bodyRead", BODY_READ, responseBodyStart);
+        bytesReceived += byteCount;
+        BYTES_RECEIVED.add(byteCount);
+    }
+    
+    @Override
+    public void callEnd(Call call) {
+        long total = record("net.call", CALL, callStart);
+        Log.d(TAG, summary(call, total));
+    }
+    
+    @Override
+    public void callFailed(Call call, IOException e) {
+        long total = record("net.call", CALL, callStart);
+        FAILURES.increment();
+        Metrics.counter("net.failures." + phase).increment();
+        Log.w(TAG, "Failed during " + phase + ": " + summary(call, total), e);
+    }
+    
+    private static long record(String name, LatencyHistogram histogram, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        histogram.recordNanos(duration);
+        Tracer.record(name, startNanos, duration);
+        return duration;
+    }
+    
+    private String summary(Call call, long totalNanos) {
+        return String.format(Locale.US,
+            "%s %s %.0f ms: dns %s, connect %s (tls %s), first byte %s, %s, %s, %d B out, %d B in",
+            call.request().method(), call.request().url().encodedPath(), totalNanos / 1e6,
+            millis(dnsNanos), millis(connectNanos), millis(tlsNanos), millis(firstByteNanos),
+            reused == null ? "no connection" : reused ? "reused connection" : "new connection",
+            protocol != null ? protocol.toString() : "-", bytesSent, bytesReceived);
+    }
+    
+    private static String millis(long nanos) {
+        return nanos < 0 ? "-" : String.format(Locale.US, "%.0f ms", nanos / 1e6);
+    }
+}
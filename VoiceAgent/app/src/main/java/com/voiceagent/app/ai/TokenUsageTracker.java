@@ -0,0 +1,147 @@
+package com.voiceagent.app.ai;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.voiceagent.app.data.TokenUsageDao;
+import com.voiceagent.app.data.TokenUsageEntity;
+import com.voiceagent.app.data.TrainingDatabase;
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts the tokens Claude calls consume, keeps per-day totals in the database
+ * and maps today's total onto a {@link TokenBudget.Level}.
+ * The shared instance is used by every ClaudeApiService in the process.
+ */
+public class TokenUsageTracker {
+    
+    private static final String PREFS_NAME = "token_usage";
+    private static final String KEY_DAILY_BUDGET = "daily_budget";
+    
+    private static final Counter INPUT_TOKENS = Metrics.counter("claude.tokens.input");
+    private static final Counter OUTPUT_TOKENS = Metrics.counter("claude.tokens.output");
+    private static final LatencyHistogram LATENCY_PER_TOKEN = Metrics.histogram("claude.latencyPerOutputToken");
+    
+    private static TokenUsageTracker instance;
+    
+    private final TokenUsageDao dao;
+    private final SharedPreferences preferences;
+    
+    // Today's totals; loaded from the database on first use off the main thread
+    private String today;
+    private boolean loaded = false;
+    private long inputToday = 0;
+    private long outputToday = 0;
+    
+    private TokenUsageTracker(Context context) {
+        this(TrainingDatabase.getInstance(context).tokenUsageDao(),
+            context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+        
+        Metrics.gauge("claude.tokens.today").setSource(this::getUsedTodayIfLoaded);
+        new Thread(this::getUsedToday).start();
+    }
+    
+    /**
+     * Tracker over its own storage, e.g. an in-memory database in tests, so
+     * test traffic stays out of the user's totals. Publishes no gauge.
+     */
+    public TokenUsageTracker(TokenUsageDao dao, SharedPreferences preferences) {
+        this.dao = dao;
+        this.preferences = preferences;
+        this.today = dayOf(System.currentTimeMillis());
+    }
+    
+    public static synchronized TokenUsageTracker getInstance(Context context) {
+        if (instance == null) {
+            instance = new TokenUsageTracker(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    /**
+     * Tokens per day before degrading, 0 for no limit
+     */
+    public long getDailyBudget() {
+        return preferences.getLong(KEY_DAILY_BUDGET, 0);
+    }
+    
+    public void setDailyBudget(long tokens) {
+        preferences.edit().putLong(KEY_DAILY_BUDGET, Math.max(0, tokens)).apply();
+    }
+    
+    /**
+     * How far calls should degrade right now. Reads the database on first use,
+     * so call it off the main thread.
+     */
+    public TokenBudget.Level getLevel() {
+        return TokenBudget.levelFor(getUsedToday(), getDailyBudget());
+    }
+    
+    /**
+     * Record one successful call. Runs on the calling (network) thread.
+     */
+    public void record(TokenUsage usage, long latencyMs) {
+        synchronized (this) {
+            ensureToday();
+            inputToday += usage.inputTokens;
+            outputToday += usage.outputTokens;
+        }
+        
+        INPUT_TOKENS.add(usage.inputTokens);
+        OUTPUT_TOKENS.add(usage.outputTokens);
+        if (usage.outputTokens > 0) {
+            LATENCY_PER_TOKEN.recordMicros(latencyMs * 1000 / usage.outputTokens);
+        }
+        
+        TokenUsageEntity row = new TokenUsageEntity();
+        row.day = dayOf(System.currentTimeMillis());
+        dao.insertIfAbsent(row);
+        dao.addCall(row.day, usage.inputTokens, usage.outputTokens, latencyMs);
+    }
+    
+    public synchronized long getUsedToday() {
+        ensureToday();
+        return inputToday + outputToday;
+    }
+    
+    /**
+     * Today's total without touching the database, for the main thread
+     */
+    public synchronized long getUsedTodayIfLoaded() {
+        return loaded && today.equals(dayOf(System.currentTimeMillis())) ? inputToday + outputToday : 0;
+    }
+    
+    /**
+     * Most recent daily totals, newest first
+     */
+    public List<TokenUsageEntity> getRecentDays(int days) {
+        return dao.getRecentDays(days);
+    }
+    
+    private void ensureToday() {
+        String now = dayOf(System.currentTimeMillis());
+        if (!now.equals(today)) {
+            // New day: nothing recorded yet
+            today = now;
+            inputToday = 0;
+            outputToday = 0;
+            loaded = true;
+        } else if (!loaded) {
+            TokenUsageEntity row = dao.getDay(today);
+            if (row != null) {
+                inputToday = row.inputTokens;
+                outputToday = row.outputTokens;
+            }
+            loaded = true;
+        }
+    }
+    
+    private static String dayOf(long timeMillis) {
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date(timeMillis));
+    }
+}
@@ -0,0 +1,74 @@
+package com.voiceagent.app.audio;
+
+import android.annotation.SuppressLint;
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaRecorder;
+import java.nio.ByteBuffer;
+
+/**
+ * Microphone source backed by AudioRecord (16-bit mono PCM)
+ */
+public class AudioRecordSource implements AudioFrameSource {
+    
+    private final int sampleRate;
+    private final AudioRecord audioRecord;
+    
+    @SuppressLint("MissingPermission") // RECORD_AUDIO is requested by MainActivity
+    public AudioRecordSource(int sampleRate) {
+        this.sampleRate = sampleRate;
+        
+        int minBufferSize = AudioRecord.getMinBufferSize(sampleRate,
+            AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT);
+        
+        // At least 200 ms of buffering so a slow consumer doesn't drop samples
+        int bufferSize = Math.max(minBufferSize, sampleRate / 5 * 2);
+        
+        this.audioRecord = new AudioRecord(
+            MediaRecorder.AudioSource.VOICE_RECOGNITION,
+            sampleRate,
+            AudioFormat.CHANNEL_IN_MONO,
+            AudioFormat.ENCODING_PCM_16BIT,
+            bufferSize
+        );
+    }
+    
+    /**
+     * Start recording. Returns false if the microphone could not be opened.
+     */
+    public boolean start() {
+        if (audioRecord.getState() != AudioRecord.STATE_INITIALIZED) {
+            return false;
+        }
+        audioRecord.startRecording();
+        return audioRecord.getRecordingState() == AudioRecord.RECORDSTATE_RECORDING;
+    }
+    
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+    
+    @Override
+    public int read(short[] buffer, int offset, int length) {
+        int read = audioRecord.read(buffer, offset, length);
+        return read < 0 ? -1 : read;
+    }
+    
+    /**
+     * Read into a direct buffer without copying through a Java array.
+     * Returns the number of bytes read, or -1 on error.
+     */
+    public int read(ByteBuffer buffer, int sizeInBytes) {
+        int read = audioRecord.read(buffer, sizeInBytes);
+        return read < 0 ? -1 : read;
+    }
+    
+    @Override
+    public void close() {
+        if (audioRecord.getRecordingState() == AudioRecord.RECORDSTATE_RECORDING) {
+            audioRecord.stop();
+        }
+        audioRecord.release();
+    }
+}
@@ -0,0 +1,88 @@
+package com.voiceagent.app.audio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import org.tensorflow.lite.Interpreter;
+
+/**
+ * Keyword model running a small TensorFlow Lite network.
+ * Input is one window of samples [1, N] or of log-mel frames [1, T, F(, 1)],
+ * output is class scores [1, C].
+ */
+public class TfLiteKeywordModel implements KeywordModel {
+    
+    private final Interpreter interpreter;
+    private final int keywordIndex;
+    private final int windowSize;
+    private final int featureCount;
+    
+    // Reused for every inference
+    private final ByteBuffer input;
+    private final FloatBuffer inputFloats;
+    private final float[][] output;
+    
+    public TfLiteKeywordModel(ByteBuffer modelBuffer, int keywordIndex) {
+        Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(1);
+        
+        this.interpreter = new Interpreter(modelBuffer, options);
+        this.keywordIndex = keywordIndex;
+        
+        int[] inputShape = interpreter.getInputTensor(0).shape();
+        int[] outputShape = interpreter.getOutputTensor(0).shape();
+        int size = 1;
+        for (int i = 1; i < inputShape.length; i++) {
+            size *= inputShape[i];
+        }
+        this.windowSize = size;
+        this.featureCount = inputShape.length >= 3 ? inputShape[2] : 0;
+        this.input = ByteBuffer.allocateDirect(windowSize * 4).order(ByteOrder.nativeOrder());
+        this.inputFloats = input.asFloatBuffer();
+        this.output = new float[1][outputShape[outputShape.length - 1]];
+    }
+    
+    /**
+     * Memory-map a model stored uncompressed in assets (see noCompress "tflite")
+     */
+    public static MappedByteBuffer loadModel(Context context, String assetName) throws IOException {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(assetName);
+             FileInputStream stream = new FileInputStream(descriptor.getFileDescriptor())) {
+            FileChannel channel = stream.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY,
+                descriptor.getStartOffset(), descriptor.getDeclaredLength());
+        }
+    }
+    
+    @Override
+    public int getWindowSize() {
+        return windowSize;
+    }
+    
+    /**
+     * Values per feature frame, or 0 if the model takes raw samples
+     */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+    
+    @Override
+    public float score(float[] window) {
+        inputFloats.clear();
+        inputFloats.put(window, 0, windowSize);
+        input.rewind();
+        interpreter.run(input, output);
+        return output[0][keywordIndex];
+    }
+    
+    @Override
+    public void close() {
+        interpreter.close();
+    }
+}
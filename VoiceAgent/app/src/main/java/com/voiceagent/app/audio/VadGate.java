@@ -0,0 +1,317 @@
+package com.voiceagent.app.audio;
+
+import android.util.Log;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps the microphone open with a cheap voice activity detector and only
+ * reports when speech is likely, so the full recognizer doesn't run in silence.
+ * A capture thread records into a lock-free ring buffer; the gate thread runs
+ * the VAD and keeps one second of pre-roll. Once speech starts the audio can be
+ * streamed (pre-roll first) to the recognizer so the first syllable isn't lost.
+ * After a stream ends the gate holds, without reporting speech, until
+ * resumeGating(), so it can't start a new session while the last one finishes.
+ */
+public class VadGate {
+    
+    private static final String TAG = "VadGate";
+    
+    public static final int FRAME_SIZE = 320; // 20 ms at 16 kHz
+    private static final int RING_SLOTS = 64; // 1.28 s of slack for the gate thread
+    private static final int PRE_ROLL_MS = 1000;
+    private static final float MARGIN_DB = 10f;
+    private static final int ONSET_FRAMES = 3;
+    private static final int HANGOVER_FRAMES = 25;
+    
+    public interface Listener {
+        /**
+         * Called on the gate thread when speech starts
+         */
+        void onSpeechStart();
+    }
+    
+    private final int sampleRate;
+    private final PcmRingBuffer ring = new PcmRingBuffer(RING_SLOTS, FRAME_SIZE);
+    private final VoiceActivityDetector vad =
+        new VoiceActivityDetector(MARGIN_DB, ONSET_FRAMES, HANGOVER_FRAMES);
+    private final ByteBuffer dropBuffer =
+        ByteBuffer.allocateDirect(FRAME_SIZE * 2).order(ByteOrder.nativeOrder());
+    
+    // Pre-roll and streaming state, owned by the gate thread
+    private final short[] preRoll;
+    private int preRollPosition = 0;
+    private int preRollFilled = 0;
+    private final byte[] writeBuffer = new byte[FRAME_SIZE * 2];
+    private OutputStream activeSink;
+    
+    private volatile OutputStream pendingSink;
+    private volatile boolean endStreamRequested = false;
+    private volatile boolean resumeRequested = false;
+    private boolean holding = false; // gate thread only
+    private volatile boolean running = false;
+    private volatile long framesAnalysed = 0;
+    private volatile long speechFrames = 0;
+    private volatile long speechOnsets = 0;
+    
+    private AudioRecordSource source;
+    private Thread captureThread;
+    private Thread gateThread;
+    
+    public VadGate(int sampleRate) {
+        this.sampleRate = sampleRate;
+        this.preRoll = new short[sampleRate * PRE_ROLL_MS / 1000];
+    }
+    
+    /**
+     * Open the microphone and start gating. Returns false if recording failed.
+     */
+    public synchronized boolean start(Listener listener) {
+        if (running) {
+            return true;
+        }
+        
+        source = new AudioRecordSource(sampleRate);
+        if (!source.start()) {
+            source.close();
+            source = null;
+            return false;
+        }
+        
+        running = true;
+        vad.reset();
+        preRollFilled = 0;
+        endStreamRequested = false;
+        resumeRequested = false;
+        holding = false;
+        
+        gateThread = new Thread(() -> runGate(listener), "VadGate");
+        captureThread = new Thread(this::runCapture, "VadCapture");
+        gateThread.start();
+        captureThread.start();
+        return true;
+    }
+    
+    /**
+     * Stop recording and release the microphone
+     */
+    public synchronized void stop() {
+        running = false;
+        joinQuietly(captureThread);
+        joinQuietly(gateThread);
+        captureThread = null;
+        gateThread = null;
+        if (source != null) {
+            source.close();
+            source = null;
+        }
+    }
+    
+    /**
+     * Stream the pre-roll and then live audio (16-bit little-endian PCM) to the sink
+     * until endStream() or stop(). The sink is closed afterwards.
+     */
+    public void streamTo(OutputStream sink) {
+        endStreamRequested = false;
+        pendingSink = sink;
+    }
+    
+    /**
+     * Close the current stream. Speech detection stays paused until resumeGating().
+     */
+    public void endStream() {
+        endStreamRequested = true;
+    }
+    
+    /**
+     * Close any stream and go back to detecting speech
+     */
+    public void resumeGating() {
+        resumeRequested = true;
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public long getFramesAnalysed() {
+        return framesAnalysed;
+    }
+    
+    /**
+     * Fraction of analysed frames classified as speech
+     */
+    public float getSpeechRatio() {
+        long frames = framesAnalysed;
+        return frames == 0 ? 0f : (float) speechFrames / frames;
+    }
+    
+    public long getSpeechOnsets() {
+        return speechOnsets;
+    }
+    
+    public long getOverruns() {
+        return ring.getOverruns();
+    }
+    
+    public float getNoiseFloorDb() {
+        return vad.getNoiseFloorDb();
+    }
+    
+    private void runCapture() {
+        Thread consumer = gateThread;
+        while (running) {
+            ByteBuffer slot = ring.claim();
+            int read = source.read(slot != null ? slot : dropBuffer, FRAME_SIZE * 2);
+            if (read < 0) {
+                Log.e(TAG, "Microphone read failed");
+                running = false;
+                break;
+            }
+            if (slot != null) {
+                ring.publish(read / 2);
+                LockSupport.unpark(consumer);
+            }
+        }
+        LockSupport.unpark(consumer);
+    }
+    
+    private void runGate(Listener listener) {
+        while (running) {
+            ShortBuffer frame = ring.poll();
+            if (frame == null) {
+                LockSupport.parkNanos(20_000_000L);
+                continue;
+            }
+            
+            if (resumeRequested) {
+                resumeRequested = false;
+                closeSink();
+                vad.reset();
+                holding = false;
+            }
+            
+            OutputStream next = pendingSink;
+            if (next != null) {
+                pendingSink = null;
+                closeSink();
+                activeSink = next;
+                writePreRoll();
+            }
+            
+            if (activeSink != null) {
+                write(frame);
+                if (endStreamRequested) {
+                    closeSink();
+                }
+            } else if (holding) {
+                keepPreRoll(frame);
+            } else {
+                analyse(frame, listener);
+            }
+            ring.release();
+        }
+        
+        // Never leave the recognizer waiting on an open pipe
+        OutputStream next = pendingSink;
+        pendingSink = null;
+        closeSink();
+        if (next != null) {
+            activeSink = next;
+            closeSink();
+        }
+    }
+    
+    private void analyse(ShortBuffer frame, Listener listener) {
+        boolean wasSpeech = vad.isSpeech();
+        boolean isSpeech = vad.process(frame);
+        
+        framesAnalysed++;
+        if (isSpeech) {
+            speechFrames++;
+        }
+        
+        keepPreRoll(frame);
+        
+        if (isSpeech && !wasSpeech) {
+            speechOnsets++;
+            listener.onSpeechStart();
+        }
+    }
+    
+    /**
+     * Keep the last second for the recognizer
+     */
+    private void keepPreRoll(ShortBuffer frame) {
+        int length = frame.limit();
+        for (int i = 0; i < length; i++) {
+            preRoll[preRollPosition] = frame.get(i);
+            preRollPosition = (preRollPosition + 1) % preRoll.length;
+        }
+        preRollFilled = Math.min(preRoll.length, preRollFilled + length);
+    }
+    
+    private void writePreRoll() {
+        int start = (preRollPosition - preRollFilled + preRoll.length) % preRoll.length;
+        int written = 0;
+        while (written < preRollFilled && activeSink != null) {
+            int count = Math.min(FRAME_SIZE, preRollFilled - written);
+            for (int i = 0; i < count; i++) {
+                short sample = preRoll[(start + written + i) % preRoll.length];
+                writeBuffer[2 * i] = (byte) sample;
+                writeBuffer[2 * i + 1] = (byte) (sample >> 8);
+            }
+            writeBytes(count * 2);
+            written += count;
+        }
+        preRollFilled = 0;
+    }
+    
+    private void write(ShortBuffer frame) {
+        int length = frame.limit();
+        for (int i = 0; i < length; i++) {
+            short sample = frame.get(i);
+            writeBuffer[2 * i] = (byte) sample;
+            writeBuffer[2 * i + 1] = (byte) (sample >> 8);
+        }
+        writeBytes(length * 2);
+    }
+    
+    private void writeBytes(int count) {
+        try {
+            activeSink.write(writeBuffer, 0, count);
+        } catch (IOException e) {
+            // Recognizer closed its end of the pipe
+            Log.d(TAG, "Audio stream closed by reader");
+            closeSink();
+        }
+    }
+    
+    private void closeSink() {
+        if (activeSink != null) {
+            try {
+                activeSink.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+            activeSink = null;
+            holding = true;
+        }
+        endStreamRequested = false;
+    }
+    
+    private static void joinQuietly(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.voiceagent.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface InterpretationDao {
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(InterpretationEntity interpretation);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<InterpretationEntity> interpretations);
+    
+    @Query("SELECT * FROM interpretations WHERE command = :command LIMIT 1")
+    InterpretationEntity getInterpretation(String command);
+    
+    @Query("SELECT * FROM interpretations")
+    List<InterpretationEntity> getAllInterpretations();
+    
+    @Query("SELECT COUNT(*) FROM interpretations")
+    int getInterpretationCount();
+}
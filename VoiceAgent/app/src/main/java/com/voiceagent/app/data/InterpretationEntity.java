@@ -0,0 +1,22 @@
+package com.voiceagent.app.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Claude interpretation of a previously unknown command, stored so the
+ * next occurrence can be resolved locally
+ */
+@Entity(tableName = "interpretations")
+public class InterpretationEntity {
+    
+    @PrimaryKey
+    @NonNull
+    public String command = ""; // normalized (lower-case, trimmed) command text
+    
+    public String actionType;
+    public String parameters; // JSON object
+    public String explanation;
+    public long timestamp;
+}
@@ -0,0 +1,26 @@
+package com.voiceagent.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface RuleDao {
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(RuleEntity rule);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<RuleEntity> rules);
+    
+    @Query("SELECT * FROM rules")
+    List<RuleEntity> getAllRules();
+    
+    @Query("UPDATE rules SET hitCount = hitCount + 1 WHERE pattern = :pattern")
+    void incrementHitCount(String pattern);
+    
+    @Query("SELECT COUNT(*) FROM rules")
+    int getRuleCount();
+}
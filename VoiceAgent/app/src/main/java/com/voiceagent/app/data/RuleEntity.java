@@ -0,0 +1,23 @@
+package com.voiceagent.app.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Local command rule: a template with slots mapped to an action,
+ * e.g. "ring {contact}" -> call
+ */
+@Entity(tableName = "rules")
+public class RuleEntity {
+    
+    @PrimaryKey
+    @NonNull
+    public String pattern = "";
+    
+    public String actionType;
+    public String parameters; // JSON object of constant parameters
+    public String explanation;
+    public int hitCount;
+    public long timestamp;
+}
@@ -0,0 +1,24 @@
+package com.voiceagent.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface TokenUsageDao {
+    
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertIfAbsent(TokenUsageEntity usage);
+    
+    @Query("UPDATE token_usage SET calls = calls + 1, inputTokens = inputTokens + :inputTokens, " +
+           "outputTokens = outputTokens + :outputTokens, latencyMs = latencyMs + :latencyMs WHERE day = :day")
+    void addCall(String day, long inputTokens, long outputTokens, long latencyMs);
+    
+    @Query("SELECT * FROM token_usage WHERE day = :day LIMIT 1")
+    TokenUsageEntity getDay(String day);
+    
+    @Query("SELECT * FROM token_usage ORDER BY day DESC LIMIT :days")
+    List<TokenUsageEntity> getRecentDays(int days);
+}
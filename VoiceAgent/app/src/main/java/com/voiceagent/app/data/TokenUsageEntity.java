@@ -0,0 +1,21 @@
+package com.voiceagent.app.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Claude token usage for one local day
+ */
+@Entity(tableName = "token_usage")
+public class TokenUsageEntity {
+    
+    @PrimaryKey
+    @NonNull
+    public String day = ""; // yyyy-MM-dd
+    
+    public int calls;
+    public long inputTokens;
+    public long outputTokens;
+    public long latencyMs; // summed over calls
+}
@@ -0,0 +1,143 @@
+package com.voiceagent.app.data;
+
+import com.voiceagent.app.diagnostics.Counter;
+import com.voiceagent.app.diagnostics.LatencyHistogram;
+import com.voiceagent.app.diagnostics.Metrics;
+import com.voiceagent.app.diagnostics.Tracer;
+import java.util.List;
+
+/**
+ * TrainingDataDao that records a trace span around every query and
+ * feeds the read and write latency histograms
+ */
+public class TracingTrainingDataDao implements TrainingDataDao {
+    
+    private static final LatencyHistogram READS = Metrics.histogram("dao.read");
+    private static final LatencyHistogram WRITES = Metrics.histogram("dao.write");
+    private static final Counter ROWS_WRITTEN = Metrics.counter("dao.rowsWritten");
+    
+    private final TrainingDataDao dao;
+    
+    public TracingTrainingDataDao(TrainingDataDao dao) {
+        this.dao = dao;
+    }
+    
+    @Override
+    public void insert(CommandEntity command) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        dao.insert(command);
+        Tracer.end("dao.insert", span);
+        WRITES.recordSince(start);
+        ROWS_WRITTEN.increment();
+    }
+    
+    @Override
+    public void insertAll(List<CommandEntity> commands) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        dao.insertAll(commands);
+        Tracer.end("dao.insertAll", span);
+        WRITES.recordSince(start);
+        ROWS_WRITTEN.add(commands.size());
+    }
+    
+    @Override
+    public void update(CommandEntity command) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        dao.update(command);
+        Tracer.end("dao.update", span);
+        WRITES.recordSince(start);
+        ROWS_WRITTEN.increment();
+    }
+    
+    @Override
+    public List<CommandEntity> getRecentCommands(int limit) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        List<CommandEntity> result = dao.getRecentCommands(limit);
+        Tracer.end("dao.getRecentCommands", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public List<CommandEntity> getRecentSuccessfulCommands(int limit) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        List<CommandEntity> result = dao.getRecentSuccessfulCommands(limit);
+        Tracer.end("dao.getRecentSuccessfulCommands", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public List<CommandEntity> getUnknownCommands(int limit) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        List<CommandEntity> result = dao.getUnknownCommands(limit);
+        Tracer.end("dao.getUnknownCommands", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public CommandEntity getCommandByText(String commandText) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        CommandEntity result = dao.getCommandByText(commandText);
+        Tracer.end("dao.getCommandByText", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public int getTotalCommandCount() {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        int result = dao.getTotalCommandCount();
+        Tracer.end("dao.getTotalCommandCount", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public int getSuccessfulCommandCount() {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        int result = dao.getSuccessfulCommandCount();
+        Tracer.end("dao.getSuccessfulCommandCount", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public List<CommandEntity> getCommandsByType(String type) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        List<CommandEntity> result = dao.getCommandsByType(type);
+        Tracer.end("dao.getCommandsByType", span);
+        READS.recordSince(start);
+        return result;
+    }
+    
+    @Override
+    public void deleteOldCommands(long timestamp) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        dao.deleteOldCommands(timestamp);
+        Tracer.end("dao.deleteOldCommands", span);
+        WRITES.recordSince(start);
+    }
+    
+    @Override
+    public List<CommandEntity> getCommandsByContext(String context, int limit) {
+        long start = System.nanoTime();
+        long span = Tracer.begin();
+        List<CommandEntity> result = dao.getCommandsByContext(context, limit);
+        Tracer.end("dao.getCommandsByContext", span);
+        READS.recordSince(start);
+        return result;
+    }
+}
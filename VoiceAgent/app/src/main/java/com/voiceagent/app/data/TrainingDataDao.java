@@ -12,6 +12,9 @@ public interface TrainingDataDao {
     @Insert
     void insert(CommandEntity command);
     
+    @Insert
+    void insertAll(List<CommandEntity> commands);
+    
     @Update
     void update(CommandEntity command);
     
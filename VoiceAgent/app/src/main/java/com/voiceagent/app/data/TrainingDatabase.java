@@ -4,14 +4,67 @@ import android.content.Context;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
-@Database(entities = {CommandEntity.class}, version = 1, exportSchema = false)
+@Database(entities = {CommandEntity.class, InterpretationEntity.class, RuleEntity.class,
+                      TokenUsageEntity.class, WakeWordHourEntity.class},
+          version = 5, exportSchema = false)
 public abstract class TrainingDatabase extends RoomDatabase {
     
     private static TrainingDatabase instance;
     
     public abstract TrainingDataDao trainingDataDao();
     
+    public abstract InterpretationDao interpretationDao();
+    
+    public abstract RuleDao ruleDao();
+    
+    public abstract TokenUsageDao tokenUsageDao();
+    
+    public abstract WakeWordHourDao wakeWordHourDao();
+    
+    // Keep command history when adding the interpretation cache
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `interpretations` (" +
+                "`command` TEXT NOT NULL, `actionType` TEXT, `parameters` TEXT, " +
+                "`explanation` TEXT, `timestamp` INTEGER NOT NULL, PRIMARY KEY(`command`))");
+        }
+    };
+    
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `rules` (" +
+                "`pattern` TEXT NOT NULL, `actionType` TEXT, `parameters` TEXT, `explanation` TEXT, " +
+                "`hitCount` INTEGER NOT NULL, `timestamp` INTEGER NOT NULL, PRIMARY KEY(`pattern`))");
+        }
+    };
+    
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `token_usage` (" +
+                "`day` TEXT NOT NULL, `calls` INTEGER NOT NULL, `inputTokens` INTEGER NOT NULL, " +
+                "`outputTokens` INTEGER NOT NULL, `latencyMs` INTEGER NOT NULL, PRIMARY KEY(`day`))");
+        }
+    };
+    
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `wake_word_hours` (" +
+                "`hourStart` INTEGER NOT NULL, `strategy` TEXT NOT NULL, `sessions` INTEGER NOT NULL, " +
+                "`sessionMs` INTEGER NOT NULL, `errors` TEXT, `detections` INTEGER NOT NULL, " +
+                "`timedDetections` INTEGER NOT NULL, `detectionLatencyMs` INTEGER NOT NULL, " +
+                "`maxDetectionLatencyMs` INTEGER NOT NULL, `cpuMs` INTEGER NOT NULL, " +
+                "`falseWakes` INTEGER NOT NULL, `wakesWithoutCommand` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`hourStart`, `strategy`))");
+        }
+    };
+    
     public static synchronized TrainingDatabase getInstance(Context context) {
         if (instance == null) {
             instance = Room.databaseBuilder(
@@ -19,6 +72,7 @@ public abstract class TrainingDatabase extends RoomDatabase {
                 TrainingDatabase.class,
                 "voice_agent_training_db"
             )
+            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5)
             .fallbackToDestructiveMigration()
             .build();
         }
@@ -0,0 +1,40 @@
+package com.voiceagent.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import com.voiceagent.app.diagnostics.WakeWordTelemetry;
+import java.util.List;
+
+@Dao
+public abstract class WakeWordHourDao {
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insert(WakeWordHourEntity hour);
+    
+    @Query("SELECT * FROM wake_word_hours WHERE hourStart = :hourStart AND strategy = :strategy LIMIT 1")
+    public abstract WakeWordHourEntity getHour(long hourStart, String strategy);
+    
+    @Query("SELECT * FROM wake_word_hours WHERE hourStart >= :fromMs ORDER BY hourStart DESC, strategy")
+    public abstract List<WakeWordHourEntity> getHoursSince(long fromMs);
+    
+    @Query("DELETE FROM wake_word_hours WHERE hourStart < :beforeMs")
+    public abstract void deleteOlderThan(long beforeMs);
+    
+    /**
+     * Add drained telemetry to the stored hours
+     */
+    @Transaction
+    public void addAll(List<WakeWordTelemetry.Hour> deltas) {
+        for (WakeWordTelemetry.Hour delta : deltas) {
+            WakeWordHourEntity stored = getHour(delta.hourStart, delta.strategy);
+            WakeWordTelemetry.Hour total = stored != null ? stored.toHour() : delta;
+            if (stored != null) {
+                total.add(delta);
+            }
+            insert(WakeWordHourEntity.from(total));
+        }
+    }
+}
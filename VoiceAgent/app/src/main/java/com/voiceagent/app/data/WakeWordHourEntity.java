@@ -0,0 +1,62 @@
+package com.voiceagent.app.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import com.voiceagent.app.diagnostics.WakeWordTelemetry;
+
+/**
+ * Wake word service telemetry for one hour under one detection strategy
+ */
+@Entity(tableName = "wake_word_hours", primaryKeys = {"hourStart", "strategy"})
+public class WakeWordHourEntity {
+    
+    public long hourStart;
+    
+    @NonNull
+    public String strategy = "";
+    
+    public int sessions;
+    public long sessionMs;
+    public String errors; // "code=count,..." restarts by onError code
+    public int detections;
+    public int timedDetections;
+    public long detectionLatencyMs;
+    public long maxDetectionLatencyMs;
+    public long cpuMs;
+    public int falseWakes;
+    public int wakesWithoutCommand;
+    
+    public WakeWordTelemetry.Hour toHour() {
+        WakeWordTelemetry.Hour hour = new WakeWordTelemetry.Hour();
+        hour.hourStart = hourStart;
+        hour.strategy = strategy;
+        hour.sessions = sessions;
+        hour.sessionMs = sessionMs;
+        hour.decodeErrors(errors);
+        hour.detections = detections;
+        hour.timedDetections = timedDetections;
+        hour.detectionLatencyMs = detectionLatencyMs;
+        hour.maxDetectionLatencyMs = maxDetectionLatencyMs;
+        hour.cpuMs = cpuMs;
+        hour.falseWakes = falseWakes;
+        hour.wakesWithoutCommand = wakesWithoutCommand;
+        return hour;
+    }
+    
+    public static WakeWordHourEntity from(WakeWordTelemetry.Hour hour) {
+        WakeWordHourEntity entity = new WakeWordHourEntity();
+        entity.hourStart = hour.hourStart;
+        entity.strategy = hour.strategy;
+        entity.sessions = hour.sessions;
+        entity.sessionMs = hour.sessionMs;
+        entity.errors = hour.encodeErrors();
+        entity.detections = hour.detections;
+        entity.timedDetections = hour.timedDetections;
+        entity.detectionLatencyMs = hour.detectionLatencyMs;
+        entity.maxDetectionLatencyMs = hour.maxDetectionLatencyMs;
+        entity.cpuMs = hour.cpuMs;
+        entity.falseWakes = hour.falseWakes;
+        entity.wakesWithoutCommand = hour.wakesWithoutCommand;
+        return entity;
+    }
+}
@@ -0,0 +1,267 @@
+package com.voiceagent.app.speech;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.speech.RecognitionListener;
+import android.speech.RecognizerIntent;
+import android.speech.SpeechRecognizer;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Long-lived speech recognition that delivers one result per utterance.
+ * Picks the lowest-latency mode the device supports:
+ * on API 33+ with an on-device recognizer, a single segmented session;
+ * on API 31+ the on-device recognizer restarted per utterance;
+ * otherwise the default recognizer with EXTRA_PREFER_OFFLINE.
+ * A mode that fails before it ever gets ready is demoted to the next one.
+ */
+public class RecognitionSession {
+    
+    private static final String TAG = "RecognitionSession";
+    private static final long SEGMENTED_SESSION_MS = 5 * 60 * 1000L;
+    private static final long MAX_RESTART_DELAY_MS = 30000;
+    
+    public enum Mode {
+        ON_DEVICE_SEGMENTED,
+        ON_DEVICE,
+        DEFAULT
+    }
+    
+    public interface Listener {
+        void onReady();
+        
+        void onPartialResult(String text);
+        
+        /**
+         * Final text of one utterance (or segment)
+         */
+        void onResult(String text);
+        
+        void onError(int error);
+    }
+    
+    private final Context context;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    
+    private Mode mode;
+    private SpeechRecognizer recognizer;
+    private boolean active = false;
+    private boolean readyOnce = false;
+    private int consecutiveErrors = 0;
+    
+    public RecognitionSession(Context context, Listener listener) {
+        this.context = context;
+        this.listener = listener;
+        this.mode = selectMode(context);
+    }
+    
+    /**
+     * Best mode available on this device
+     */
+    public static Mode selectMode(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                && SpeechRecognizer.isOnDeviceRecognitionAvailable(context)) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                ? Mode.ON_DEVICE_SEGMENTED : Mode.ON_DEVICE;
+        }
+        return Mode.DEFAULT;
+    }
+    
+    /**
+     * Recognizer for the mode; callers that manage their own sessions use this directly
+     */
+    public static SpeechRecognizer createRecognizer(Context context, Mode mode) {
+        if (mode != Mode.DEFAULT && Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            return SpeechRecognizer.createOnDeviceSpeechRecognizer(context);
+        }
+        return SpeechRecognizer.createSpeechRecognizer(context);
+    }
+    
+    /**
+     * Intent for a single utterance, preferring offline models where installed
+     */
+    public static Intent createUtteranceIntent() {
+        Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
+        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL,
+            RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
+        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, Locale.getDefault());
+        intent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
+        intent.putExtra(RecognizerIntent.EXTRA_PREFER_OFFLINE, true);
+        return intent;
+    }
+    
+    /**
+     * Recognition intent for the mode
+     */
+    public static Intent createIntent(Mode mode) {
+        Intent intent = createUtteranceIntent();
+        if (mode == Mode.ON_DEVICE_SEGMENTED && Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            // One session for several minutes, delivering a result per utterance
+            intent.putExtra(RecognizerIntent.EXTRA_SEGMENTED_SESSION,
+                RecognizerIntent.EXTRA_SPEECH_INPUT_MINIMUM_LENGTH_MILLIS);
+            intent.putExtra(RecognizerIntent.EXTRA_SPEECH_INPUT_MINIMUM_LENGTH_MILLIS, SEGMENTED_SESSION_MS);
+        }
+        return intent;
+    }
+    
+    public void start() {
+        if (active) {
+            return;
+        }
+        active = true;
+        consecutiveErrors = 0;
+        startSession();
+    }
+    
+    public void stop() {
+        active = false;
+        handler.removeCallbacksAndMessages(null);
+        if (recognizer != null) {
+            recognizer.cancel();
+        }
+    }
+    
+    public void destroy() {
+        stop();
+        if (recognizer != null) {
+            recognizer.destroy();
+            recognizer = null;
+        }
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    private void startSession() {
+        if (!active) {
+            return;
+        }
+        if (recognizer == null) {
+            recognizer = createRecognizer(context, mode);
+            recognizer.setRecognitionListener(recognitionListener);
+            Log.d(TAG, "Using " + mode + " recognition");
+        }
+        recognizer.startListening(createIntent(mode));
+    }
+    
+    private void restart(long delayMs) {
+        handler.removeCallbacksAndMessages(null);
+        handler.postDelayed(this::startSession, delayMs);
+    }
+    
+    private void demote() {
+        Mode next = mode == Mode.ON_DEVICE_SEGMENTED ? Mode.ON_DEVICE : Mode.DEFAULT;
+        Log.w(TAG, mode + " recognition failed, falling back to " + next);
+        mode = next;
+        // The fallback mode has to prove itself again before errors stop demoting it
+        readyOnce = false;
+        if (recognizer != null) {
+            recognizer.destroy();
+            recognizer = null;
+        }
+    }
+    
+    private static String firstResult(Bundle results) {
+        ArrayList<String> matches = results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION);
+        return matches != null && !matches.isEmpty() ? matches.get(0) : null;
+    }
+    
+    private final RecognitionListener recognitionListener = new RecognitionListener() {
+        @Override
+        public void onReadyForSpeech(Bundle params) {
+            readyOnce = true;
+            listener.onReady();
+        }
+        
+        @Override
+        public void onBeginningOfSpeech() {}
+        
+        @Override
+        public void onRmsChanged(float rmsdB) {}
+        
+        @Override
+        public void onBufferReceived(byte[] buffer) {}
+        
+        @Override
+        public void onEndOfSpeech() {}
+        
+        @Override
+        public void onError(int error) {
+            if (!active) {
+                return;
+            }
+            
+            // A mode that never got ready (or lacks the language) isn't supported here
+            boolean languageError = error == SpeechRecognizer.ERROR_LANGUAGE_NOT_SUPPORTED
+                || error == SpeechRecognizer.ERROR_LANGUAGE_UNAVAILABLE;
+            if ((!readyOnce || languageError) && mode != Mode.DEFAULT) {
+                demote();
+                restart(0);
+                return;
+            }
+            
+            listener.onError(error);
+            
+            // Silence is normal; anything else backs off
+            if (error == SpeechRecognizer.ERROR_NO_MATCH || error == SpeechRecognizer.ERROR_SPEECH_TIMEOUT) {
+                consecutiveErrors = 0;
+                restart(0);
+            } else {
+                consecutiveErrors++;
+                restart(Math.min(MAX_RESTART_DELAY_MS, 500L << Math.min(consecutiveErrors, 6)));
+            }
+        }
+        
+        @Override
+        public void onResults(Bundle results) {
+            consecutiveErrors = 0;
+            String text = firstResult(results);
+            if (text != null) {
+                listener.onResult(text);
+            }
+            
+            // Per-utterance modes need a new session; segmented ones end in onEndOfSegmentedSession
+            if (mode != Mode.ON_DEVICE_SEGMENTED) {
+                restart(0);
+            }
+        }
+        
+        @Override
+        public void onPartialResults(Bundle partialResults) {
+            String text = firstResult(partialResults);
+            if (text != null) {
+                listener.onPartialResult(text);
+            }
+        }
+        
+        @Override
+        public void onSegmentResults(Bundle segmentResults) {
+            consecutiveErrors = 0;
+            String text = firstResult(segmentResults);
+            if (text != null && !text.trim().isEmpty()) {
+                listener.onResult(text);
+            }
+        }
+        
+        @Override
+        public void onEndOfSegmentedSession() {
+            // Session length reached: start the next one right away
+            restart(0);
+        }
+        
+        @Override
+        public void onEvent(int eventType, Bundle params) {}
+    };
+}
@@ -0,0 +1,86 @@
+package com.voiceagent.app.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Process;
+import android.os.SystemClock;
+import com.voiceagent.app.diagnostics.ChromeTraceWriter;
+import com.voiceagent.app.diagnostics.MetricsWriter;
+import com.voiceagent.app.diagnostics.Tracer;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Persists the tracing switch and writes recorded spans to a file that
+ * ui.perfetto.dev or chrome://tracing can open. Also dumps the metrics registry.
+ */
+public class TraceExporter {
+    
+    private static final String PREFS_NAME = "diagnostics";
+    private static final String KEY_TRACING = "tracing_enabled";
+    private static final String TRACE_DIR = "traces";
+    private static final String METRICS_DIR = "metrics";
+    
+    /**
+     * Apply the saved switch; call once per process
+     */
+    public static void restore(Context context) {
+        Tracer.setEnabled(prefs(context).getBoolean(KEY_TRACING, false));
+    }
+    
+    public static void setEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(KEY_TRACING, enabled).apply();
+        Tracer.setEnabled(enabled);
+    }
+    
+    /**
+     * Write spans from the last windowMs milliseconds.
+     * Files go to the app's external files dir, so they can be pulled with adb.
+     */
+    public static File export(Context context, long windowMs) throws IOException {
+        List<Tracer.Span> spans = Tracer.snapshotLast(windowMs);
+        
+        File file = newFile(context, TRACE_DIR, "trace-");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            ChromeTraceWriter.write(spans, context.getPackageName(), out);
+        }
+        return file;
+    }
+    
+    /**
+     * Write every counter, gauge and histogram as JSON next to the traces
+     */
+    public static File exportMetrics(Context context) throws IOException {
+        File file = newFile(context, METRICS_DIR, "metrics-");
+        long uptimeMs = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            MetricsWriter.write(System.currentTimeMillis(), uptimeMs, out);
+        }
+        return file;
+    }
+    
+    private static File newFile(Context context, String dirName, String prefix) throws IOException {
+        File dir = context.getExternalFilesDir(dirName);
+        if (dir == null) {
+            dir = new File(context.getFilesDir(), dirName);
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        return new File(dir, prefix + stamp + ".json");
+    }
+    
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,35 @@
+package com.voiceagent.benchmarks;
+
+import com.google.gson.Gson;
+import com.voiceagent.app.ai.ClaudeResponse;
+import com.voiceagent.app.ai.ClaudeResponseParser;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ClaudeApiService.parseClaudeResponse over recorded Messages API responses
+ */
+@State(Scope.Thread)
+public class ClaudeResponseBenchmark {
+    
+    private final ClaudeResponseParser parser = new ClaudeResponseParser(new Gson());
+    private Corpora.Cycle<String> responses;
+    
+    @Setup
+    public void setUp() throws IOException {
+        responses = new Corpora.Cycle<>(Corpora.lines("claude_responses.jsonl"));
+    }
+    
+    @Benchmark
+    public ClaudeResponse parseResponse() {
+        return parser.parseResponse(responses.next());
+    }
+    
+    @Benchmark
+    public String extractText() {
+        return parser.extractText(responses.next());
+    }
+}
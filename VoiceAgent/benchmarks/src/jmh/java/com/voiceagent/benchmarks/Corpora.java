@@ -0,0 +1,59 @@
+package com.voiceagent.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the shared text corpora in VoiceAgent/corpora
+ */
+final class Corpora {
+    
+    private static final String DIRECTORY_PROPERTY = "voiceagent.corpora";
+    
+    private Corpora() {}
+    
+    /**
+     * Non-empty, non-comment lines of a corpus file
+     */
+    static List<String> lines(String name) throws IOException {
+        File file = new File(System.getProperty(DIRECTORY_PROPERTY, "corpora"), name);
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                lines.add(line);
+            }
+        }
+        if (lines.isEmpty()) {
+            throw new IOException("Empty corpus: " + file);
+        }
+        return lines;
+    }
+    
+    /**
+     * Cycles through a corpus so each invocation sees the next input
+     */
+    static final class Cycle<T> {
+        private final List<T> items;
+        private int index = 0;
+        
+        Cycle(List<T> items) {
+            this.items = items;
+        }
+        
+        T next() {
+            T item = items.get(index);
+            if (++index == items.size()) {
+                index = 0;
+            }
+            return item;
+        }
+        
+        int size() {
+            return items.size();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.voiceagent.benchmarks;
+
+import com.voiceagent.app.CommandCategory;
+import com.voiceagent.app.ai.CommandNormalizer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * VoiceCommandProcessor's keyword dispatch chain, minus the intents it launches
+ */
+@State(Scope.Thread)
+public class DispatchBenchmark {
+    
+    private Corpora.Cycle<String> normalized;
+    private Corpora.Cycle<String> raw;
+    
+    @Setup
+    public void setUp() throws IOException {
+        List<String> lines = Corpora.lines("commands.txt");
+        List<String> cleaned = new ArrayList<>();
+        for (String line : lines) {
+            cleaned.add(CommandNormalizer.clean(line));
+        }
+        normalized = new Corpora.Cycle<>(cleaned);
+        raw = new Corpora.Cycle<>(lines);
+    }
+    
+    @Benchmark
+    public CommandCategory classify() {
+        return CommandCategory.classify(normalized.next());
+    }
+    
+    /**
+     * Clean and classify, the per-utterance work before a handler runs
+     */
+    @Benchmark
+    public CommandCategory cleanAndClassify() {
+        return CommandCategory.classify(CommandNormalizer.clean(raw.next()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.voiceagent.benchmarks;
+
+import com.voiceagent.app.audio.LogMelFrontEnd;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Keyword spotter feature extraction: one operation is one second of 16 kHz audio
+ * (about 100 frames), so average time reads directly as CPU per audio second
+ */
+@State(Scope.Thread)
+public class LogMelFrontEndBenchmark {
+    
+    private static final int SAMPLE_RATE = 16000;
+    
+    @Param({"40"})
+    public int melBands;
+    
+    @Param({"0", "13"})
+    public int coefficients;
+    
+    private LogMelFrontEnd frontEnd;
+    private short[] audio;
+    
+    @Setup
+    public void setUp() {
+        frontEnd = new LogMelFrontEnd(SAMPLE_RATE, SAMPLE_RATE / 40, SAMPLE_RATE / 100, 512,
+            melBands, coefficients);
+        
+        // Voiced-speech-like test signal: harmonics of a gliding pitch plus noise
+        Random random = new Random(42);
+        audio = new short[SAMPLE_RATE];
+        double phase = 0;
+        for (int i = 0; i < audio.length; i++) {
+            double pitch = 120 + 40 * Math.sin(2 * Math.PI * i / SAMPLE_RATE);
+            phase += 2 * Math.PI * pitch / SAMPLE_RATE;
+            double sample = 0;
+            for (int harmonic = 1; harmonic <= 8; harmonic++) {
+                sample += Math.sin(harmonic * phase) / harmonic;
+            }
+            audio[i] = (short) (4000 * sample + 300 * random.nextGaussian());
+        }
+    }
+    
+    @Benchmark
+    public void processOneSecond(Blackhole blackhole) {
+        frontEnd.process(audio, 0, audio.length, blackhole::consume);
+    }
+}
@@ -0,0 +1,63 @@
+package com.voiceagent.benchmarks;
+
+import com.voiceagent.app.ai.CommandNormalizer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The learning engine's normalization path: filler stripping plus the fuzzy match
+ * against the 50 most recent successful commands that normalizeCommand() does
+ * for every utterance (the Room query itself is covered by the DAO benchmarks)
+ */
+@State(Scope.Thread)
+public class NormalizationBenchmark {
+    
+    private static final int HISTORY_SIZE = 50;
+    
+    private Corpora.Cycle<String> commands;
+    private Corpora.Cycle<String[]> pairs;
+    private List<String> history;
+    
+    @Setup
+    public void setUp() throws IOException {
+        List<String> lines = Corpora.lines("commands.txt");
+        commands = new Corpora.Cycle<>(lines);
+        
+        history = new ArrayList<>();
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            history.add(CommandNormalizer.clean(lines.get(i % lines.size())));
+        }
+        
+        List<String[]> pairList = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            pairList.add(new String[] {lines.get(i), lines.get((i * 7 + 3) % lines.size())});
+        }
+        pairs = new Corpora.Cycle<>(pairList);
+    }
+    
+    @Benchmark
+    public String clean() {
+        return CommandNormalizer.clean(commands.next());
+    }
+    
+    /**
+     * Equivalent of AILearningEngine.normalizeCommand with the history already loaded
+     */
+    @Benchmark
+    public String normalizeCommand() {
+        String normalized = CommandNormalizer.clean(commands.next());
+        String similar = CommandNormalizer.findSimilar(normalized, history);
+        return similar != null ? similar : normalized;
+    }
+    
+    @Benchmark
+    public double calculateSimilarity() {
+        String[] pair = pairs.next();
+        return CommandNormalizer.calculateSimilarity(pair[0], pair[1]);
+    }
+}
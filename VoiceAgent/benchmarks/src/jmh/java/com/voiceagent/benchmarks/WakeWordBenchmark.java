@@ -0,0 +1,44 @@
+package com.voiceagent.benchmarks;
+
+import com.voiceagent.app.ai.WakeWordDetector;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Wake word checks over the labelled transcript corpus (hits and misses mixed)
+ */
+@State(Scope.Thread)
+public class WakeWordBenchmark {
+    
+    private final WakeWordDetector detector = new WakeWordDetector();
+    private Corpora.Cycle<String> transcripts;
+    
+    @Setup
+    public void setUp() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (String line : Corpora.lines("wake_word_transcripts.tsv")) {
+            texts.add(line.substring(line.indexOf('\t') + 1));
+        }
+        transcripts = new Corpora.Cycle<>(texts);
+    }
+    
+    @Benchmark
+    public boolean detectWakeWord() {
+        return detector.detectWakeWord(transcripts.next());
+    }
+    
+    @Benchmark
+    public float getConfidence() {
+        return detector.getConfidence(transcripts.next());
+    }
+    
+    @Benchmark
+    public String extractCommand() {
+        return detector.extractCommand(transcripts.next());
+    }
+}
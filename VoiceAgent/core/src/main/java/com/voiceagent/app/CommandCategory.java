@@ -0,0 +1,69 @@
+package com.voiceagent.app;
+
+/**
+ * Built-in command families, matched by keyword in dispatch order
+ */
+public enum CommandCategory {
+    CALL("call", true),
+    MESSAGE("message", true),
+    SEARCH("search", false),
+    OPEN_APP("open_app", false),
+    ALARM("alarm", true),
+    TIME("time", false),
+    DATE("date", false),
+    WEATHER("weather", false),
+    NAVIGATION("navigation", false),
+    MUSIC("music", false),
+    OTHER("other", false); // left to learned rules or Claude
+    
+    private final String commandType;
+    private final boolean critical;
+    
+    CommandCategory(String commandType, boolean critical) {
+        this.commandType = commandType;
+        this.critical = critical;
+    }
+    
+    /**
+     * Type recorded for learning, matching Claude's action types
+     */
+    public String getCommandType() {
+        return commandType;
+    }
+    
+    /**
+     * Whether the command acts on the outside world rather than answering a query
+     */
+    public boolean isCritical() {
+        return critical;
+    }
+    
+    /**
+     * First category whose keywords appear in the normalized command
+     */
+    public static CommandCategory classify(String normalizedCommand) {
+        if (normalizedCommand.contains("call") || normalizedCommand.contains("dial")) {
+            return CALL;
+        } else if (normalizedCommand.contains("message") || normalizedCommand.contains("text")
+                || normalizedCommand.contains("sms")) {
+            return MESSAGE;
+        } else if (normalizedCommand.contains("search") || normalizedCommand.contains("google")) {
+            return SEARCH;
+        } else if (normalizedCommand.contains("open") || normalizedCommand.contains("launch")) {
+            return OPEN_APP;
+        } else if (normalizedCommand.contains("alarm") || normalizedCommand.contains("wake me")) {
+            return ALARM;
+        } else if (normalizedCommand.contains("time")) {
+            return TIME;
+        } else if (normalizedCommand.contains("date")) {
+            return DATE;
+        } else if (normalizedCommand.contains("weather")) {
+            return WEATHER;
+        } else if (normalizedCommand.contains("navigate") || normalizedCommand.contains("directions")) {
+            return NAVIGATION;
+        } else if (normalizedCommand.contains("play music") || normalizedCommand.contains("play song")) {
+            return MUSIC;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,232 @@
+package com.voiceagent.app;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded FIFO of recognized commands between the recognizer and the processor.
+ * When a command arrives it is coalesced with an identical pending one;
+ * if the queue is full the oldest non-critical entry is dropped to make room,
+ * and if everything pending is critical the new command is rejected.
+ */
+public class CommandQueue {
+    
+    public enum OfferResult {
+        ACCEPTED,
+        COALESCED,      // same command already waiting
+        DROPPED_OLDEST, // accepted after evicting an older non-critical command
+        REJECTED        // full of critical commands
+    }
+    
+    public static class Entry {
+        public final String command;
+        public final boolean critical;
+        public final long enqueuedAtNanos;
+        private final String key;
+        private int duplicates = 0;
+        
+        Entry(String command, boolean critical, String key) {
+            this.command = command;
+            this.critical = critical;
+            this.key = key;
+            this.enqueuedAtNanos = System.nanoTime();
+        }
+        
+        /**
+         * How many identical commands were merged into this one
+         */
+        public int getDuplicates() {
+            return duplicates;
+        }
+        
+        public long getWaitMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAtNanos);
+        }
+    }
+    
+    private final int capacity;
+    private final ArrayDeque<Entry> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    
+    // Metrics, guarded by lock
+    private int maxDepth = 0;
+    private long accepted = 0;
+    private long coalesced = 0;
+    private long dropped = 0;
+    private long rejected = 0;
+    private long taken = 0;
+    private long totalWaitMs = 0;
+    private long maxWaitMs = 0;
+    
+    public CommandQueue(int capacity) {
+        this.capacity = capacity;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+    
+    public OfferResult offer(String command, boolean critical) {
+        String key = command.toLowerCase(Locale.getDefault()).replaceAll("\\s+", " ").trim();
+        
+        lock.lock();
+        try {
+            for (Entry entry : entries) {
+                if (entry.key.equals(key)) {
+                    entry.duplicates++;
+                    coalesced++;
+                    return OfferResult.COALESCED;
+                }
+            }
+            
+            OfferResult result = OfferResult.ACCEPTED;
+            if (entries.size() >= capacity) {
+                if (!dropOldestNonCritical()) {
+                    rejected++;
+                    return OfferResult.REJECTED;
+                }
+                result = OfferResult.DROPPED_OLDEST;
+            }
+            
+            entries.addLast(new Entry(command, critical, key));
+            accepted++;
+            maxDepth = Math.max(maxDepth, entries.size());
+            notEmpty.signal();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Wait for the next command
+     */
+    public Entry take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (entries.isEmpty()) {
+                notEmpty.await();
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Next command, or null if none arrives within the timeout
+     */
+    public Entry poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (entries.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Entry remove() {
+        Entry entry = entries.removeFirst();
+        long waitMs = entry.getWaitMs();
+        taken++;
+        totalWaitMs += waitMs;
+        maxWaitMs = Math.max(maxWaitMs, waitMs);
+        return entry;
+    }
+    
+    private boolean dropOldestNonCritical() {
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().critical) {
+                iterator.remove();
+                dropped++;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getMaxDepth() {
+        lock.lock();
+        try {
+            return maxDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getAverageWaitMs() {
+        lock.lock();
+        try {
+            return taken == 0 ? 0 : totalWaitMs / taken;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getMaxWaitMs() {
+        lock.lock();
+        try {
+            return maxWaitMs;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public String getSummary() {
+        lock.lock();
+        try {
+            return String.format(Locale.US,
+                "depth %d (max %d), %d accepted, %d coalesced, %d dropped, %d rejected, wait avg %d ms max %d ms",
+                entries.size(), maxDepth, accepted, coalesced, dropped, rejected,
+                taken == 0 ? 0 : totalWaitMs / taken, maxWaitMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.voiceagent.app;
+
+import java.util.Locale;
+
+/**
+ * Decides how a recognized command is handled: a user-trained custom command,
+ * then the built-in keyword handlers for the normalized command, then a learned
+ * interpretation or local rule, then Claude. VoiceCommandProcessor and the
+ * replay harness both route through here, each with its own lookups.
+ */
+public final class CommandRouter {
+    
+    public enum Route {
+        CUSTOM,     // user-trained custom command
+        BUILT_IN,   // handled by the keyword dispatch
+        LEARNED,    // answered by a learned interpretation or local rule
+        CLAUDE,     // sent to Claude
+        UNKNOWN     // nothing could handle it
+    }
+    
+    /**
+     * What the learning engine knows, with L the form a learned answer takes
+     */
+    public interface Lookups<L> {
+        /**
+         * Action of the custom command trained for this utterance, or null
+         */
+        String getCustomCommandAction(String lowerCommand);
+        
+        String normalizeCommand(String lowerCommand);
+        
+        /**
+         * Learned interpretation or matching local rule, or null
+         */
+        L resolveLearned(String command);
+        
+        /**
+         * Whether Claude can still be asked within the interaction's budget
+         */
+        boolean canAskClaude();
+    }
+    
+    public static final class Decision<L> {
+        public final Route route;
+        public final String lowerCommand;
+        public final String customAction;
+        public final String normalizedCommand;
+        public final CommandCategory category;
+        public final L learned;
+        
+        private Decision(Route route, String lowerCommand, String customAction,
+                         String normalizedCommand, CommandCategory category, L learned) {
+            this.route = route;
+            this.lowerCommand = lowerCommand;
+            this.customAction = customAction;
+            this.normalizedCommand = normalizedCommand;
+            this.category = category;
+            this.learned = learned;
+        }
+    }
+    
+    private CommandRouter() {
+    }
+    
+    public static <L> Decision<L> route(String command, Lookups<L> lookups) {
+        String lowerCommand = command.toLowerCase(Locale.getDefault());
+        
+        String customAction = lookups.getCustomCommandAction(lowerCommand);
+        if (customAction != null) {
+            return new Decision<>(Route.CUSTOM, lowerCommand, customAction, null, null, null);
+        }
+        
+        String normalized = lookups.normalizeCommand(lowerCommand);
+        CommandCategory category = CommandCategory.classify(normalized);
+        if (category != CommandCategory.OTHER) {
+            return new Decision<>(Route.BUILT_IN, lowerCommand, null, normalized, category, null);
+        }
+        
+        L learned = lookups.resolveLearned(command);
+        if (learned != null) {
+            return new Decision<>(Route.LEARNED, lowerCommand, null, normalized, category, learned);
+        }
+        
+        Route route = lookups.canAskClaude() ? Route.CLAUDE : Route.UNKNOWN;
+        return new Decision<>(route, lowerCommand, null, normalized, category, null);
+    }
+}
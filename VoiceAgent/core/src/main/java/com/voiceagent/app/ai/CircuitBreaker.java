@@ -0,0 +1,121 @@
+package com.voiceagent.app.ai;
+
+/**
+ * Circuit breaker for Claude API calls.
+ * Opens after consecutive failures or slow responses, rejects calls while open,
+ * and lets a single trial call through once the cool-down has elapsed.
+ */
+public class CircuitBreaker {
+    
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    /**
+     * Monotonic time source in milliseconds
+     */
+    public interface Clock {
+        long nowMs();
+    }
+    
+    private static final Clock SYSTEM_CLOCK = () -> System.nanoTime() / 1_000_000L;
+    
+    private final Clock clock;
+    private final int failureThreshold;
+    private final long slowCallThresholdMs;
+    private final long openDurationMs;
+    
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMs = 0;
+    private boolean trialInFlight = false;
+    
+    public CircuitBreaker(int failureThreshold, long slowCallThresholdMs, long openDurationMs) {
+        this(failureThreshold, slowCallThresholdMs, openDurationMs, SYSTEM_CLOCK);
+    }
+    
+    public CircuitBreaker(int failureThreshold, long slowCallThresholdMs, long openDurationMs, Clock clock) {
+        this.clock = clock;
+        this.failureThreshold = failureThreshold;
+        this.slowCallThresholdMs = slowCallThresholdMs;
+        this.openDurationMs = openDurationMs;
+    }
+    
+    /**
+     * Check whether a call would currently be let through, without claiming it
+     */
+    public synchronized boolean isCallPermitted() {
+        switch (state) {
+            case OPEN:
+                return now() - openedAtMs >= openDurationMs;
+            case HALF_OPEN:
+                return !trialInFlight;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Claim permission for a call. Must be followed by onSuccess, onFailure or onAbandoned.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && now() - openedAtMs >= openDurationMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        
+        switch (state) {
+            case OPEN:
+                return false;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Record a completed call. Slow responses count as failures.
+     */
+    public synchronized void onSuccess(long latencyMs) {
+        if (latencyMs >= slowCallThresholdMs) {
+            onFailure();
+            return;
+        }
+        
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+    
+    /**
+     * Record a failed call
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = now();
+        }
+    }
+    
+    /**
+     * The claimed call never reached the endpoint (e.g. it was throttled locally);
+     * free a half-open trial without recording an outcome
+     */
+    public synchronized void onAbandoned() {
+        trialInFlight = false;
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    private long now() {
+        return clock.nowMs();
+    }
+}
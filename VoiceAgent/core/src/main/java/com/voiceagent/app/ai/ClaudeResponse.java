@@ -0,0 +1,34 @@
+package com.voiceagent.app.ai;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Response class for Claude API results
+ */
+public class ClaudeResponse {
+    public final boolean success;
+    public final String explanation;
+    public final String actionType;
+    public final JsonObject parameters;
+    public final float confidence;
+    
+    public ClaudeResponse(boolean success, String explanation, String actionType, JsonObject parameters) {
+        this(success, explanation, actionType, parameters, 0f);
+    }
+    
+    public ClaudeResponse(boolean success, String explanation, String actionType,
+                          JsonObject parameters, float confidence) {
+        this.success = success;
+        this.explanation = explanation;
+        this.actionType = actionType;
+        this.parameters = parameters;
+        this.confidence = confidence;
+    }
+    
+    public String getParameter(String key) {
+        if (parameters != null && parameters.has(key)) {
+            return parameters.get(key).getAsString();
+        }
+        return null;
+    }
+}
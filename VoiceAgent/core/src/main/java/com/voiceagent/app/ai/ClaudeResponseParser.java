@@ -0,0 +1,105 @@
+package com.voiceagent.app.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns Messages API responses into command interpretations.
+ * Failures surface as exceptions; the caller decides how to report them.
+ */
+public class ClaudeResponseParser {
+    
+    private static final Set<String> ACTION_TYPES = new HashSet<>(Arrays.asList(
+        "call", "message", "search", "open_app", "alarm", "reminder", "navigation",
+        "weather", "time", "date", "settings", "custom"));
+    
+    private final Gson gson;
+    
+    public ClaudeResponseParser(Gson gson) {
+        this.gson = gson;
+    }
+    
+    /**
+     * Parse a single-command response
+     */
+    public ClaudeResponse parseResponse(String responseJson) {
+        // Parse the JSON content from Claude
+        JsonObject interpretation = gson.fromJson(extractText(responseJson), JsonObject.class);
+        return parseInterpretation(interpretation);
+    }
+    
+    /**
+     * Parse a batch response, matching array entries back to their commands by index.
+     * Malformed entries are skipped so the rest of the batch survives.
+     */
+    public Map<String, ClaudeResponse> parseBatchResponse(String responseJson, List<String> commands) {
+        Map<String, ClaudeResponse> results = new HashMap<>();
+        JsonArray interpretations = gson.fromJson(extractText(responseJson), JsonArray.class);
+        
+        for (JsonElement element : interpretations) {
+            try {
+                JsonObject interpretation = element.getAsJsonObject();
+                int index = interpretation.get("index").getAsInt();
+                if (index >= 0 && index < commands.size()) {
+                    results.put(commands.get(index), parseInterpretation(interpretation));
+                }
+            } catch (RuntimeException e) {
+                // Skip malformed entries, keep the rest of the batch
+            }
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Extract the text content from a Messages API response
+     */
+    public String extractText(String responseJson) {
+        JsonObject json = gson.fromJson(responseJson, JsonObject.class);
+        return json.getAsJsonArray("content")
+            .get(0).getAsJsonObject()
+            .get("text").getAsString();
+    }
+    
+    /**
+     * Token counts from a Messages API response, or null if it has no usage block
+     */
+    public TokenUsage parseUsage(String responseJson) {
+        JsonObject json = gson.fromJson(responseJson, JsonObject.class);
+        if (json == null || !json.has("usage") || !json.get("usage").isJsonObject()) {
+            return null;
+        }
+        JsonObject usage = json.getAsJsonObject("usage");
+        long input = usage.has("input_tokens") ? usage.get("input_tokens").getAsLong() : 0;
+        long output = usage.has("output_tokens") ? usage.get("output_tokens").getAsLong() : 0;
+        return new TokenUsage(input, output);
+    }
+    
+    /**
+     * Convert one interpretation object into a response, validating the action type
+     */
+    public ClaudeResponse parseInterpretation(JsonObject interpretation) {
+        String intent = interpretation.get("intent").getAsString();
+        String actionType = interpretation.get("action_type").getAsString();
+        JsonObject parameters = interpretation.getAsJsonObject("parameters");
+        String explanation = interpretation.get("explanation").getAsString();
+        boolean executable = interpretation.get("executable").getAsBoolean();
+        float confidence = interpretation.has("confidence")
+            ? interpretation.get("confidence").getAsFloat()
+            : 0f;
+        
+        if (!ACTION_TYPES.contains(actionType)) {
+            throw new IllegalArgumentException("Unknown action type: " + actionType);
+        }
+        
+        return new ClaudeResponse(true, explanation, actionType, parameters, confidence);
+    }
+}
@@ -0,0 +1,79 @@
+package com.voiceagent.app.ai;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization and fuzzy matching used by the learning engine
+ */
+public final class CommandNormalizer {
+    
+    private static final Pattern FILLER_WORDS = Pattern.compile("\\b(please|could you|can you|would you)\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final double MIN_SIMILARITY = 0.7;
+    
+    private CommandNormalizer() {}
+    
+    /**
+     * Lower-case the command and strip polite filler words
+     */
+    public static String clean(String command) {
+        String normalized = command.toLowerCase(Locale.getDefault()).trim();
+        normalized = FILLER_WORDS.matcher(normalized).replaceAll("");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+    
+    /**
+     * Most similar candidate above the similarity threshold, or null
+     */
+    public static String findSimilar(String command, List<String> candidates) {
+        double maxSimilarity = 0.0;
+        String mostSimilar = null;
+        
+        for (String candidate : candidates) {
+            double similarity = calculateSimilarity(command, candidate);
+            if (similarity > maxSimilarity && similarity > MIN_SIMILARITY) {
+                maxSimilarity = similarity;
+                mostSimilar = candidate;
+            }
+        }
+        
+        return mostSimilar;
+    }
+    
+    /**
+     * Calculate similarity between two strings using Levenshtein distance
+     */
+    public static double calculateSimilarity(String s1, String s2) {
+        int maxLen = Math.max(s1.length(), s2.length());
+        if (maxLen == 0) return 1.0;
+        
+        int distance = levenshteinDistance(s1, s2);
+        return 1.0 - ((double) distance / maxLen);
+    }
+    
+    static int levenshteinDistance(String s1, String s2) {
+        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
+        
+        for (int i = 0; i <= s1.length(); i++) {
+            dp[i][0] = i;
+        }
+        for (int j = 0; j <= s2.length(); j++) {
+            dp[0][j] = j;
+        }
+        
+        for (int i = 1; i <= s1.length(); i++) {
+            for (int j = 1; j <= s2.length(); j++) {
+                int cost = (s1.charAt(i - 1) == s2.charAt(j - 1)) ? 0 : 1;
+                dp[i][j] = Math.min(Math.min(
+                    dp[i - 1][j] + 1,      // deletion
+                    dp[i][j - 1] + 1),     // insertion
+                    dp[i - 1][j - 1] + cost // substitution
+                );
+            }
+        }
+        
+        return dp[s1.length()][s2.length()];
+    }
+}
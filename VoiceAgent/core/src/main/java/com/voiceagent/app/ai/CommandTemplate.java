@@ -0,0 +1,142 @@
+package com.voiceagent.app.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local command rule distilled from a Claude interpretation.
+ * Parameter values found in the utterance become slots, so
+ * "ring mom" -> call(contact=mom) gives the template "ring {contact}"
+ * which also matches "ring dad".
+ */
+public class CommandTemplate {
+    
+    private static final Pattern SLOT = Pattern.compile("\\{(\\w+)\\}");
+    private static final int MIN_SLOT_VALUE_LENGTH = 2;
+    
+    private final String pattern;
+    private final String actionType;
+    private final Map<String, String> fixedParameters;
+    private final String explanation;
+    private final List<String> slots;
+    private final Pattern regex;
+    private final int literalLength;
+    
+    public CommandTemplate(String pattern, String actionType,
+                           Map<String, String> fixedParameters, String explanation) {
+        this.pattern = pattern;
+        this.actionType = actionType;
+        this.fixedParameters = fixedParameters;
+        this.explanation = explanation;
+        this.slots = new ArrayList<>();
+        
+        // Compile "ring {contact}" into ^ring (.+?)$
+        StringBuilder regexBuilder = new StringBuilder("^");
+        Matcher matcher = SLOT.matcher(pattern);
+        int last = 0;
+        int literals = 0;
+        while (matcher.find()) {
+            String literal = pattern.substring(last, matcher.start());
+            regexBuilder.append(Pattern.quote(literal)).append("(.+?)");
+            literals += literal.trim().length();
+            slots.add(matcher.group(1));
+            last = matcher.end();
+        }
+        String tail = pattern.substring(last);
+        regexBuilder.append(Pattern.quote(tail)).append("$");
+        literals += tail.trim().length();
+        
+        this.regex = Pattern.compile(regexBuilder.toString());
+        this.literalLength = literals;
+    }
+    
+    /**
+     * Build a template from an utterance and its interpretation.
+     * Returns null if no useful rule can be derived (e.g. the utterance is only slots).
+     */
+    public static CommandTemplate distill(String utterance, String actionType,
+                                          Map<String, String> parameters, String explanation) {
+        if (actionType == null) {
+            return null;
+        }
+        
+        String template = normalize(utterance);
+        Map<String, String> fixed = new HashMap<>();
+        
+        // Replace longer values first so overlapping values don't split each other
+        List<Map.Entry<String, String>> entries = new ArrayList<>(parameters.entrySet());
+        Collections.sort(entries, (a, b) -> b.getValue().length() - a.getValue().length());
+        
+        for (Map.Entry<String, String> entry : entries) {
+            String value = normalize(entry.getValue());
+            Matcher matcher = Pattern.compile("\\b" + Pattern.quote(value) + "\\b").matcher(template);
+            
+            if (value.length() >= MIN_SLOT_VALUE_LENGTH && matcher.find()) {
+                template = template.substring(0, matcher.start()) + "{" + entry.getKey() + "}"
+                    + template.substring(matcher.end());
+            } else {
+                // Not spoken by the user - keep as a constant of the rule
+                fixed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        CommandTemplate result = new CommandTemplate(template, actionType, fixed, explanation);
+        if (result.literalLength == 0) {
+            return null; // would match anything
+        }
+        return result;
+    }
+    
+    /**
+     * Match an utterance against this template.
+     * Returns all parameters (fixed values plus filled slots), or null if it does not match.
+     */
+    public Map<String, String> match(String utterance) {
+        Matcher matcher = regex.matcher(normalize(utterance));
+        if (!matcher.matches()) {
+            return null;
+        }
+        
+        Map<String, String> parameters = new HashMap<>(fixedParameters);
+        for (int i = 0; i < slots.size(); i++) {
+            parameters.put(slots.get(i), matcher.group(i + 1).trim());
+        }
+        return parameters;
+    }
+    
+    /**
+     * Lower-case and collapse whitespace
+     */
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.getDefault()).replaceAll("\\s+", " ").trim();
+    }
+    
+    public String getPattern() {
+        return pattern;
+    }
+    
+    public String getActionType() {
+        return actionType;
+    }
+    
+    public Map<String, String> getFixedParameters() {
+        return fixedParameters;
+    }
+    
+    public String getExplanation() {
+        return explanation;
+    }
+    
+    /**
+     * Number of literal characters; templates with more literal text are more specific
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
@@ -0,0 +1,41 @@
+package com.voiceagent.app.ai;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency budget for a single voice interaction.
+ * Created when the command arrives and passed down to the network call.
+ */
+public final class Deadline {
+    
+    // Budget of a voice interaction when the caller does not supply one
+    public static final long DEFAULT_BUDGET_MS = 8000;
+    
+    private final long expiresAtNanos;
+    
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+    
+    /**
+     * Create a deadline that expires after the given number of milliseconds
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+    
+    /**
+     * Remaining budget in milliseconds (never negative)
+     */
+    public long remainingMillis() {
+        long remaining = expiresAtNanos - System.nanoTime();
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining) : 0;
+    }
+    
+    /**
+     * Check if the budget has been used up
+     */
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.voiceagent.app.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Learned command templates, most specific first. The list is replaced as a
+ * whole on every change, so matching never sees a half-updated list.
+ */
+public final class LocalRuleSet {
+    
+    private volatile List<CommandTemplate> rules = Collections.emptyList();
+    private final Object lock = new Object();
+    
+    /**
+     * A rule that matched and the parameters it produced
+     */
+    public static final class Match {
+        public final CommandTemplate template;
+        public final Map<String, String> parameters;
+        
+        Match(CommandTemplate template, Map<String, String> parameters) {
+            this.template = template;
+            this.parameters = parameters;
+        }
+    }
+    
+    /**
+     * Add a template, replacing any rule with the same pattern
+     */
+    public void add(CommandTemplate template) {
+        synchronized (lock) {
+            List<CommandTemplate> updated = new ArrayList<>(rules);
+            updated.removeIf(existing -> existing.getPattern().equals(template.getPattern()));
+            updated.add(template);
+            updated.sort((a, b) -> b.getLiteralLength() - a.getLiteralLength());
+            rules = Collections.unmodifiableList(updated);
+        }
+    }
+    
+    /**
+     * The most specific rule matching the command, or null
+     */
+    public Match match(String command) {
+        for (CommandTemplate template : rules) {
+            Map<String, String> parameters = template.match(command);
+            if (parameters != null) {
+                return new Match(template, parameters);
+            }
+        }
+        return null;
+    }
+    
+    public int size() {
+        return rules.size();
+    }
+}
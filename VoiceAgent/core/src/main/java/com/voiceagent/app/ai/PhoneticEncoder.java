@@ -0,0 +1,218 @@
+package com.voiceagent.app.ai;
+
+/**
+ * Compact Double Metaphone style encoder for English words.
+ * Reduces a word to its consonant skeleton (vowels only count at the start),
+ * so spellings a recognizer might produce for the same sounds share a key:
+ * "nekro", "necro" and "neckrow" all encode to "NKR".
+ * Ambiguous letters (soft/hard C and G, CH) produce an alternate key.
+ */
+public final class PhoneticEncoder {
+    
+    private static final int MAX_KEY_LENGTH = 8;
+    
+    private PhoneticEncoder() {}
+    
+    /**
+     * Primary and alternate keys of a word; the two are equal when nothing is ambiguous
+     */
+    public static String[] encode(String word) {
+        String s = clean(word);
+        StringBuilder primary = new StringBuilder();
+        StringBuilder alternate = new StringBuilder();
+        int length = s.length();
+        if (length == 0) {
+            return new String[] {"", ""};
+        }
+        
+        int i = 0;
+        
+        // Silent first letters
+        if (s.startsWith("kn") || s.startsWith("gn") || s.startsWith("pn")
+                || s.startsWith("wr") || s.startsWith("ps")) {
+            i = 1;
+        } else if (s.charAt(0) == 'x') {
+            add(primary, alternate, 'S');
+            i = 1;
+        } else if (isVowel(s.charAt(0))) {
+            add(primary, alternate, 'A');
+            i = 1;
+        }
+        
+        while (i < length && primary.length() < MAX_KEY_LENGTH) {
+            char c = s.charAt(i);
+            char next = i + 1 < length ? s.charAt(i + 1) : 0;
+            char previous = i > 0 ? s.charAt(i - 1) : 0;
+            
+            // Doubled consonants sound once (except "cc" as in "accent")
+            if (c == previous && c != 'c') {
+                i++;
+                continue;
+            }
+            
+            switch (c) {
+                case 'a':
+                case 'e':
+                case 'i':
+                case 'o':
+                case 'u':
+                case 'y':
+                    break;
+                case 'b':
+                    // Silent in a final "mb" ("climb")
+                    if (!(previous == 'm' && i == length - 1)) {
+                        add(primary, alternate, 'P');
+                    }
+                    break;
+                case 'c':
+                    if (next == 'h') {
+                        add(primary, 'X', alternate, 'K');
+                        i++;
+                    } else if (next == 'i' || next == 'e' || next == 'y') {
+                        add(primary, alternate, 'S');
+                    } else {
+                        add(primary, alternate, 'K');
+                        if (next == 'k' || next == 'q') {
+                            i++;
+                        }
+                    }
+                    break;
+                case 'd':
+                    if (next == 'g' && i + 2 < length && isSoft(s.charAt(i + 2))) {
+                        add(primary, alternate, 'J');
+                        i++;
+                    } else {
+                        add(primary, alternate, 'T');
+                    }
+                    break;
+                case 'g':
+                    if (next == 'h') {
+                        // "gh" is silent unless a vowel follows ("ghost" vs "night")
+                        if (i + 2 < length && isVowel(s.charAt(i + 2))) {
+                            add(primary, alternate, 'K');
+                        }
+                        i++;
+                    } else if (next == 'n' && i + 2 == length) {
+                        // silent in a final "gn" ("sign")
+                    } else if (isSoft(next)) {
+                        add(primary, 'J', alternate, 'K');
+                    } else {
+                        add(primary, alternate, 'K');
+                    }
+                    break;
+                case 'h':
+                    // Only sounded before a vowel and not as part of a digraph
+                    if (isVowel(next) && "cgpst".indexOf(previous) < 0) {
+                        add(primary, alternate, 'H');
+                    }
+                    break;
+                case 'k':
+                    if (previous != 'c') {
+                        add(primary, alternate, 'K');
+                    }
+                    break;
+                case 'p':
+                    if (next == 'h') {
+                        add(primary, alternate, 'F');
+                        i++;
+                    } else {
+                        add(primary, alternate, 'P');
+                    }
+                    break;
+                case 'q':
+                    add(primary, alternate, 'K');
+                    break;
+                case 's':
+                    if (next == 'h') {
+                        add(primary, alternate, 'X');
+                        i++;
+                    } else if (next == 'i' && i + 2 < length
+                            && (s.charAt(i + 2) == 'o' || s.charAt(i + 2) == 'a')) {
+                        add(primary, alternate, 'X');
+                    } else {
+                        add(primary, alternate, 'S');
+                    }
+                    break;
+                case 't':
+                    if (next == 'h') {
+                        add(primary, alternate, '0');
+                        i++;
+                    } else if (next == 'i' && i + 2 < length
+                            && (s.charAt(i + 2) == 'o' || s.charAt(i + 2) == 'a')) {
+                        add(primary, alternate, 'X');
+                    } else {
+                        add(primary, alternate, 'T');
+                    }
+                    break;
+                case 'v':
+                    add(primary, alternate, 'F');
+                    break;
+                case 'w':
+                    // Only a consonant before a vowel ("row" ends in a vowel sound)
+                    if (isVowel(next)) {
+                        add(primary, alternate, 'W');
+                    }
+                    break;
+                case 'x':
+                    add(primary, alternate, 'K');
+                    add(primary, alternate, 'S');
+                    break;
+                case 'z':
+                    add(primary, alternate, 'S');
+                    break;
+                default:
+                    // f, j, l, m, n, r and digits encode as themselves
+                    add(primary, alternate, Character.toUpperCase(c));
+                    break;
+            }
+            i++;
+        }
+        
+        return new String[] {primary.toString(), alternate.toString()};
+    }
+    
+    /**
+     * Primary key only
+     */
+    public static String primaryKey(String word) {
+        return encode(word)[0];
+    }
+    
+    private static String clean(String word) {
+        StringBuilder builder = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toLowerCase(word.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+    
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+    
+    private static boolean isSoft(char c) {
+        return c == 'e' || c == 'i' || c == 'y';
+    }
+    
+    private static void add(StringBuilder primary, StringBuilder alternate, char code) {
+        add(primary, code, alternate, code);
+    }
+    
+    /**
+     * Append a code unless it repeats the previous one ("neck crow" sounds one K)
+     */
+    private static void add(StringBuilder primary, char primaryCode, StringBuilder alternate, char alternateCode) {
+        append(primary, primaryCode);
+        append(alternate, alternateCode);
+    }
+    
+    private static void append(StringBuilder key, char code) {
+        int length = key.length();
+        if (length < MAX_KEY_LENGTH && (length == 0 || key.charAt(length - 1) != code)) {
+            key.append(code);
+        }
+    }
+}
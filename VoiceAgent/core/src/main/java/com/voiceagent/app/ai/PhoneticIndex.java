@@ -0,0 +1,148 @@
+package com.voiceagent.app.ai;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Phonetic lookup of a phrase and its known recognizer spellings.
+ * Every variant is compiled to its primary and alternate PhoneticEncoder keys;
+ * a transcript is matched one token at a time (and each pair of adjacent tokens
+ * joined, for splits like "neck row") with a single hash lookup per candidate.
+ * A key hit is confirmed by spelling similarity to the closest variant, so
+ * words that only share the consonant skeleton ("knocker") are rejected.
+ */
+public class PhoneticIndex {
+    
+    public static class Match {
+        public final int start;  // first token
+        public final int end;    // one past the last token
+        public final String variant;
+        public final float similarity;
+        
+        Match(int start, int end, String variant, float similarity) {
+            this.start = start;
+            this.end = end;
+            this.variant = variant;
+            this.similarity = similarity;
+        }
+    }
+    
+    private final Map<String, List<String>> variantsByKey = new HashMap<>();
+    private final float minSimilarity;
+    
+    /**
+     * @param variants spellings of the phrase, spaces allowed
+     * @param minSimilarity spelling similarity a key hit needs to count
+     */
+    public PhoneticIndex(Collection<String> variants, float minSimilarity) {
+        this.minSimilarity = minSimilarity;
+        for (String variant : variants) {
+            String joined = join(variant);
+            for (String key : PhoneticEncoder.encode(joined)) {
+                if (key.length() < 2) {
+                    continue; // too short to tell apart from ordinary words
+                }
+                List<String> bucket = variantsByKey.get(key);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    variantsByKey.put(key, bucket);
+                }
+                if (!bucket.contains(joined)) {
+                    bucket.add(joined);
+                }
+            }
+        }
+    }
+    
+    /**
+     * First occurrence in lower-case, punctuation-free tokens, or null
+     */
+    public Match find(String[] tokens) {
+        for (int i = 0; i < tokens.length; i++) {
+            Match match = lookup(tokens[i], i, i + 1, minSimilarity);
+            if (match == null && i + 1 < tokens.length) {
+                match = lookup(tokens[i] + tokens[i + 1], i, i + 2, minSimilarity);
+            }
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Best similarity of any token (or adjacent pair) whose key is in the index,
+     * ignoring the confirmation threshold; 0 if no key matches
+     */
+    public float bestSimilarity(String[] tokens) {
+        float best = 0f;
+        for (int i = 0; i < tokens.length; i++) {
+            Match match = lookup(tokens[i], i, i + 1, 0f);
+            if (match != null) {
+                best = Math.max(best, match.similarity);
+            }
+            if (i + 1 < tokens.length) {
+                match = lookup(tokens[i] + tokens[i + 1], i, i + 2, 0f);
+                if (match != null) {
+                    best = Math.max(best, match.similarity);
+                }
+            }
+        }
+        return best;
+    }
+    
+    public int getKeyCount() {
+        return variantsByKey.size();
+    }
+    
+    private Match lookup(String text, int start, int end, float threshold) {
+        float best = -1f;
+        String bestVariant = null;
+        for (String key : PhoneticEncoder.encode(text)) {
+            List<String> bucket = variantsByKey.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            for (String variant : bucket) {
+                float similarity = spellingSimilarity(text, variant);
+                if (similarity > best) {
+                    best = similarity;
+                    bestVariant = variant;
+                }
+            }
+        }
+        return bestVariant != null && best >= threshold
+            ? new Match(start, end, bestVariant, best) : null;
+    }
+    
+    private static String join(String phrase) {
+        return phrase.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+    
+    /**
+     * 1 - normalized Levenshtein distance
+     */
+    static float spellingSimilarity(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int maxLength = Math.max(a.length(), b.length());
+        return maxLength == 0 ? 1f : 1f - (float) previous[b.length()] / maxLength;
+    }
+}
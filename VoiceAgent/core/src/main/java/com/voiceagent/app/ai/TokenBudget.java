@@ -0,0 +1,41 @@
+package com.voiceagent.app.ai;
+
+/**
+ * Degrades Claude usage step by step as the day's tokens approach the budget
+ */
+public final class TokenBudget {
+    
+    public enum Level {
+        NORMAL,         // full prompt, escalation allowed
+        SHORT_CONTEXT,  // compact prompt and smaller max_tokens
+        FAST_ONLY,      // compact prompt, cheaper tier only
+        LOCAL_ONLY      // no API calls until tomorrow
+    }
+    
+    // Fractions of the daily budget where each level starts
+    private static final double SHORT_CONTEXT_AT = 0.6;
+    private static final double FAST_ONLY_AT = 0.8;
+    
+    private TokenBudget() {
+    }
+    
+    /**
+     * @param dailyBudget tokens per day, or 0 for no limit
+     */
+    public static Level levelFor(long usedToday, long dailyBudget) {
+        if (dailyBudget <= 0) {
+            return Level.NORMAL;
+        }
+        if (usedToday >= dailyBudget) {
+            return Level.LOCAL_ONLY;
+        }
+        double fraction = (double) usedToday / dailyBudget;
+        if (fraction >= FAST_ONLY_AT) {
+            return Level.FAST_ONLY;
+        }
+        if (fraction >= SHORT_CONTEXT_AT) {
+            return Level.SHORT_CONTEXT;
+        }
+        return Level.NORMAL;
+    }
+}
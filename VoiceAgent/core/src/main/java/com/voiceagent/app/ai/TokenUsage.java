@@ -0,0 +1,18 @@
+package com.voiceagent.app.ai;
+
+/**
+ * Tokens billed for one Messages API call, from the response's usage block
+ */
+public class TokenUsage {
+    public final long inputTokens;
+    public final long outputTokens;
+    
+    public TokenUsage(long inputTokens, long outputTokens) {
+        this.inputTokens = inputTokens;
+        this.outputTokens = outputTokens;
+    }
+    
+    public long getTotal() {
+        return inputTokens + outputTokens;
+    }
+}
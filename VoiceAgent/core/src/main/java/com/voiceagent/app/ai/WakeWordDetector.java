@@ -0,0 +1,105 @@
+package com.voiceagent.app.ai;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Detects wake word "Nekro" in recognized speech.
+ * The wake word and the spellings recognizers produce for it are compiled into a
+ * PhoneticIndex, so "necro", "neck row" or "nick row" match by sound with one
+ * lookup per token instead of an edit-distance threshold over every word.
+ */
+public class WakeWordDetector {
+    
+    private static final String WAKE_WORD = "nekro";
+    
+    // Known recognizer outputs for the wake word
+    private static final List<String> WAKE_WORD_VARIANTS = Arrays.asList(
+        WAKE_WORD, "necro", "neckro", "nekrow", "neck row", "nick row", "knee crow", "nacro", "nicro");
+    
+    // Spelling similarity a phonetic hit needs to the closest variant
+    private static final float SIMILARITY_THRESHOLD = 0.7f;
+    
+    private static final PhoneticIndex INDEX = new PhoneticIndex(WAKE_WORD_VARIANTS, SIMILARITY_THRESHOLD);
+    
+    /**
+     * Check if the recognized text contains the wake word
+     */
+    public boolean detectWakeWord(String recognizedText) {
+        if (recognizedText == null || recognizedText.isEmpty()) {
+            return false;
+        }
+        
+        // Direct match, then by sound
+        String normalized = normalizeText(recognizedText);
+        return normalized.contains(WAKE_WORD) || INDEX.find(normalized.split("\\s+")) != null;
+    }
+    
+    /**
+     * Words spoken after the wake word in the same utterance, e.g.
+     * "Nekro, call mom" -> "call mom". Returns "" if nothing follows the
+     * wake word and null if the text doesn't contain it.
+     */
+    public String extractCommand(String recognizedText) {
+        if (recognizedText == null || recognizedText.isEmpty()) {
+            return null;
+        }
+        
+        // Match on normalized words but keep the original spelling of the command
+        String[] words = recognizedText.trim().split("\\s+");
+        String[] tokens = new String[words.length];
+        int end = -1;
+        for (int i = 0; i < words.length; i++) {
+            tokens[i] = normalizeText(words[i]);
+            if (end < 0 && tokens[i].contains(WAKE_WORD)) {
+                end = i + 1;
+            }
+        }
+        if (end < 0) {
+            PhoneticIndex.Match match = INDEX.find(tokens);
+            if (match == null) {
+                return null;
+            }
+            end = match.end;
+        }
+        
+        StringBuilder command = new StringBuilder();
+        for (int j = end; j < words.length; j++) {
+            if (command.length() > 0) {
+                command.append(' ');
+            }
+            command.append(words[j]);
+        }
+        return command.toString().replaceFirst("^[\\p{Punct}\\s]+", "");
+    }
+    
+    /**
+     * Normalize text for comparison
+     */
+    private String normalizeText(String text) {
+        return text.toLowerCase(Locale.getDefault())
+                   .replaceAll("[^a-z0-9\\s]", "")
+                   .trim();
+    }
+    
+    /**
+     * Get confidence score for wake word detection: the spelling similarity of the
+     * best phonetic hit, 0 if nothing sounds like the wake word.
+     * Detection fires at SIMILARITY_THRESHOLD and above.
+     */
+    public float getConfidence(String recognizedText) {
+        if (recognizedText == null || recognizedText.isEmpty()) {
+            return 0.0f;
+        }
+        
+        String normalized = normalizeText(recognizedText);
+        
+        // Direct match = 100% confidence
+        if (normalized.contains(WAKE_WORD)) {
+            return 1.0f;
+        }
+        
+        return INDEX.bestSimilarity(normalized.split("\\s+"));
+    }
+}
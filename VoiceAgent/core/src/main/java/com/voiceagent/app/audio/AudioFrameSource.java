@@ -0,0 +1,18 @@
+package com.voiceagent.app.audio;
+
+import java.io.IOException;
+
+/**
+ * Source of 16-bit mono PCM samples (microphone or WAV file)
+ */
+public interface AudioFrameSource {
+    
+    int getSampleRate();
+    
+    /**
+     * Read up to length samples. Returns the number read, or -1 at end of stream.
+     */
+    int read(short[] buffer, int offset, int length) throws IOException;
+    
+    void close();
+}
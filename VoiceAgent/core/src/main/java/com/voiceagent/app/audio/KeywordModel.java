@@ -0,0 +1,19 @@
+package com.voiceagent.app.audio;
+
+/**
+ * Model scoring a fixed-size window of audio for the keyword
+ */
+public interface KeywordModel {
+    
+    /**
+     * Number of input values per window
+     */
+    int getWindowSize();
+    
+    /**
+     * Probability (0..1) that the window contains the keyword
+     */
+    float score(float[] window);
+    
+    void close();
+}
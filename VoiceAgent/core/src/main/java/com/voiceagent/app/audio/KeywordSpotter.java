@@ -0,0 +1,206 @@
+package com.voiceagent.app.audio;
+
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming keyword spotter.
+ * Slides a window over 16 kHz PCM frames, scores it with a small model every
+ * hop, smooths the scores and reports a detection when they cross a threshold.
+ * Models taking features instead of raw samples get a window of log-mel frames.
+ * A voice activity detector marks where speech started, so callers can time
+ * the detection from the first syllable rather than from the model window.
+ * The same pipeline is fed by the microphone or by WAV files.
+ */
+public class KeywordSpotter implements LogMelFrontEnd.FrameListener {
+    
+    public static final int SAMPLE_RATE = 16000;
+    public static final int FRAME_SIZE = 320; // 20 ms hop
+    
+    // Same tuning as the app's VadGate
+    private static final float VAD_MARGIN_DB = 10f;
+    private static final int VAD_ONSET_FRAMES = 3;
+    private static final int VAD_HANGOVER_FRAMES = 25;
+    
+    public interface Listener {
+        void onKeywordDetected(long sampleOffset, float score);
+    }
+    
+    private final KeywordModel model;
+    private final LogMelFrontEnd frontEnd;
+    private final float threshold;
+    private final int refractorySamples;
+    private final float[] window;
+    private final float[] recentScores;
+    private final short[] frameBuffer = new short[FRAME_SIZE];
+    private final VoiceActivityDetector vad =
+        new VoiceActivityDetector(VAD_MARGIN_DB, VAD_ONSET_FRAMES, VAD_HANGOVER_FRAMES);
+    private short[] vadSamples;
+    private ShortBuffer vadFrame;
+    
+    private int scoreIndex = 0;
+    private long samplesProcessed = 0;
+    private int valuesFilled = 0;
+    private boolean windowChanged = false;
+    private long lastDetectionSample = Long.MIN_VALUE / 2;
+    private long speechStartSample = -1;
+    private float lastScore = 0f;
+    private volatile boolean running = false;
+    
+    /**
+     * @param threshold smoothed score needed for a detection
+     * @param smoothingFrames number of consecutive hop scores averaged
+     * @param refractoryMs minimum time between two detections
+     */
+    public KeywordSpotter(KeywordModel model, float threshold, int smoothingFrames, int refractoryMs) {
+        this(model, null, threshold, smoothingFrames, refractoryMs);
+    }
+    
+    /**
+     * @param frontEnd feature front end for models scoring log-mel frames, or null for raw samples
+     */
+    public KeywordSpotter(KeywordModel model, LogMelFrontEnd frontEnd,
+                          float threshold, int smoothingFrames, int refractoryMs) {
+        this.model = model;
+        this.frontEnd = frontEnd;
+        this.threshold = threshold;
+        this.refractorySamples = refractoryMs * (SAMPLE_RATE / 1000);
+        this.window = new float[model.getWindowSize()];
+        this.recentScores = new float[smoothingFrames];
+    }
+    
+    /**
+     * Push one frame of samples. Returns true if the keyword was detected.
+     */
+    public boolean processFrame(short[] frame, int length) {
+        samplesProcessed += length;
+        trackSpeechStart(frame, length);
+        
+        if (frontEnd != null) {
+            // Feature frames arrive through onFeatureFrame
+            frontEnd.process(frame, 0, length, this);
+        } else {
+            // Slide the window and append the new samples, scaled to [-1, 1]
+            int keep = window.length - length;
+            System.arraycopy(window, length, window, 0, keep);
+            for (int i = 0; i < length; i++) {
+                window[keep + i] = frame[i] / 32768f;
+            }
+            valuesFilled = Math.min(window.length, valuesFilled + length);
+            windowChanged = true;
+        }
+        
+        if (!windowChanged || valuesFilled < window.length) {
+            return false; // window not filled yet
+        }
+        windowChanged = false;
+        
+        recentScores[scoreIndex] = model.score(window);
+        scoreIndex = (scoreIndex + 1) % recentScores.length;
+        
+        float sum = 0f;
+        for (float score : recentScores) {
+            sum += score;
+        }
+        lastScore = sum / recentScores.length;
+        
+        if (lastScore >= threshold && samplesProcessed - lastDetectionSample >= refractorySamples) {
+            lastDetectionSample = samplesProcessed;
+            Arrays.fill(recentScores, 0f);
+            return true;
+        }
+        return false;
+    }
+    
+    private void trackSpeechStart(short[] frame, int length) {
+        if (frame != vadSamples) {
+            vadSamples = frame;
+            vadFrame = ShortBuffer.wrap(frame);
+        }
+        vadFrame.clear();
+        vadFrame.limit(length);
+        
+        boolean wasSpeech = vad.isSpeech();
+        if (vad.process(vadFrame) && !wasSpeech) {
+            // Speech is reported once it has lasted the onset frames
+            speechStartSample = Math.max(0, samplesProcessed - (long) VAD_ONSET_FRAMES * length);
+        }
+    }
+    
+    /**
+     * Sample offset where the speech ending in the latest detection started: the
+     * last voice onset, but no earlier than the audio the model window covers
+     */
+    public long getSpeechStartSample() {
+        long windowStart = Math.max(0, lastDetectionSample - getWindowSamples());
+        return Math.max(speechStartSample, windowStart);
+    }
+    
+    /**
+     * Audio the model window spans, in samples
+     */
+    public int getWindowSamples() {
+        if (frontEnd == null) {
+            return window.length;
+        }
+        return window.length / frontEnd.getFeatureCount() * frontEnd.getHopLength();
+    }
+    
+    @Override
+    public void onFeatureFrame(float[] features) {
+        int keep = window.length - features.length;
+        System.arraycopy(window, features.length, window, 0, keep);
+        System.arraycopy(features, 0, window, keep, features.length);
+        valuesFilled = Math.min(window.length, valuesFilled + features.length);
+        windowChanged = true;
+    }
+    
+    /**
+     * Read frames from the source until it ends or stop() is called
+     */
+    public void run(AudioFrameSource source, Listener listener) throws IOException {
+        running = true;
+        while (running) {
+            int read = source.read(frameBuffer, 0, FRAME_SIZE);
+            if (read < 0) {
+                break;
+            }
+            if (read > 0 && processFrame(frameBuffer, read)) {
+                listener.onKeywordDetected(samplesProcessed, lastScore);
+            }
+        }
+        running = false;
+    }
+    
+    public void stop() {
+        running = false;
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Clear the window, score history and speech onset, e.g. before resuming after
+     * a detection. The voice detector keeps its noise floor.
+     */
+    public void reset() {
+        Arrays.fill(window, 0f);
+        Arrays.fill(recentScores, 0f);
+        scoreIndex = 0;
+        if (frontEnd != null) {
+            frontEnd.reset();
+        }
+        samplesProcessed = 0;
+        valuesFilled = 0;
+        windowChanged = false;
+        lastDetectionSample = Long.MIN_VALUE / 2;
+        vad.reset();
+        speechStartSample = -1;
+    }
+    
+    public float getLastScore() {
+        return lastScore;
+    }
+}
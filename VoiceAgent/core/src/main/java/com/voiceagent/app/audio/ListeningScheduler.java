@@ -0,0 +1,265 @@
+package com.voiceagent.app.audio;
+
+import java.util.Locale;
+
+/**
+ * Decides how long the always-on listener runs and sleeps between sessions.
+ * Errors back off exponentially by type; screen, battery, power-save mode,
+ * ambient noise and the recent wake word hit rate scale the sleep interval
+ * and shorten the listening window. Times are passed in so the policy can
+ * be replayed with a fake clock.
+ */
+public class ListeningScheduler {
+    
+    public enum Outcome {
+        WAKE_WORD,  // wake word heard
+        SPEECH,     // speech without the wake word
+        NO_SPEECH,  // no match / speech timeout
+        BUSY,       // recognizer busy or client error
+        NETWORK,    // network, server or quota errors
+        AUDIO,      // microphone or permission problems
+        IDLE        // listening window ended without speech
+    }
+    
+    public static class Decision {
+        public final long sleepMs;
+        public final long listenWindowMs; // 0 = listen until something happens
+        public final float factor;
+        public final String reason;
+        
+        Decision(long sleepMs, long listenWindowMs, float factor, String reason) {
+            this.sleepMs = sleepMs;
+            this.listenWindowMs = listenWindowMs;
+            this.factor = factor;
+            this.reason = reason;
+        }
+    }
+    
+    private static final long BASE_SLEEP_MS = 500;
+    private static final long MIN_SLEEP_MS = 250;
+    private static final long MAX_SLEEP_MS = 60000;
+    private static final long MIN_LISTEN_WINDOW_MS = 5000;
+    private static final long CONSTRAINED_LISTEN_WINDOW_MS = 30000;
+    private static final int MAX_BACKOFF_STEPS = 8;
+    private static final float LOUD_AMBIENT_DB = -30f;
+    private static final long RECENT_HIT_MS = 10 * 60 * 1000L;
+    private static final long QUIET_PERIOD_MS = 60 * 60 * 1000L;
+    
+    // Device state
+    private boolean screenOn = true;
+    private int batteryPercent = 100;
+    private boolean charging = false;
+    private boolean powerSave = false;
+    private float ambientDb = Float.NaN;
+    
+    // Error backoff
+    private Outcome lastErrorType = null;
+    private int consecutiveErrors = 0;
+    
+    private long lastWakeWordAt = -1;
+    private final long startedAt;
+    
+    // Metrics
+    private long decisions = 0;
+    private long wakeWords = 0;
+    private long errors = 0;
+    private long totalSleepMs = 0;
+    private long totalListenMs = 0;
+    private long listeningSince = -1;
+    private Decision lastDecision;
+    
+    public ListeningScheduler(long nowMs) {
+        this.startedAt = nowMs;
+    }
+    
+    public synchronized void setScreenOn(boolean screenOn) {
+        this.screenOn = screenOn;
+    }
+    
+    public synchronized void setBattery(int percent, boolean charging) {
+        this.batteryPercent = percent;
+        this.charging = charging;
+    }
+    
+    public synchronized void setPowerSave(boolean powerSave) {
+        this.powerSave = powerSave;
+    }
+    
+    /**
+     * Background noise level (dBFS), e.g. the VAD noise floor
+     */
+    public synchronized void setAmbientLevel(float db) {
+        this.ambientDb = db;
+    }
+    
+    public synchronized void onListeningStarted(long nowMs) {
+        if (listeningSince < 0) {
+            listeningSince = nowMs;
+        }
+    }
+    
+    public synchronized void onListeningStopped(long nowMs) {
+        if (listeningSince >= 0) {
+            totalListenMs += nowMs - listeningSince;
+            listeningSince = -1;
+        }
+    }
+    
+    /**
+     * Record how the last session ended and decide when to listen again
+     */
+    public synchronized Decision onSessionEnded(Outcome outcome, long nowMs) {
+        onListeningStopped(nowMs);
+        
+        long sleepMs;
+        String reason;
+        switch (outcome) {
+            case BUSY:
+            case NETWORK:
+            case AUDIO:
+            case NO_SPEECH:
+                errors++;
+                consecutiveErrors = outcome == lastErrorType ? consecutiveErrors + 1 : 1;
+                lastErrorType = outcome;
+                sleepMs = backoff(outcome, consecutiveErrors);
+                reason = outcome + " x" + consecutiveErrors;
+                break;
+            case WAKE_WORD:
+                wakeWords++;
+                lastWakeWordAt = nowMs;
+                clearErrors();
+                sleepMs = BASE_SLEEP_MS;
+                reason = outcome.toString();
+                break;
+            default:
+                clearErrors();
+                sleepMs = BASE_SLEEP_MS;
+                reason = outcome.toString();
+                break;
+        }
+        
+        StringBuilder reasons = new StringBuilder(reason);
+        float factor = conditionFactor(nowMs, reasons);
+        sleepMs = Math.max(MIN_SLEEP_MS, Math.min(MAX_SLEEP_MS, (long) (sleepMs * factor)));
+        
+        // Constrained conditions also cap how long each listening window lasts
+        long listenWindowMs = factor <= 1f ? 0
+            : Math.max(MIN_LISTEN_WINDOW_MS, (long) (CONSTRAINED_LISTEN_WINDOW_MS / factor));
+        
+        decisions++;
+        totalSleepMs += sleepMs;
+        lastDecision = new Decision(sleepMs, listenWindowMs, factor, reasons.toString());
+        return lastDecision;
+    }
+    
+    private void clearErrors() {
+        consecutiveErrors = 0;
+        lastErrorType = null;
+    }
+    
+    private long backoff(Outcome outcome, int attempt) {
+        long base;
+        long cap;
+        switch (outcome) {
+            case NO_SPEECH:
+                base = BASE_SLEEP_MS;
+                cap = 8000;
+                break;
+            case BUSY:
+                base = 1000;
+                cap = 30000;
+                break;
+            default:
+                base = 2000;
+                cap = MAX_SLEEP_MS;
+                break;
+        }
+        int steps = Math.min(attempt - 1, MAX_BACKOFF_STEPS);
+        return Math.min(cap, base << steps);
+    }
+    
+    /**
+     * Product of the device-state multipliers; >1 means listen less
+     */
+    private float conditionFactor(long nowMs, StringBuilder reasons) {
+        float factor = 1f;
+        
+        if (charging) {
+            reasons.append(", charging");
+            return 0.5f; // power is free, listen eagerly
+        }
+        if (!screenOn) {
+            factor *= 2f;
+            reasons.append(", screen off");
+        }
+        if (powerSave) {
+            factor *= 4f;
+            reasons.append(", power save");
+        }
+        if (batteryPercent <= 15) {
+            factor *= 4f;
+            reasons.append(", battery ").append(batteryPercent).append('%');
+        } else if (batteryPercent <= 30) {
+            factor *= 2f;
+            reasons.append(", battery ").append(batteryPercent).append('%');
+        }
+        if (!Float.isNaN(ambientDb) && ambientDb > LOUD_AMBIENT_DB) {
+            factor *= 2f; // loud places mostly produce false starts
+            reasons.append(", loud");
+        }
+        
+        long sinceHit = lastWakeWordAt < 0 ? nowMs - startedAt : nowMs - lastWakeWordAt;
+        if (lastWakeWordAt >= 0 && sinceHit < RECENT_HIT_MS) {
+            factor *= 0.5f; // user is actively talking to us
+            reasons.append(", recent hit");
+        } else if (sinceHit > QUIET_PERIOD_MS) {
+            factor *= 2f;
+            reasons.append(", no hits for ").append(sinceHit / 60000).append(" min");
+        }
+        return factor;
+    }
+    
+    public synchronized Decision getLastDecision() {
+        return lastDecision;
+    }
+    
+    /**
+     * Fraction of time spent listening, for comparing battery cost with the fixed loop
+     */
+    public synchronized float getDutyCycle(long nowMs) {
+        long listen = totalListenMs + (listeningSince >= 0 ? nowMs - listeningSince : 0);
+        long total = nowMs - startedAt;
+        return total <= 0 ? 0f : Math.min(1f, (float) listen / total);
+    }
+    
+    public synchronized long getDecisionCount() {
+        return decisions;
+    }
+    
+    public synchronized long getWakeWordCount() {
+        return wakeWords;
+    }
+    
+    public synchronized long getErrorCount() {
+        return errors;
+    }
+    
+    public synchronized long getAverageSleepMs() {
+        return decisions == 0 ? 0 : totalSleepMs / decisions;
+    }
+    
+    /**
+     * Wake words per hour since the scheduler started
+     */
+    public synchronized float getHitRatePerHour(long nowMs) {
+        long elapsed = nowMs - startedAt;
+        return elapsed <= 0 ? 0f : wakeWords * 3600000f / elapsed;
+    }
+    
+    public synchronized String getSummary(long nowMs) {
+        return String.format(Locale.US,
+            "%d decisions, avg sleep %d ms, duty cycle %.1f%%, %d errors, %.1f wake words/h, last: %s",
+            decisions, getAverageSleepMs(), getDutyCycle(nowMs) * 100, errors,
+            getHitRatePerHour(nowMs), lastDecision == null ? "-" : lastDecision.reason);
+    }
+}
@@ -0,0 +1,266 @@
+package com.voiceagent.app.audio;
+
+/**
+ * Streaming feature front end turning 16-bit PCM into log-mel (or MFCC) frames:
+ * pre-emphasis, Hann window, real FFT with precomputed twiddles, mel filterbank,
+ * log compression and optional DCT.
+ * All working buffers are allocated up front; processing a frame allocates nothing.
+ */
+public class LogMelFrontEnd {
+    
+    public interface FrameListener {
+        /**
+         * Called for every completed frame. The array is reused; copy it to keep it.
+         */
+        void onFeatureFrame(float[] features);
+    }
+    
+    private static final float PRE_EMPHASIS = 0.97f;
+    private static final float LOG_FLOOR = 1e-6f;
+    
+    private final int frameLength;
+    private final int hopLength;
+    private final int fftSize;
+    private final int numMelBands;
+    private final int numCoefficients; // 0 = log-mel output, otherwise MFCC count
+    
+    // Precomputed tables
+    private final float[] window;
+    private final int[] bitReverse;
+    private final float[] fftCos;
+    private final float[] fftSin;
+    private final float[] splitCos;
+    private final float[] splitSin;
+    private final int[] melStart;
+    private final int[] melEnd;
+    private final float[][] melWeights;
+    private final float[][] dct;
+    
+    // Reused working buffers
+    private final float[] frame;
+    private final float[] re;
+    private final float[] im;
+    private final float[] power;
+    private final float[] logMel;
+    private final float[] output;
+    
+    private int samplesInFrame = 0;
+    private float previousSample = 0f;
+    
+    /**
+     * Log-mel front end with 25 ms frames, 10 ms hop and a 512-point FFT at 16 kHz
+     */
+    public LogMelFrontEnd(int sampleRate, int numMelBands) {
+        this(sampleRate, sampleRate / 40, sampleRate / 100, 512, numMelBands, 0);
+    }
+    
+    /**
+     * @param numCoefficients number of MFCCs to output, or 0 for log-mel energies
+     */
+    public LogMelFrontEnd(int sampleRate, int frameLength, int hopLength, int fftSize,
+                          int numMelBands, int numCoefficients) {
+        if (Integer.bitCount(fftSize) != 1 || fftSize < frameLength) {
+            throw new IllegalArgumentException("FFT size must be a power of two >= frame length");
+        }
+        
+        this.frameLength = frameLength;
+        this.hopLength = hopLength;
+        this.fftSize = fftSize;
+        this.numMelBands = numMelBands;
+        this.numCoefficients = numCoefficients;
+        
+        int half = fftSize / 2;
+        int numBins = half + 1;
+        
+        window = new float[frameLength];
+        for (int i = 0; i < frameLength; i++) {
+            window[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / (frameLength - 1)));
+        }
+        
+        // Complex FFT of size N/2 over the packed real input
+        bitReverse = new int[half];
+        int bits = Integer.numberOfTrailingZeros(half);
+        for (int i = 0; i < half; i++) {
+            bitReverse[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+        fftCos = new float[half / 2];
+        fftSin = new float[half / 2];
+        for (int i = 0; i < half / 2; i++) {
+            fftCos[i] = (float) Math.cos(2 * Math.PI * i / half);
+            fftSin[i] = (float) -Math.sin(2 * Math.PI * i / half);
+        }
+        
+        // Twiddles splitting the half-size result into the real spectrum
+        splitCos = new float[numBins];
+        splitSin = new float[numBins];
+        for (int k = 0; k < numBins; k++) {
+            splitCos[k] = (float) Math.cos(2 * Math.PI * k / fftSize);
+            splitSin[k] = (float) -Math.sin(2 * Math.PI * k / fftSize);
+        }
+        
+        // Triangular HTK-style mel filters, stored sparsely
+        melStart = new int[numMelBands];
+        melEnd = new int[numMelBands];
+        melWeights = new float[numMelBands][];
+        double melLow = hzToMel(20.0);
+        double melHigh = hzToMel(sampleRate / 2.0);
+        double[] edges = new double[numMelBands + 2];
+        for (int i = 0; i < edges.length; i++) {
+            double mel = melLow + (melHigh - melLow) * i / (numMelBands + 1);
+            edges[i] = melToHz(mel) * fftSize / sampleRate; // in FFT bins
+        }
+        for (int b = 0; b < numMelBands; b++) {
+            double left = edges[b];
+            double center = edges[b + 1];
+            double right = edges[b + 2];
+            int start = (int) Math.ceil(left);
+            int end = Math.min(numBins - 1, (int) Math.floor(right));
+            melStart[b] = start;
+            melEnd[b] = Math.max(start, end);
+            melWeights[b] = new float[melEnd[b] - start + 1];
+            for (int k = start; k <= melEnd[b]; k++) {
+                double weight = k <= center
+                    ? (k - left) / (center - left)
+                    : (right - k) / (right - center);
+                melWeights[b][k - start] = (float) Math.max(0.0, weight);
+            }
+        }
+        
+        // Orthonormal DCT-II for MFCCs
+        if (numCoefficients > 0) {
+            dct = new float[numCoefficients][numMelBands];
+            for (int c = 0; c < numCoefficients; c++) {
+                double scale = Math.sqrt((c == 0 ? 1.0 : 2.0) / numMelBands);
+                for (int m = 0; m < numMelBands; m++) {
+                    dct[c][m] = (float) (scale * Math.cos(Math.PI * c * (m + 0.5) / numMelBands));
+                }
+            }
+        } else {
+            dct = null;
+        }
+        
+        frame = new float[frameLength];
+        re = new float[half];
+        im = new float[half];
+        power = new float[numBins];
+        logMel = new float[numMelBands];
+        output = numCoefficients > 0 ? new float[numCoefficients] : logMel;
+    }
+    
+    /**
+     * Push samples; the listener is called once per completed frame
+     */
+    public void process(short[] samples, int offset, int length, FrameListener listener) {
+        for (int i = 0; i < length; i++) {
+            float sample = samples[offset + i] / 32768f;
+            frame[samplesInFrame++] = sample - PRE_EMPHASIS * previousSample;
+            previousSample = sample;
+            
+            if (samplesInFrame == frameLength) {
+                computeFeatures();
+                listener.onFeatureFrame(output);
+                
+                // Keep the overlap for the next frame
+                System.arraycopy(frame, hopLength, frame, 0, frameLength - hopLength);
+                samplesInFrame = frameLength - hopLength;
+            }
+        }
+    }
+    
+    /**
+     * Drop buffered samples, e.g. when the audio stream restarts
+     */
+    public void reset() {
+        samplesInFrame = 0;
+        previousSample = 0f;
+    }
+    
+    public int getFeatureCount() {
+        return numCoefficients > 0 ? numCoefficients : numMelBands;
+    }
+    
+    public int getHopLength() {
+        return hopLength;
+    }
+    
+    private void computeFeatures() {
+        int half = fftSize / 2;
+        
+        // Window and pack even/odd samples as real/imaginary parts (zero padded)
+        for (int i = 0; i < half; i++) {
+            int even = 2 * i;
+            int odd = even + 1;
+            int target = bitReverse[i];
+            re[target] = even < frameLength ? frame[even] * window[even] : 0f;
+            im[target] = odd < frameLength ? frame[odd] * window[odd] : 0f;
+        }
+        
+        // Iterative radix-2 FFT over the bit-reversed buffer
+        for (int size = 2; size <= half; size <<= 1) {
+            int halfSize = size >> 1;
+            int step = half / size;
+            for (int start = 0; start < half; start += size) {
+                for (int j = 0; j < halfSize; j++) {
+                    float wr = fftCos[j * step];
+                    float wi = fftSin[j * step];
+                    int a = start + j;
+                    int b = a + halfSize;
+                    float tr = re[b] * wr - im[b] * wi;
+                    float ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+        
+        // Split into the spectrum of the real input and take the power
+        for (int k = 0; k <= half; k++) {
+            int k1 = k % half;
+            int k2 = (half - k) % half;
+            float zr = re[k1];
+            float zi = im[k1];
+            float cr = re[k2];
+            float ci = -im[k2];
+            
+            float evenRe = 0.5f * (zr + cr);
+            float evenIm = 0.5f * (zi + ci);
+            float oddRe = 0.5f * (zi - ci);
+            float oddIm = -0.5f * (zr - cr);
+            
+            float xr = evenRe + splitCos[k] * oddRe - splitSin[k] * oddIm;
+            float xi = evenIm + splitCos[k] * oddIm + splitSin[k] * oddRe;
+            power[k] = xr * xr + xi * xi;
+        }
+        
+        for (int b = 0; b < numMelBands; b++) {
+            float[] weights = melWeights[b];
+            int start = melStart[b];
+            float energy = 0f;
+            for (int k = 0; k < weights.length; k++) {
+                energy += weights[k] * power[start + k];
+            }
+            logMel[b] = (float) Math.log(energy + LOG_FLOOR);
+        }
+        
+        if (dct != null) {
+            for (int c = 0; c < numCoefficients; c++) {
+                float sum = 0f;
+                float[] row = dct[c];
+                for (int m = 0; m < numMelBands; m++) {
+                    sum += row[m] * logMel[m];
+                }
+                output[c] = sum;
+            }
+        }
+    }
+    
+    private static double hzToMel(double hz) {
+        return 2595.0 * Math.log10(1.0 + hz / 700.0);
+    }
+    
+    private static double melToHz(double mel) {
+        return 700.0 * (Math.pow(10.0, mel / 2595.0) - 1.0);
+    }
+}
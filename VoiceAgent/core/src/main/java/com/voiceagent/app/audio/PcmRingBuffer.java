@@ -0,0 +1,106 @@
+package com.voiceagent.app.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of preallocated direct PCM buffers.
+ * The recording thread claims a slot, fills it and publishes it; the consumer
+ * polls and releases slots in order. Nothing is allocated after construction.
+ */
+public class PcmRingBuffer {
+    
+    private final ByteBuffer[] slots;
+    private final ShortBuffer[] samples;
+    private final int[] lengths;
+    private final int mask;
+    private final int frameSize;
+    
+    private final AtomicLong head = new AtomicLong(); // next slot to read, owned by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, owned by the producer
+    private final AtomicLong overruns = new AtomicLong();
+    
+    /**
+     * @param slotCount number of frames, must be a power of two
+     * @param frameSize samples per frame
+     */
+    public PcmRingBuffer(int slotCount, int frameSize) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two");
+        }
+        
+        this.slots = new ByteBuffer[slotCount];
+        this.samples = new ShortBuffer[slotCount];
+        this.lengths = new int[slotCount];
+        this.mask = slotCount - 1;
+        this.frameSize = frameSize;
+        
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = ByteBuffer.allocateDirect(frameSize * 2).order(ByteOrder.nativeOrder());
+            samples[i] = slots[i].asShortBuffer();
+        }
+    }
+    
+    /**
+     * Producer: next free slot to record into, or null if the consumer has fallen behind
+     */
+    public ByteBuffer claim() {
+        long t = tail.get();
+        if (t - head.get() == slots.length) {
+            overruns.incrementAndGet();
+            return null;
+        }
+        ByteBuffer slot = slots[(int) (t & mask)];
+        slot.clear();
+        return slot;
+    }
+    
+    /**
+     * Producer: make the claimed slot visible to the consumer
+     */
+    public void publish(int sampleCount) {
+        long t = tail.get();
+        lengths[(int) (t & mask)] = sampleCount;
+        tail.lazySet(t + 1);
+    }
+    
+    /**
+     * Consumer: oldest published frame (limit = sample count), or null if empty.
+     * The frame stays valid until release() is called.
+     */
+    public ShortBuffer poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        int index = (int) (h & mask);
+        ShortBuffer frame = samples[index];
+        frame.clear();
+        frame.limit(lengths[index]);
+        return frame;
+    }
+    
+    /**
+     * Consumer: hand the polled slot back to the producer
+     */
+    public void release() {
+        head.lazySet(head.get() + 1);
+    }
+    
+    public int getFrameSize() {
+        return frameSize;
+    }
+    
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+    
+    /**
+     * Frames dropped because the ring was full
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+}
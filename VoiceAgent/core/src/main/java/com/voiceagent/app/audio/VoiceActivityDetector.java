@@ -0,0 +1,127 @@
+package com.voiceagent.app.audio;
+
+import java.nio.ShortBuffer;
+
+/**
+ * Cheap energy and zero-crossing voice activity detector.
+ * The noise floor tracks the quietest recent frames (falls quickly, rises slowly),
+ * so a frame counts as speech when it is clearly above the floor and its
+ * zero-crossing rate looks like voice rather than hiss or hum.
+ * Onset and hangover counts add hysteresis so single clicks don't trigger it.
+ */
+public class VoiceActivityDetector {
+    
+    private static final float MIN_SPEECH_DB = -55f;   // absolute floor for speech energy (dBFS)
+    private static final float MIN_ZCR = 0.01f;        // below: hum / DC
+    private static final float MAX_ZCR = 0.45f;        // above: broadband noise
+    private static final float FLOOR_FALL = 0.5f;
+    private static final float FLOOR_RISE = 0.02f;
+    private static final float FLOOR_RISE_IN_SPEECH = 0.002f; // recovers from a step in background noise
+    
+    private final float marginDb;
+    private final int onsetFrames;
+    private final int hangoverFrames;
+    
+    private float noiseFloorDb = Float.NaN;
+    private float lastEnergyDb = -100f;
+    private float lastZeroCrossingRate = 0f;
+    private int speechRun = 0;
+    private int silenceRun = 0;
+    private boolean speech = false;
+    
+    /**
+     * @param marginDb how far above the noise floor speech must be
+     * @param onsetFrames consecutive speech-like frames before reporting speech
+     * @param hangoverFrames consecutive quiet frames before reporting silence again
+     */
+    public VoiceActivityDetector(float marginDb, int onsetFrames, int hangoverFrames) {
+        this.marginDb = marginDb;
+        this.onsetFrames = onsetFrames;
+        this.hangoverFrames = hangoverFrames;
+    }
+    
+    /**
+     * Analyse one frame (position to limit). Returns true while speech is active.
+     */
+    public boolean process(ShortBuffer frame) {
+        int start = frame.position();
+        int end = frame.limit();
+        if (end <= start) {
+            return speech;
+        }
+        
+        double sumSquares = 0;
+        int crossings = 0;
+        int previous = frame.get(start);
+        for (int i = start; i < end; i++) {
+            int sample = frame.get(i);
+            sumSquares += (double) sample * sample;
+            if ((sample >= 0) != (previous >= 0)) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        
+        int length = end - start;
+        double meanSquare = sumSquares / length / (32768.0 * 32768.0);
+        lastEnergyDb = (float) (10 * Math.log10(meanSquare + 1e-10));
+        lastZeroCrossingRate = (float) crossings / length;
+        
+        if (Float.isNaN(noiseFloorDb)) {
+            noiseFloorDb = lastEnergyDb;
+        }
+        
+        boolean speechLike = lastEnergyDb > noiseFloorDb + marginDb
+            && lastEnergyDb > MIN_SPEECH_DB
+            && lastZeroCrossingRate >= MIN_ZCR
+            && lastZeroCrossingRate <= MAX_ZCR;
+        
+        float rate;
+        if (lastEnergyDb < noiseFloorDb) {
+            rate = FLOOR_FALL;
+        } else {
+            rate = speechLike ? FLOOR_RISE_IN_SPEECH : FLOOR_RISE;
+        }
+        noiseFloorDb += (lastEnergyDb - noiseFloorDb) * rate;
+        
+        if (speechLike) {
+            speechRun++;
+            silenceRun = 0;
+            if (speechRun >= onsetFrames) {
+                speech = true;
+            }
+        } else {
+            silenceRun++;
+            speechRun = 0;
+            if (silenceRun >= hangoverFrames) {
+                speech = false;
+            }
+        }
+        return speech;
+    }
+    
+    public boolean isSpeech() {
+        return speech;
+    }
+    
+    public float getNoiseFloorDb() {
+        return noiseFloorDb;
+    }
+    
+    public float getLastEnergyDb() {
+        return lastEnergyDb;
+    }
+    
+    public float getLastZeroCrossingRate() {
+        return lastZeroCrossingRate;
+    }
+    
+    /**
+     * Forget the speech state but keep the learned noise floor
+     */
+    public void reset() {
+        speechRun = 0;
+        silenceRun = 0;
+        speech = false;
+    }
+}
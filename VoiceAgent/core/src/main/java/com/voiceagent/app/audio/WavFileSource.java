@@ -0,0 +1,119 @@
+package com.voiceagent.app.audio;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads 16-bit mono PCM from a WAV file, so recorded audio can be fed
+ * through the same frame pipeline as the microphone
+ */
+public class WavFileSource implements AudioFrameSource {
+    
+    private final DataInputStream input;
+    private final int sampleRate;
+    private long remainingBytes;
+    
+    public WavFileSource(File file) throws IOException {
+        this(new FileInputStream(file));
+    }
+    
+    public WavFileSource(InputStream stream) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(stream));
+        
+        if (readTag() != 0x46464952 /* RIFF */) {
+            throw new IOException("Not a RIFF file");
+        }
+        readIntLE(); // file size
+        if (readTag() != 0x45564157 /* WAVE */) {
+            throw new IOException("Not a WAVE file");
+        }
+        
+        int rate = -1;
+        while (true) {
+            int tag = readTag();
+            long size = readIntLE() & 0xFFFFFFFFL;
+            
+            if (tag == 0x20746d66 /* fmt */) {
+                int format = readShortLE();
+                int channels = readShortLE();
+                rate = readIntLE();
+                readIntLE(); // byte rate
+                readShortLE(); // block align
+                int bitsPerSample = readShortLE();
+                input.skipBytes((int) size - 16);
+                
+                if (format != 1 || channels != 1 || bitsPerSample != 16) {
+                    throw new IOException("Expected 16-bit mono PCM, got format=" + format +
+                        " channels=" + channels + " bits=" + bitsPerSample);
+                }
+            } else if (tag == 0x61746164 /* data */) {
+                if (rate < 0) {
+                    throw new IOException("data chunk before fmt chunk");
+                }
+                remainingBytes = size;
+                break;
+            } else {
+                // Skip chunks we don't need (LIST, fact, ...), padded to even size
+                input.skipBytes((int) (size + (size & 1)));
+            }
+        }
+        
+        this.sampleRate = rate;
+    }
+    
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+    
+    @Override
+    public int read(short[] buffer, int offset, int length) throws IOException {
+        if (remainingBytes < 2) {
+            return -1;
+        }
+        
+        int count = (int) Math.min(length, remainingBytes / 2);
+        try {
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (short) readShortLE();
+            }
+        } catch (EOFException e) {
+            remainingBytes = 0;
+            return -1;
+        }
+        remainingBytes -= count * 2L;
+        return count;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+    
+    private int readTag() throws IOException {
+        return readIntLE();
+    }
+    
+    private int readIntLE() throws IOException {
+        int b0 = input.readUnsignedByte();
+        int b1 = input.readUnsignedByte();
+        int b2 = input.readUnsignedByte();
+        int b3 = input.readUnsignedByte();
+        return b0 | (b1 << 8) | (b2 << 16) | (b3 << 24);
+    }
+    
+    private int readShortLE() throws IOException {
+        int b0 = input.readUnsignedByte();
+        int b1 = input.readUnsignedByte();
+        return (short) (b0 | (b1 << 8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.voiceagent.app.diagnostics;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes spans in the Chrome trace event JSON format, which ui.perfetto.dev and
+ * chrome://tracing open directly. Spans become complete ("X") events on their
+ * thread's track, instants become "i" events.
+ */
+public class ChromeTraceWriter {
+    
+    private static final int PID = 1;
+    
+    public static void write(List<Tracer.Span> spans, String processName, Writer out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject();
+        json.name("displayTimeUnit").value("ms");
+        json.name("traceEvents").beginArray();
+        
+        metadata(json, "process_name", 0, processName);
+        Map<Long, String> threads = new LinkedHashMap<>();
+        for (Tracer.Span span : spans) {
+            if (!threads.containsKey(span.threadId)) {
+                threads.put(span.threadId, span.threadName != null ? span.threadName : "thread-" + span.threadId);
+            }
+        }
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            metadata(json, "thread_name", thread.getKey(), thread.getValue());
+        }
+        
+        for (Tracer.Span span : spans) {
+            json.beginObject();
+            json.name("name").value(span.name);
+            json.name("cat").value(category(span.name));
+            json.name("pid").value(PID);
+            json.name("tid").value(span.threadId);
+            json.name("ts").value(span.startNanos / 1000.0);
+            if (span.isInstant()) {
+                json.name("ph").value("i");
+                json.name("s").value("t");
+            } else {
+                json.name("ph").value("X");
+                json.name("dur").value(span.durationNanos / 1000.0);
+            }
+            json.endObject();
+        }
+        
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+    
+    private static void metadata(JsonWriter json, String kind, long threadId, String name) throws IOException {
+        json.beginObject();
+        json.name("name").value(kind);
+        json.name("ph").value("M");
+        json.name("pid").value(PID);
+        json.name("tid").value(threadId);
+        json.name("args").beginObject().name("name").value(name).endObject();
+        json.endObject();
+    }
+    
+    /**
+     * "claude.http" is in category "claude"
+     */
+    private static String category(String name) {
+        int dot = name.indexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -0,0 +1,33 @@
+package com.voiceagent.app.diagnostics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic event count. Striped across cells, so threads incrementing at the
+ * same time do not contend on one cache line.
+ */
+public final class Counter {
+    
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    
+    Counter(String name) {
+        this.name = name;
+    }
+    
+    public void increment() {
+        count.increment();
+    }
+    
+    public void add(long delta) {
+        count.add(delta);
+    }
+    
+    public long get() {
+        return count.sum();
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,48 @@
+package com.voiceagent.app.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current value of something, either set by the owner or read on demand
+ */
+public final class Gauge {
+    
+    /**
+     * Value read when the gauge is sampled
+     */
+    public interface Source {
+        long read();
+    }
+    
+    private final String name;
+    private final AtomicLong value = new AtomicLong();
+    private volatile Source source;
+    
+    Gauge(String name) {
+        this.name = name;
+    }
+    
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+    
+    public void add(long delta) {
+        value.addAndGet(delta);
+    }
+    
+    /**
+     * Read the value from a source instead of set(), e.g. a queue's size
+     */
+    public void setSource(Source newSource) {
+        source = newSource;
+    }
+    
+    public long get() {
+        Source current = source;
+        return current != null ? current.read() : value.get();
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,133 @@
+package com.voiceagent.app.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory latency histogram in microseconds with log-linear buckets, as in
+ * HdrHistogram: values below 64 us are exact, above that each power of two is
+ * split into 32 buckets, so percentiles are within about 3%. Values of 2^37 us
+ * (about 38 hours) and above go into the last bucket. Recording is lock-free.
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // per power of two
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;   // exact values 0..63
+    private static final int MAX_SHIFT = 31;
+    public static final int BUCKET_COUNT = LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+    
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    
+    /**
+     * Point-in-time copy with percentile queries
+     */
+    public static final class Snapshot {
+        public final long count;
+        public final long sumMicros;
+        public final long maxMicros;
+        private final long[] counts;
+        
+        Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+        
+        /**
+         * Upper bound of the bucket holding the given percentile (0-100), in microseconds
+         */
+        public long percentile(double percentile) {
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+        
+        public double meanMicros() {
+            return count > 0 ? (double) sumMicros / count : 0;
+        }
+    }
+    
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+    
+    public void recordMicros(long micros) {
+        long value = Math.max(0, micros);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retry until the larger value sticks
+        }
+    }
+    
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+    
+    /**
+     * Record the time since a System.nanoTime() reading
+     */
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts, count.sum(), sum.sum(), max.get());
+    }
+    
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        // Shift so the top SUB_BUCKET_BITS + 1 bits remain: 32..63
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+    
+    static long upperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.voiceagent.app.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms. Lookups
+ * create the metric on first use. Hot paths should keep the returned instance
+ * in a static field so recording is a plain lock-free update.
+ *
+ * <pre>
+ * private static final LatencyHistogram NORMALIZE = Metrics.histogram("learning.normalize");
+ * ...
+ * long start = System.nanoTime();
+ * ...
+ * NORMALIZE.recordSince(start);
+ * </pre>
+ */
+public final class Metrics {
+    
+    private static final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    
+    private static final Comparator<Counter> COUNTER_ORDER = (a, b) -> a.getName().compareTo(b.getName());
+    private static final Comparator<Gauge> GAUGE_ORDER = (a, b) -> a.getName().compareTo(b.getName());
+    private static final Comparator<LatencyHistogram> HISTOGRAM_ORDER = (a, b) -> a.getName().compareTo(b.getName());
+    
+    private Metrics() {
+    }
+    
+    public static Counter counter(String name) {
+        Counter counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, Counter::new);
+    }
+    
+    public static Gauge gauge(String name) {
+        Gauge gauge = gauges.get(name);
+        return gauge != null ? gauge : gauges.computeIfAbsent(name, Gauge::new);
+    }
+    
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+    
+    /**
+     * All counters sorted by name
+     */
+    public static List<Counter> counters() {
+        List<Counter> list = new ArrayList<>(counters.values());
+        Collections.sort(list, COUNTER_ORDER);
+        return list;
+    }
+    
+    /**
+     * All gauges sorted by name
+     */
+    public static List<Gauge> gauges() {
+        List<Gauge> list = new ArrayList<>(gauges.values());
+        Collections.sort(list, GAUGE_ORDER);
+        return list;
+    }
+    
+    /**
+     * All histograms sorted by name
+     */
+    public static List<LatencyHistogram> histograms() {
+        List<LatencyHistogram> list = new ArrayList<>(histograms.values());
+        Collections.sort(list, HISTOGRAM_ORDER);
+        return list;
+    }
+}
@@ -0,0 +1,58 @@
+package com.voiceagent.app.diagnostics;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the current state of every registered metric as JSON. Histograms
+ * include their percentiles, not the raw buckets.
+ */
+public class MetricsWriter {
+    
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+    
+    public static void write(long timestampMillis, long uptimeMillis, Writer out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("timestamp").value(timestampMillis);
+        json.name("uptimeMs").value(uptimeMillis);
+        
+        json.name("counters").beginObject();
+        for (Counter counter : Metrics.counters()) {
+            json.name(counter.getName()).value(counter.get());
+        }
+        json.endObject();
+        
+        json.name("gauges").beginObject();
+        for (Gauge gauge : Metrics.gauges()) {
+            json.name(gauge.getName()).value(gauge.get());
+        }
+        json.endObject();
+        
+        json.name("histograms").beginObject();
+        for (LatencyHistogram histogram : Metrics.histograms()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            json.name(histogram.getName()).beginObject();
+            json.name("count").value(snapshot.count);
+            json.name("meanUs").value(Math.round(snapshot.meanMicros()));
+            for (double percentile : PERCENTILES) {
+                json.name(percentileKey(percentile)).value(snapshot.percentile(percentile));
+            }
+            json.name("maxUs").value(snapshot.maxMicros);
+            json.endObject();
+        }
+        json.endObject();
+        
+        json.endObject();
+        json.flush();
+    }
+    
+    private static String percentileKey(double percentile) {
+        String digits = percentile == Math.rint(percentile)
+            ? String.valueOf((long) percentile)
+            : String.valueOf(percentile).replace(".", "");
+        return "p" + digits + "Us";
+    }
+}
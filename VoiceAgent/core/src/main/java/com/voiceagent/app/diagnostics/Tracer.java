@@ -0,0 +1,173 @@
+package com.voiceagent.app.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide span recorder. Spans go into a preallocated ring buffer, so
+ * recording allocates nothing and the oldest spans are overwritten first.
+ * Thread names are read once per thread and kept with each span, so nothing
+ * grows with the number of threads that ever recorded.
+ * When disabled, begin() is one volatile read and end() returns immediately.
+ *
+ * <pre>
+ * long span = Tracer.begin();
+ * ...
+ * Tracer.end("learning.normalize", span);
+ * </pre>
+ */
+public final class Tracer {
+    
+    public static final int CAPACITY = 8192; // power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final long INSTANT = -1;
+    
+    private static volatile boolean enabled = false;
+    
+    private static final String[] names = new String[CAPACITY];
+    private static final long[] startNanos = new long[CAPACITY];
+    private static final long[] durationNanos = new long[CAPACITY];
+    private static final long[] threadIds = new long[CAPACITY];
+    private static final String[] threadNames = new String[CAPACITY];
+    // Sequence number written last; -1 while a slot is being overwritten
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong cursor = new AtomicLong();
+    private static final ThreadLocal<String> currentThreadName =
+        ThreadLocal.withInitial(() -> Thread.currentThread().getName());
+    
+    /**
+     * A recorded span, copied out of the buffer
+     */
+    public static final class Span {
+        public final String name;
+        public final long startNanos;
+        public final long durationNanos; // -1 for instant events
+        public final long threadId;
+        public final String threadName;
+        
+        Span(String name, long startNanos, long durationNanos, long threadId, String threadName) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.threadId = threadId;
+            this.threadName = threadName;
+        }
+        
+        public boolean isInstant() {
+            return durationNanos == INSTANT;
+        }
+    }
+    
+    private Tracer() {
+    }
+    
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            published.set(i, -1);
+        }
+    }
+    
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+    
+    public static boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Start time for a span, or 0 when tracing is off
+     */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+    
+    /**
+     * Record a span started with begin(); does nothing if tracing was off at begin()
+     */
+    public static void end(String name, long beginNanos) {
+        if (beginNanos != 0) {
+            write(name, beginNanos, System.nanoTime() - beginNanos);
+        }
+    }
+    
+    /**
+     * Record a span measured elsewhere, on the calling thread's track
+     */
+    public static void record(String name, long beginNanos, long durationNanos) {
+        if (enabled) {
+            write(name, beginNanos, Math.max(0, durationNanos));
+        }
+    }
+    
+    /**
+     * Record a point in time, e.g. a wake word detection
+     */
+    public static void instant(String name) {
+        if (enabled) {
+            write(name, System.nanoTime(), INSTANT);
+        }
+    }
+    
+    private static void write(String name, long start, long duration) {
+        long threadId = Thread.currentThread().getId();
+        String threadName = currentThreadName.get();
+        
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) (sequence & MASK);
+        published.set(slot, -1);
+        names[slot] = name;
+        startNanos[slot] = start;
+        durationNanos[slot] = duration;
+        threadIds[slot] = threadId;
+        threadNames[slot] = threadName;
+        published.lazySet(slot, sequence);
+    }
+    
+    /**
+     * Spans that started within [fromNanos, toNanos], oldest first.
+     * Slots overwritten while copying are skipped.
+     */
+    public static List<Span> snapshot(long fromNanos, long toNanos) {
+        long end = cursor.get();
+        long begin = Math.max(0, end - CAPACITY);
+        List<Span> spans = new ArrayList<>();
+        for (long sequence = begin; sequence < end; sequence++) {
+            int slot = (int) (sequence & MASK);
+            if (published.get(slot) != sequence) {
+                continue;
+            }
+            String name = names[slot];
+            long start = startNanos[slot];
+            long duration = durationNanos[slot];
+            long threadId = threadIds[slot];
+            String threadName = threadNames[slot];
+            if (published.get(slot) != sequence) {
+                continue;
+            }
+            if (start >= fromNanos && start <= toNanos) {
+                spans.add(new Span(name, start, duration, threadId, threadName));
+            }
+        }
+        return spans;
+    }
+    
+    /**
+     * Spans from the last windowMs milliseconds
+     */
+    public static List<Span> snapshotLast(long windowMs) {
+        long now = System.nanoTime();
+        return snapshot(now - windowMs * 1_000_000L, now);
+    }
+    
+    /**
+     * Drop everything recorded so far
+     */
+    public static void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            published.set(i, -1);
+        }
+    }
+}
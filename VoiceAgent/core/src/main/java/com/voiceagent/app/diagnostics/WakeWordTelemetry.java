@@ -0,0 +1,170 @@
+package com.voiceagent.app.diagnostics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wake word service counters grouped by hour and detection strategy. Counts
+ * accumulate in memory until drain(), which hands back what changed since the
+ * last drain so the caller can add it to the stored hours.
+ */
+public class WakeWordTelemetry {
+    
+    public static final long HOUR_MS = 3600000;
+    
+    /**
+     * Totals for one hour under one strategy
+     */
+    public static class Hour {
+        public long hourStart;       // epoch millis, start of the hour
+        public String strategy = ""; // e.g. "spotter/on_device"
+        public int sessions;
+        public long sessionMs;
+        public final Map<Integer, Integer> errors = new TreeMap<>(); // onError code -> restarts
+        public int detections;
+        public int timedDetections;  // detections with a known start of speech
+        public long detectionLatencyMs;
+        public long maxDetectionLatencyMs;
+        public long cpuMs;
+        public int falseWakes;       // dismissed by the user
+        public int wakesWithoutCommand;
+        
+        public int getErrorCount() {
+            int total = 0;
+            for (int count : errors.values()) {
+                total += count;
+            }
+            return total;
+        }
+        
+        /**
+         * Add another delta for the same hour and strategy
+         */
+        public void add(Hour other) {
+            sessions += other.sessions;
+            sessionMs += other.sessionMs;
+            for (Map.Entry<Integer, Integer> error : other.errors.entrySet()) {
+                Integer count = errors.get(error.getKey());
+                errors.put(error.getKey(), (count != null ? count : 0) + error.getValue());
+            }
+            detections += other.detections;
+            timedDetections += other.timedDetections;
+            detectionLatencyMs += other.detectionLatencyMs;
+            maxDetectionLatencyMs = Math.max(maxDetectionLatencyMs, other.maxDetectionLatencyMs);
+            cpuMs += other.cpuMs;
+            falseWakes += other.falseWakes;
+            wakesWithoutCommand += other.wakesWithoutCommand;
+        }
+        
+        /**
+         * Error counts as "code=count,code=count"
+         */
+        public String encodeErrors() {
+            StringBuilder encoded = new StringBuilder();
+            for (Map.Entry<Integer, Integer> error : errors.entrySet()) {
+                if (encoded.length() > 0) {
+                    encoded.append(',');
+                }
+                encoded.append(error.getKey()).append('=').append(error.getValue());
+            }
+            return encoded.toString();
+        }
+        
+        public void decodeErrors(String encoded) {
+            errors.clear();
+            if (encoded == null || encoded.isEmpty()) {
+                return;
+            }
+            for (String pair : encoded.split(",")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    try {
+                        errors.put(Integer.parseInt(pair.substring(0, equals)),
+                            Integer.parseInt(pair.substring(equals + 1)));
+                    } catch (NumberFormatException e) {
+                        // Skip the damaged pair, keep the rest
+                    }
+                }
+            }
+        }
+    }
+    
+    private final Map<String, Hour> pending = new LinkedHashMap<>();
+    private String strategy = "unknown";
+    
+    /**
+     * Strategy recorded against everything from now on
+     */
+    public synchronized void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+    
+    public synchronized String getStrategy() {
+        return strategy;
+    }
+    
+    public synchronized void onSessionEnded(long nowMs, long durationMs) {
+        Hour hour = current(nowMs);
+        hour.sessions++;
+        hour.sessionMs += Math.max(0, durationMs);
+    }
+    
+    /**
+     * A recognizer error that made the service restart listening
+     */
+    public synchronized void onRecognizerError(long nowMs, int code) {
+        Map<Integer, Integer> errors = current(nowMs).errors;
+        Integer count = errors.get(code);
+        errors.put(code, (count != null ? count : 0) + 1);
+    }
+    
+    /**
+     * @param latencyMs time from the start of speech to the detection, or -1 if unknown
+     */
+    public synchronized void onDetection(long nowMs, long latencyMs) {
+        Hour hour = current(nowMs);
+        hour.detections++;
+        if (latencyMs >= 0) {
+            hour.timedDetections++;
+            hour.detectionLatencyMs += latencyMs;
+            hour.maxDetectionLatencyMs = Math.max(hour.maxDetectionLatencyMs, latencyMs);
+        }
+    }
+    
+    public synchronized void onCpuTime(long nowMs, long cpuMs) {
+        current(nowMs).cpuMs += Math.max(0, cpuMs);
+    }
+    
+    public synchronized void onFalseWake(long nowMs) {
+        current(nowMs).falseWakes++;
+    }
+    
+    public synchronized void onWakeWithoutCommand(long nowMs) {
+        current(nowMs).wakesWithoutCommand++;
+    }
+    
+    /**
+     * Everything recorded since the last drain, one entry per hour and strategy
+     */
+    public synchronized List<Hour> drain() {
+        List<Hour> hours = new ArrayList<>(pending.values());
+        pending.clear();
+        return hours;
+    }
+    
+    private Hour current(long nowMs) {
+        long hourStart = nowMs - nowMs % HOUR_MS;
+        String key = hourStart + "/" + strategy;
+        Hour hour = pending.get(key);
+        if (hour == null) {
+            hour = new Hour();
+            hour.hourStart = hourStart;
+            hour.strategy = strategy;
+            pending.put(key, hour);
+        }
+        return hour;
+    }
+}
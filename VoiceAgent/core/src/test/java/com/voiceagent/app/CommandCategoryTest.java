@@ -0,0 +1,37 @@
+package com.voiceagent.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CommandCategoryTest {
+    
+    @Test
+    public void keywordsMatchInDispatchOrder() {
+        assertEquals(CommandCategory.CALL, CommandCategory.classify("dial mom"));
+        assertEquals(CommandCategory.MESSAGE, CommandCategory.classify("open my text messages"));
+        assertEquals(CommandCategory.OPEN_APP, CommandCategory.classify("launch maps"));
+        assertEquals(CommandCategory.ALARM, CommandCategory.classify("wake me at seven"));
+        assertEquals(CommandCategory.MUSIC, CommandCategory.classify("play music"));
+        assertEquals(CommandCategory.OTHER, CommandCategory.classify("tell me a joke"));
+    }
+    
+    @Test
+    public void commandTypesMatchClaudeActionTypes() {
+        assertEquals("call", CommandCategory.CALL.getCommandType());
+        assertEquals("open_app", CommandCategory.OPEN_APP.getCommandType());
+        assertEquals("navigation", CommandCategory.NAVIGATION.getCommandType());
+        assertEquals("other", CommandCategory.OTHER.getCommandType());
+    }
+    
+    @Test
+    public void onlyCommandsActingOnTheWorldAreCritical() {
+        assertTrue(CommandCategory.classify("call bob").isCritical());
+        assertTrue(CommandCategory.classify("send sms to bob").isCritical());
+        assertTrue(CommandCategory.classify("set an alarm").isCritical());
+        assertFalse(CommandCategory.classify("what time is it").isCritical());
+        assertFalse(CommandCategory.classify("search for pizza").isCritical());
+    }
+}
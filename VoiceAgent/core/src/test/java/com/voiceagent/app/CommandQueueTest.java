@@ -0,0 +1,60 @@
+package com.voiceagent.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class CommandQueueTest {
+    
+    @Test
+    public void identicalPendingCommandsAreCoalesced() throws InterruptedException {
+        CommandQueue queue = new CommandQueue(4);
+        
+        assertEquals(CommandQueue.OfferResult.ACCEPTED, queue.offer("What time is it", false));
+        assertEquals(CommandQueue.OfferResult.COALESCED, queue.offer("what  time is it ", false));
+        assertEquals(1, queue.size());
+        assertEquals(1, queue.getCoalescedCount());
+        
+        CommandQueue.Entry entry = queue.take();
+        assertEquals("What time is it", entry.command);
+        assertEquals(1, entry.getDuplicates());
+        
+        // Once taken, the same command queues again
+        assertEquals(CommandQueue.OfferResult.ACCEPTED, queue.offer("what time is it", false));
+    }
+    
+    @Test
+    public void fullQueueDropsOldestNonCriticalCommand() throws InterruptedException {
+        CommandQueue queue = new CommandQueue(3);
+        queue.offer("call mom", true);
+        queue.offer("what time is it", false);
+        queue.offer("weather today", false);
+        
+        assertEquals(CommandQueue.OfferResult.DROPPED_OLDEST, queue.offer("set an alarm", true));
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+        
+        assertEquals("call mom", queue.take().command);
+        assertEquals("weather today", queue.take().command);
+        assertEquals("set an alarm", queue.take().command);
+        assertNull(queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void fullQueueOfCriticalCommandsRejectsNewOnes() throws InterruptedException {
+        CommandQueue queue = new CommandQueue(2);
+        queue.offer("call mom", true);
+        queue.offer("text bob", true);
+        
+        assertEquals(CommandQueue.OfferResult.REJECTED, queue.offer("what time is it", false));
+        assertEquals(CommandQueue.OfferResult.REJECTED, queue.offer("call dad", true));
+        assertEquals(2, queue.getRejectedCount());
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(2, queue.getMaxDepth());
+        
+        assertEquals("call mom", queue.take().command);
+        assertEquals("text bob", queue.take().command);
+    }
+}
@@ -0,0 +1,81 @@
+package com.voiceagent.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class CommandRouterTest {
+    
+    @Test
+    public void customCommandsWinBeforeNormalization() {
+        Lookups lookups = new Lookups();
+        lookups.custom.put("call mom", "com.example.dialer");
+        
+        CommandRouter.Decision<String> decision = CommandRouter.route("Call Mom", lookups);
+        
+        assertEquals(CommandRouter.Route.CUSTOM, decision.route);
+        assertEquals("com.example.dialer", decision.customAction);
+        assertEquals("call mom", decision.lowerCommand);
+        assertEquals(0, lookups.normalized);
+    }
+    
+    @Test
+    public void builtInCategoryIsChosenFromTheNormalizedCommand() {
+        Lookups lookups = new Lookups();
+        lookups.normalizeTo = "call mom";
+        lookups.learned.put("kall mom", "message");
+        
+        CommandRouter.Decision<String> decision = CommandRouter.route("kall mom", lookups);
+        
+        assertEquals(CommandRouter.Route.BUILT_IN, decision.route);
+        assertEquals(CommandCategory.CALL, decision.category);
+        assertEquals("call mom", decision.normalizedCommand);
+        assertNull(decision.learned);
+    }
+    
+    @Test
+    public void otherCommandsTryLearnedAnswersThenClaude() {
+        Lookups lookups = new Lookups();
+        lookups.learned.put("ring zelda", "call");
+        
+        CommandRouter.Decision<String> learned = CommandRouter.route("ring zelda", lookups);
+        assertEquals(CommandRouter.Route.LEARNED, learned.route);
+        assertEquals("call", learned.learned);
+        
+        assertEquals(CommandRouter.Route.CLAUDE, CommandRouter.route("ring ganon", lookups).route);
+        lookups.claude = false;
+        assertEquals(CommandRouter.Route.UNKNOWN, CommandRouter.route("ring ganon", lookups).route);
+    }
+    
+    private static class Lookups implements CommandRouter.Lookups<String> {
+        final Map<String, String> custom = new HashMap<>();
+        final Map<String, String> learned = new HashMap<>();
+        String normalizeTo;
+        boolean claude = true;
+        int normalized;
+        
+        @Override
+        public String getCustomCommandAction(String lowerCommand) {
+            return custom.get(lowerCommand);
+        }
+        
+        @Override
+        public String normalizeCommand(String lowerCommand) {
+            normalized++;
+            return normalizeTo != null ? normalizeTo : lowerCommand;
+        }
+        
+        @Override
+        public String resolveLearned(String command) {
+            return learned.get(command);
+        }
+        
+        @Override
+        public boolean canAskClaude() {
+            return claude;
+        }
+    }
+}
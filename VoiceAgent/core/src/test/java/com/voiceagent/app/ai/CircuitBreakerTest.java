@@ -0,0 +1,141 @@
+package com.voiceagent.app.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+    
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long SLOW_CALL_MS = 2000;
+    private static final long OPEN_DURATION_MS = 30000;
+    
+    private long nowMs;
+    private CircuitBreaker breaker;
+    
+    @Before
+    public void setUp() {
+        nowMs = 1000;
+        breaker = new CircuitBreaker(FAILURE_THRESHOLD, SLOW_CALL_MS, OPEN_DURATION_MS, () -> nowMs);
+    }
+    
+    @Test
+    public void staysClosedBelowFailureThreshold() {
+        fail(FAILURE_THRESHOLD - 1);
+        
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+    
+    @Test
+    public void successResetsConsecutiveFailures() {
+        fail(FAILURE_THRESHOLD - 1);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(10);
+        fail(FAILURE_THRESHOLD - 1);
+        
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        fail(FAILURE_THRESHOLD);
+        
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        assertFalse(breaker.tryAcquire());
+    }
+    
+    @Test
+    public void slowCallsCountAsFailures() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess(SLOW_CALL_MS);
+        }
+        
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+    
+    @Test
+    public void letsOneTrialThroughAfterCoolDown() {
+        fail(FAILURE_THRESHOLD);
+        nowMs += OPEN_DURATION_MS - 1;
+        assertFalse(breaker.tryAcquire());
+        
+        nowMs += 1;
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        
+        // Only one trial at a time
+        assertFalse(breaker.isCallPermitted());
+        assertFalse(breaker.tryAcquire());
+    }
+    
+    @Test
+    public void successfulTrialCloses() {
+        fail(FAILURE_THRESHOLD);
+        nowMs += OPEN_DURATION_MS;
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(10);
+        
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+    
+    @Test
+    public void failedTrialReopensForAnotherCoolDown() {
+        fail(FAILURE_THRESHOLD);
+        nowMs += OPEN_DURATION_MS;
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        nowMs += OPEN_DURATION_MS - 1;
+        assertFalse(breaker.tryAcquire());
+        nowMs += 1;
+        assertTrue(breaker.tryAcquire());
+    }
+    
+    @Test
+    public void slowTrialReopens() {
+        fail(FAILURE_THRESHOLD);
+        nowMs += OPEN_DURATION_MS;
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(SLOW_CALL_MS);
+        
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+    
+    @Test
+    public void abandonedCallsDoNotCountAsFailures() {
+        for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onAbandoned();
+        }
+        
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    public void abandonedTrialLetsAnotherTrialThrough() {
+        fail(FAILURE_THRESHOLD);
+        nowMs += OPEN_DURATION_MS;
+        assertTrue(breaker.tryAcquire());
+        breaker.onAbandoned();
+        
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+    
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.voiceagent.app.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class CommandTemplateTest {
+    
+    @Test
+    public void spokenParameterValuesBecomeSlots() {
+        CommandTemplate template = CommandTemplate.distill("Ring  Mom", "call",
+            parameters("contact", "mom"), "Calling mom");
+        
+        assertNotNull(template);
+        assertEquals("ring {contact}", template.getPattern());
+        assertEquals("call", template.getActionType());
+        assertTrue(template.getFixedParameters().isEmpty());
+        assertEquals(4, template.getLiteralLength());
+    }
+    
+    @Test
+    public void unspokenOrTooShortValuesStayFixed() {
+        CommandTemplate template = CommandTemplate.distill("take me home", "navigation",
+            parameters("destination", "42 Main Street", "mode", "x"), "Navigating home");
+        
+        assertEquals("take me home", template.getPattern());
+        assertEquals("42 Main Street", template.getFixedParameters().get("destination"));
+        assertEquals("x", template.getFixedParameters().get("mode"));
+    }
+    
+    @Test
+    public void longerValuesAreReplacedFirst() {
+        CommandTemplate template = CommandTemplate.distill("text anna annabel is late", "message",
+            parameters("contact", "anna", "body", "annabel is late"), null);
+        
+        assertEquals("text {contact} {body}", template.getPattern());
+    }
+    
+    @Test
+    public void utteranceMadeOnlyOfSlotsIsRejected() {
+        assertNull(CommandTemplate.distill("mom", "call", parameters("contact", "mom"), null));
+        assertNull(CommandTemplate.distill("ring mom", null, parameters("contact", "mom"), null));
+    }
+    
+    @Test
+    public void matchFillsSlotsAndAddsFixedParameters() {
+        CommandTemplate template = new CommandTemplate("ring {contact} on {line}", "call",
+            parameters("speaker", "on"), null);
+        
+        Map<String, String> matched = template.match("Ring Uncle Bob on  mobile");
+        assertNotNull(matched);
+        assertEquals("uncle bob", matched.get("contact"));
+        assertEquals("mobile", matched.get("line"));
+        assertEquals("on", matched.get("speaker"));
+        
+        assertNull(template.match("ring bob"));
+        assertNull(template.match("please ring bob on mobile"));
+    }
+    
+    @Test
+    public void literalLengthRanksMoreSpecificTemplatesHigher() {
+        CommandTemplate general = new CommandTemplate("call {contact}", "call",
+            new HashMap<>(), null);
+        CommandTemplate specific = new CommandTemplate("call {contact} on speaker", "call",
+            parameters("speaker", "true"), null);
+        
+        assertTrue(specific.getLiteralLength() > general.getLiteralLength());
+        assertNotNull(general.match("call mom on speaker"));
+        assertNotNull(specific.match("call mom on speaker"));
+    }
+    
+    private static Map<String, String> parameters(String... keysAndValues) {
+        Map<String, String> parameters = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            parameters.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return parameters;
+    }
+}
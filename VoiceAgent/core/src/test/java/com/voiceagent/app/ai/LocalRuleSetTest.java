@@ -0,0 +1,33 @@
+package com.voiceagent.app.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import org.junit.Test;
+
+public class LocalRuleSetTest {
+    
+    @Test
+    public void mostSpecificRuleMatchesFirst() {
+        LocalRuleSet rules = new LocalRuleSet();
+        rules.add(new CommandTemplate("ring {contact}", "call", new HashMap<>(), null));
+        rules.add(new CommandTemplate("ring {contact} on speaker", "call_speaker", new HashMap<>(), null));
+        
+        LocalRuleSet.Match match = rules.match("ring bob on speaker");
+        assertEquals("call_speaker", match.template.getActionType());
+        assertEquals("bob", match.parameters.get("contact"));
+        assertEquals("call", rules.match("ring bob").template.getActionType());
+        assertNull(rules.match("text bob"));
+    }
+    
+    @Test
+    public void samePatternReplacesTheOldRule() {
+        LocalRuleSet rules = new LocalRuleSet();
+        rules.add(new CommandTemplate("ring {contact}", "call", new HashMap<>(), null));
+        rules.add(new CommandTemplate("ring {contact}", "message", new HashMap<>(), null));
+        
+        assertEquals(1, rules.size());
+        assertEquals("message", rules.match("ring bob").template.getActionType());
+    }
+}
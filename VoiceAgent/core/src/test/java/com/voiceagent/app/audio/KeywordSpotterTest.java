@@ -0,0 +1,138 @@
+package com.voiceagent.app.audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Runs the spotter over the WAV fixtures with stand-in models: loud audio
+ * plays the keyword, so the tone burst must fire once and quiet noise never
+ */
+public class KeywordSpotterTest {
+    
+    private static final int BURST_START = 4800;  // samples, see tone_burst.wav
+    private static final int BURST_END = 11200;
+    
+    /**
+     * Scores the RMS level of a 200 ms window of raw samples
+     */
+    private static class LoudnessModel implements KeywordModel {
+        @Override
+        public int getWindowSize() {
+            return 3200;
+        }
+        
+        @Override
+        public float score(float[] window) {
+            double sum = 0;
+            for (float sample : window) {
+                sum += sample * sample;
+            }
+            return (float) Math.min(1.0, 5 * Math.sqrt(sum / window.length));
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    /**
+     * Scores the mean log-mel energy of the last ten feature frames
+     */
+    private static class LogMelLoudnessModel implements KeywordModel {
+        private final int windowSize;
+        
+        LogMelLoudnessModel(int features) {
+            this.windowSize = features * 10;
+        }
+        
+        @Override
+        public int getWindowSize() {
+            return windowSize;
+        }
+        
+        @Override
+        public float score(float[] window) {
+            float sum = 0f;
+            for (float value : window) {
+                sum += value;
+            }
+            return sum / window.length > -6f ? 1f : 0f;
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    @Test
+    public void rawSampleModelFiresOnceDuringBurst() throws IOException {
+        List<Long> detections = spot("tone_burst.wav", newRawSpotter());
+        
+        assertEquals(1, detections.size());
+        assertTrue(detections.get(0) > BURST_START && detections.get(0) <= BURST_END);
+    }
+    
+    @Test
+    public void rawSampleModelStaysQuietOnNoise() throws IOException {
+        assertEquals(0, spot("quiet_noise.wav", newRawSpotter()).size());
+    }
+    
+    @Test
+    public void featureModelFiresOnceDuringBurst() throws IOException {
+        List<Long> detections = spot("tone_burst.wav", newFeatureSpotter());
+        
+        assertEquals(1, detections.size());
+        assertTrue(detections.get(0) > BURST_START && detections.get(0) <= BURST_END);
+    }
+    
+    @Test
+    public void featureModelStaysQuietOnNoise() throws IOException {
+        assertEquals(0, spot("quiet_noise.wav", newFeatureSpotter()).size());
+    }
+    
+    @Test
+    public void speechStartIsTheBurstOnset() throws IOException {
+        for (KeywordSpotter spotter : new KeywordSpotter[] {newRawSpotter(), newFeatureSpotter()}) {
+            List<Long> detections = spot("tone_burst.wav", spotter);
+            
+            long speechStart = spotter.getSpeechStartSample();
+            assertTrue("speech start " + speechStart, Math.abs(speechStart - BURST_START) <= KeywordSpotter.FRAME_SIZE);
+            assertTrue(speechStart < detections.get(0));
+        }
+    }
+    
+    @Test
+    public void resetGivesTheSameResultAgain() throws IOException {
+        KeywordSpotter spotter = newFeatureSpotter();
+        List<Long> first = spot("tone_burst.wav", spotter);
+        spotter.reset();
+        
+        assertEquals(first, spot("tone_burst.wav", spotter));
+    }
+    
+    private static KeywordSpotter newRawSpotter() {
+        return new KeywordSpotter(new LoudnessModel(), 0.5f, 3, 1000);
+    }
+    
+    private static KeywordSpotter newFeatureSpotter() {
+        LogMelFrontEnd frontEnd = new LogMelFrontEnd(KeywordSpotter.SAMPLE_RATE, 40);
+        return new KeywordSpotter(new LogMelLoudnessModel(frontEnd.getFeatureCount()),
+            frontEnd, 0.5f, 3, 1000);
+    }
+    
+    private static List<Long> spot(String fixture, KeywordSpotter spotter) throws IOException {
+        List<Long> detections = new ArrayList<>();
+        WavFileSource source = WavFileSourceTest.open(fixture);
+        try {
+            spotter.run(source, (sampleOffset, score) -> detections.add(sampleOffset));
+        } finally {
+            source.close();
+        }
+        return detections;
+    }
+}
@@ -0,0 +1,200 @@
+package com.voiceagent.app.audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Compares the streaming front end with a straightforward double-precision
+ * reference (direct DFT, same filterbank definition) on the WAV fixtures
+ */
+public class LogMelFrontEndTest {
+    
+    private static final int SAMPLE_RATE = 16000;
+    private static final int FRAME_LENGTH = 400;
+    private static final int HOP_LENGTH = 160;
+    private static final int FFT_SIZE = 512;
+    private static final int MEL_BANDS = 40;
+    private static final int MFCC_COUNT = 13;
+    
+    // Log energies: float FFT against double DFT
+    private static final double TOLERANCE = 1e-2;
+    
+    @Test
+    public void logMelMatchesReferenceOnToneBurst() throws IOException {
+        assertMatchesReference("tone_burst.wav", 0);
+    }
+    
+    @Test
+    public void logMelMatchesReferenceOnNoise() throws IOException {
+        assertMatchesReference("quiet_noise.wav", 0);
+    }
+    
+    @Test
+    public void mfccMatchesReference() throws IOException {
+        assertMatchesReference("tone_burst.wav", MFCC_COUNT);
+    }
+    
+    @Test
+    public void chunkingDoesNotChangeOutput() throws IOException {
+        short[] samples = readAll("tone_burst.wav");
+        List<float[]> whole = run(samples, samples.length, 0);
+        List<float[]> odd = run(samples, 37, 0);
+        
+        assertEquals(whole.size(), odd.size());
+        for (int f = 0; f < whole.size(); f++) {
+            for (int b = 0; b < MEL_BANDS; b++) {
+                assertEquals(whole.get(f)[b], odd.get(f)[b], 0f);
+            }
+        }
+    }
+    
+    @Test
+    public void toneEnergyLandsInItsMelBand() throws IOException {
+        List<float[]> frames = run(readAll("tone_burst.wav"), KeywordSpotter.FRAME_SIZE, 0);
+        float[] silence = frames.get(5);
+        float[] tone = frames.get(frames.size() / 2);
+        
+        int band = melBandOf(440.0);
+        assertTrue(tone[band] - silence[band] > 5f);
+    }
+    
+    private void assertMatchesReference(String fixture, int coefficients) throws IOException {
+        short[] samples = readAll(fixture);
+        List<float[]> actual = run(samples, KeywordSpotter.FRAME_SIZE, coefficients);
+        List<double[]> expected = reference(samples, coefficients);
+        
+        assertEquals(1 + (samples.length - FRAME_LENGTH) / HOP_LENGTH, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int f = 0; f < expected.size(); f++) {
+            for (int i = 0; i < expected.get(f).length; i++) {
+                assertEquals(fixture + " frame " + f + " value " + i,
+                    expected.get(f)[i], actual.get(f)[i], TOLERANCE);
+            }
+        }
+    }
+    
+    private static List<float[]> run(short[] samples, int chunk, int coefficients) {
+        LogMelFrontEnd frontEnd = new LogMelFrontEnd(
+            SAMPLE_RATE, FRAME_LENGTH, HOP_LENGTH, FFT_SIZE, MEL_BANDS, coefficients);
+        List<float[]> frames = new ArrayList<>();
+        for (int offset = 0; offset < samples.length; offset += chunk) {
+            frontEnd.process(samples, offset, Math.min(chunk, samples.length - offset),
+                features -> frames.add(features.clone()));
+        }
+        return frames;
+    }
+    
+    private static List<double[]> reference(short[] samples, int coefficients) {
+        double[] emphasized = new double[samples.length];
+        double previous = 0;
+        for (int i = 0; i < samples.length; i++) {
+            double sample = samples[i] / 32768.0;
+            emphasized[i] = sample - 0.97 * previous;
+            previous = sample;
+        }
+        
+        double[][] filters = melFilters();
+        List<double[]> frames = new ArrayList<>();
+        for (int start = 0; start + FRAME_LENGTH <= samples.length; start += HOP_LENGTH) {
+            double[] power = new double[FFT_SIZE / 2 + 1];
+            for (int k = 0; k < power.length; k++) {
+                double re = 0;
+                double im = 0;
+                for (int n = 0; n < FRAME_LENGTH; n++) {
+                    double hann = 0.5 - 0.5 * Math.cos(2 * Math.PI * n / (FRAME_LENGTH - 1));
+                    double x = emphasized[start + n] * hann;
+                    re += x * Math.cos(2 * Math.PI * k * n / FFT_SIZE);
+                    im -= x * Math.sin(2 * Math.PI * k * n / FFT_SIZE);
+                }
+                power[k] = re * re + im * im;
+            }
+            
+            double[] logMel = new double[MEL_BANDS];
+            for (int b = 0; b < MEL_BANDS; b++) {
+                double energy = 0;
+                for (int k = 0; k < power.length; k++) {
+                    energy += filters[b][k] * power[k];
+                }
+                logMel[b] = Math.log(energy + 1e-6);
+            }
+            
+            if (coefficients == 0) {
+                frames.add(logMel);
+                continue;
+            }
+            double[] mfcc = new double[coefficients];
+            for (int c = 0; c < coefficients; c++) {
+                double scale = Math.sqrt((c == 0 ? 1.0 : 2.0) / MEL_BANDS);
+                for (int m = 0; m < MEL_BANDS; m++) {
+                    mfcc[c] += scale * Math.cos(Math.PI * c * (m + 0.5) / MEL_BANDS) * logMel[m];
+                }
+            }
+            frames.add(mfcc);
+        }
+        return frames;
+    }
+    
+    /**
+     * HTK mel scale, triangles from 20 Hz to Nyquist sampled at FFT bin centres
+     */
+    private static double[][] melFilters() {
+        double[] edges = melEdges();
+        double[][] filters = new double[MEL_BANDS][FFT_SIZE / 2 + 1];
+        for (int b = 0; b < MEL_BANDS; b++) {
+            for (int k = 0; k < filters[b].length; k++) {
+                double weight = k <= edges[b + 1]
+                    ? (k - edges[b]) / (edges[b + 1] - edges[b])
+                    : (edges[b + 2] - k) / (edges[b + 2] - edges[b + 1]);
+                filters[b][k] = Math.max(0, weight);
+            }
+        }
+        return filters;
+    }
+    
+    private static double[] melEdges() {
+        double low = hzToMel(20);
+        double high = hzToMel(SAMPLE_RATE / 2.0);
+        double[] edges = new double[MEL_BANDS + 2];
+        for (int i = 0; i < edges.length; i++) {
+            double mel = low + (high - low) * i / (MEL_BANDS + 1);
+            edges[i] = 700 * (Math.pow(10, mel / 2595) - 1) * FFT_SIZE / SAMPLE_RATE;
+        }
+        return edges;
+    }
+    
+    private static int melBandOf(double hz) {
+        double bin = hz * FFT_SIZE / SAMPLE_RATE;
+        double[] edges = melEdges();
+        int best = 0;
+        for (int b = 0; b < MEL_BANDS; b++) {
+            if (Math.abs(edges[b + 1] - bin) < Math.abs(edges[best + 1] - bin)) {
+                best = b;
+            }
+        }
+        return best;
+    }
+    
+    private static double hzToMel(double hz) {
+        return 2595 * Math.log10(1 + hz / 700);
+    }
+    
+    static short[] readAll(String fixture) throws IOException {
+        WavFileSource source = WavFileSourceTest.open(fixture);
+        short[] all = new short[0];
+        short[] buffer = new short[4096];
+        int read;
+        while ((read = source.read(buffer, 0, buffer.length)) >= 0) {
+            short[] grown = new short[all.length + read];
+            System.arraycopy(all, 0, grown, 0, all.length);
+            System.arraycopy(buffer, 0, grown, all.length, read);
+            all = grown;
+        }
+        source.close();
+        return all;
+    }
+}
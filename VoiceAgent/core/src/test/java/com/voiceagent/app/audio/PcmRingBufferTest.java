@@ -0,0 +1,92 @@
+package com.voiceagent.app.audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import org.junit.Test;
+
+public class PcmRingBufferTest {
+    
+    private static final int SLOTS = 4;
+    private static final int FRAME_SIZE = 8;
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSlotCountThatIsNotAPowerOfTwo() {
+        new PcmRingBuffer(6, FRAME_SIZE);
+    }
+    
+    @Test
+    public void emptyRingHasNothingToPoll() {
+        PcmRingBuffer ring = new PcmRingBuffer(SLOTS, FRAME_SIZE);
+        
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+    
+    @Test
+    public void framesComeOutInOrderAcrossWraparound() {
+        PcmRingBuffer ring = new PcmRingBuffer(SLOTS, FRAME_SIZE);
+        
+        // Several times around the ring, keeping it partly filled
+        int written = 0;
+        int read = 0;
+        for (int round = 0; round < SLOTS * 5; round++) {
+            write(ring, written++, FRAME_SIZE);
+            write(ring, written++, FRAME_SIZE / 2);
+            assertEquals(2, ring.size());
+            
+            for (int i = 0; i < 2; i++) {
+                ShortBuffer frame = ring.poll();
+                assertNotNull(frame);
+                int expectedLength = read % 2 == 0 ? FRAME_SIZE : FRAME_SIZE / 2;
+                assertEquals(expectedLength, frame.limit());
+                for (int s = 0; s < expectedLength; s++) {
+                    assertEquals((short) (read * 100 + s), frame.get(s));
+                }
+                ring.release();
+                read++;
+            }
+        }
+        assertEquals(0, ring.getOverruns());
+    }
+    
+    @Test
+    public void fullRingDropsFramesAndCountsOverruns() {
+        PcmRingBuffer ring = new PcmRingBuffer(SLOTS, FRAME_SIZE);
+        for (int i = 0; i < SLOTS; i++) {
+            write(ring, i, FRAME_SIZE);
+        }
+        
+        assertNull(ring.claim());
+        assertNull(ring.claim());
+        assertEquals(2, ring.getOverruns());
+        assertEquals(SLOTS, ring.size());
+        
+        // Releasing one frame frees exactly one slot
+        ring.poll();
+        ring.release();
+        write(ring, SLOTS, FRAME_SIZE);
+        assertNull(ring.claim());
+        assertEquals(3, ring.getOverruns());
+        
+        // The oldest frames survive the overrun
+        for (int i = 1; i <= SLOTS; i++) {
+            assertEquals((short) (i * 100), ring.poll().get(0));
+            ring.release();
+        }
+        assertNull(ring.poll());
+    }
+    
+    private static void write(PcmRingBuffer ring, int frameNumber, int length) {
+        ByteBuffer slot = ring.claim();
+        assertNotNull(slot);
+        ShortBuffer samples = slot.asShortBuffer();
+        for (int s = 0; s < length; s++) {
+            samples.put(s, (short) (frameNumber * 100 + s));
+        }
+        ring.publish(length);
+    }
+}
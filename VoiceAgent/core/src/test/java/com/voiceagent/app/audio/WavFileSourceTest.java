@@ -0,0 +1,87 @@
+package com.voiceagent.app.audio;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+
+public class WavFileSourceTest {
+    
+    @Test
+    public void readsFixtureHeaderAndAllSamples() throws IOException {
+        WavFileSource source = open("tone_burst.wav");
+        assertEquals(16000, source.getSampleRate());
+        
+        short[] buffer = new short[KeywordSpotter.FRAME_SIZE];
+        int total = 0;
+        int read;
+        while ((read = source.read(buffer, 0, buffer.length)) >= 0) {
+            total += read;
+        }
+        source.close();
+        
+        assertEquals(16000, total);
+    }
+    
+    @Test
+    public void skipsUnknownChunksAndReadsLittleEndianSamples() throws IOException {
+        short[] samples = {0, 1, -1, Short.MAX_VALUE, Short.MIN_VALUE};
+        WavFileSource source = new WavFileSource(
+            new ByteArrayInputStream(wav(16000, 1, samples, true)));
+        
+        short[] buffer = new short[8];
+        assertEquals(samples.length, source.read(buffer, 0, buffer.length));
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(samples[i], buffer[i]);
+        }
+        assertEquals(-1, source.read(buffer, 0, buffer.length));
+    }
+    
+    @Test(expected = IOException.class)
+    public void rejectsStereo() throws IOException {
+        new WavFileSource(new ByteArrayInputStream(wav(16000, 2, new short[4], false)));
+    }
+    
+    @Test(expected = IOException.class)
+    public void rejectsNonRiffInput() throws IOException {
+        new WavFileSource(new ByteArrayInputStream(new byte[44]));
+    }
+    
+    static WavFileSource open(String fixture) throws IOException {
+        InputStream stream = WavFileSourceTest.class.getResourceAsStream("/audio/" + fixture);
+        if (stream == null) {
+            throw new IOException("Missing test fixture " + fixture);
+        }
+        return new WavFileSource(stream);
+    }
+    
+    private static byte[] wav(int sampleRate, int channels, short[] samples, boolean listChunk) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer header = ByteBuffer.allocate(36).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x46464952).putInt(0).putInt(0x45564157);
+        header.putInt(0x20746d66).putInt(16).putShort((short) 1).putShort((short) channels)
+            .putInt(sampleRate).putInt(sampleRate * channels * 2)
+            .putShort((short) (channels * 2)).putShort((short) 16);
+        out.write(header.array(), 0, header.position());
+        
+        if (listChunk) {
+            // Odd-sized chunk, padded to an even length
+            ByteBuffer list = ByteBuffer.allocate(14).order(ByteOrder.LITTLE_ENDIAN);
+            list.putInt(0x5453494c).putInt(5).put(new byte[] {'a', 'b', 'c', 'd', 'e', 0});
+            out.write(list.array(), 0, list.position());
+        }
+        
+        ByteBuffer data = ByteBuffer.allocate(8 + samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(0x61746164).putInt(samples.length * 2);
+        for (short sample : samples) {
+            data.putShort(sample);
+        }
+        out.write(data.array(), 0, data.position());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,38 @@
+package com.voiceagent.app.diagnostics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class TracerTest {
+    
+    @After
+    public void tearDown() {
+        Tracer.setEnabled(false);
+        Tracer.clear();
+    }
+    
+    @Test
+    public void spansKeepTheNameOfTheirThread() throws InterruptedException {
+        Tracer.setEnabled(true);
+        Tracer.clear();
+        long from = System.nanoTime();
+        
+        for (int i = 0; i < 3; i++) {
+            Thread thread = new Thread(() -> Tracer.instant("test.insert"), "insert-" + i);
+            thread.start();
+            thread.join();
+        }
+        Tracer.end("test.main", Tracer.begin());
+        
+        List<Tracer.Span> spans = Tracer.snapshot(from, System.nanoTime());
+        assertEquals(4, spans.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("insert-" + i, spans.get(i).threadName);
+        }
+        assertEquals(Thread.currentThread().getName(), spans.get(3).threadName);
+        assertEquals(Thread.currentThread().getId(), spans.get(3).threadId);
+    }
+}
@@ -0,0 +1,194 @@
+package com.voiceagent.tools;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compares two benchmark runs and flags results that got worse by more than a threshold.
+ * Reads androidx.benchmark JSON, JMH JSON and the DAO benchmark's file-size CSV;
+ * a directory is searched recursively, so a run should hold results from one device.
+ *
+ * Usage: BenchmarkCompare baseline candidate [--threshold PERCENT]
+ * Exits with 1 when anything regressed.
+ */
+public class BenchmarkCompare {
+    
+    /**
+     * One measured value and which direction is better
+     */
+    static final class Result {
+        final double value;
+        final String unit;
+        final boolean lowerIsBetter;
+        
+        Result(double value, String unit, boolean lowerIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.lowerIsBetter = lowerIsBetter;
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkCompare baseline candidate [--threshold PERCENT]");
+            System.exit(2);
+        }
+        
+        double threshold = 10;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            if ("--threshold".equals(args[i])) {
+                threshold = Double.parseDouble(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        
+        Map<String, Result> baseline = load(new File(args[0]));
+        Map<String, Result> candidate = load(new File(args[1]));
+        if (baseline.isEmpty() || candidate.isEmpty()) {
+            throw new IOException("No benchmark results in " + (baseline.isEmpty() ? args[0] : args[1]));
+        }
+        
+        int regressions = 0;
+        TreeSet<String> keys = new TreeSet<>(baseline.keySet());
+        keys.addAll(candidate.keySet());
+        System.out.printf(Locale.US, "%-70s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (String key : keys) {
+            Result before = baseline.get(key);
+            Result after = candidate.get(key);
+            if (before == null || after == null) {
+                System.out.printf(Locale.US, "%-70s %14s %14s %9s%n", key,
+                    format(before), format(after), before == null ? "new" : "removed");
+                continue;
+            }
+            
+            double change = before.value == 0 ? 0 : (after.value - before.value) / before.value * 100;
+            double worse = after.lowerIsBetter ? change : -change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.US, "%-70s %14s %14s %+8.1f%%%s%n", key,
+                format(before), format(after), change, regressed ? "  REGRESSION" : "");
+        }
+        
+        System.out.printf(Locale.US, "%d of %d results regressed by more than %.0f%%%n",
+            regressions, keys.size(), threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+    
+    private static String format(Result result) {
+        if (result == null) {
+            return "-";
+        }
+        return String.format(Locale.US, "%.4g %s", result.value, result.unit);
+    }
+    
+    static Map<String, Result> load(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        collect(file, results);
+        return results;
+    }
+    
+    private static void collect(File file, Map<String, Result> results) throws IOException {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    collect(child, results);
+                }
+            }
+        } else if (file.getName().endsWith(".json")) {
+            try (Reader reader = open(file)) {
+                JsonElement root = JsonParser.parseReader(reader);
+                if (root.isJsonArray()) {
+                    readJmh(root.getAsJsonArray(), results);
+                } else if (root.isJsonObject() && root.getAsJsonObject().has("benchmarks")) {
+                    readAndroidx(root.getAsJsonObject().getAsJsonArray("benchmarks"), results);
+                }
+            }
+        } else if (file.getName().equals("dao-benchmark-files.csv")) {
+            readFileSizes(file, results);
+        }
+    }
+    
+    private static BufferedReader open(File file) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * androidx.benchmark output: median of timeNs per test
+     */
+    private static void readAndroidx(JsonArray benchmarks, Map<String, Result> results) {
+        for (JsonElement element : benchmarks) {
+            JsonObject benchmark = element.getAsJsonObject();
+            JsonObject timeNs = benchmark.getAsJsonObject("metrics").getAsJsonObject("timeNs");
+            String className = benchmark.get("className").getAsString();
+            String key = className.substring(className.lastIndexOf('.') + 1)
+                + "." + benchmark.get("name").getAsString();
+            results.put(key, new Result(timeNs.get("median").getAsDouble(), "ns", true));
+        }
+    }
+    
+    /**
+     * JMH output: primary score; throughput modes are better when higher
+     */
+    private static void readJmh(JsonArray benchmarks, Map<String, Result> results) {
+        for (JsonElement element : benchmarks) {
+            JsonObject benchmark = element.getAsJsonObject();
+            String name = benchmark.get("benchmark").getAsString();
+            StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+            key.append(" [").append(benchmark.get("mode").getAsString());
+            if (benchmark.has("params")) {
+                for (Map.Entry<String, JsonElement> param : benchmark.getAsJsonObject("params").entrySet()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().getAsString());
+                }
+            }
+            key.append(']');
+            
+            JsonObject metric = benchmark.getAsJsonObject("primaryMetric");
+            String mode = benchmark.get("mode").getAsString();
+            results.put(key.toString(), new Result(metric.get("score").getAsDouble(),
+                metric.get("scoreUnit").getAsString(), !"thrpt".equals(mode)));
+        }
+    }
+    
+    /**
+     * configuration,load_ms,file_bytes rows written by TrainingDataDaoBenchmark
+     */
+    private static void readFileSizes(File file, Map<String, Result> results) throws IOException {
+        try (BufferedReader reader = open(file)) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < 3) {
+                    continue;
+                }
+                long loadMs = Long.parseLong(fields[1].trim());
+                long bytes = Long.parseLong(fields[2].trim());
+                // Load time is 0 when an existing database file was reused
+                if (loadMs > 0) {
+                    results.put("TrainingDataDaoBenchmark.load[" + fields[0] + "]", new Result(loadMs, "ms", true));
+                }
+                if (bytes > 0) {
+                    results.put("TrainingDataDaoBenchmark.fileSize[" + fields[0] + "]", new Result(bytes, "B", true));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.voiceagent.tools;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Claude stand-in for replays: answers from the recording (or a web search),
+ * with log-normally distributed latency and a configurable failure rate
+ */
+public class CloudStandIn {
+    
+    public static class Answer {
+        public final boolean success;
+        public final String actionType;
+        public final Map<String, String> parameters;
+        public final long latencyMs;
+        
+        Answer(boolean success, String actionType, Map<String, String> parameters, long latencyMs) {
+            this.success = success;
+            this.actionType = actionType;
+            this.parameters = parameters;
+            this.latencyMs = latencyMs;
+        }
+    }
+    
+    private final Random random;
+    private final double medianMs;
+    private final double sigma;
+    private final double errorRate;
+    
+    /**
+     * @param medianMs median round trip
+     * @param sigma spread of the log-normal latency (0.5 gives p99 about 3x the median)
+     * @param errorRate fraction of calls that fail
+     */
+    public CloudStandIn(long seed, double medianMs, double sigma, double errorRate) {
+        this.random = new Random(seed);
+        this.medianMs = medianMs;
+        this.sigma = sigma;
+        this.errorRate = errorRate;
+    }
+    
+    public Answer interpret(String command, Utterance utterance) {
+        long latencyMs = Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+        if (random.nextDouble() < errorRate) {
+            return new Answer(false, null, null, latencyMs);
+        }
+        if (utterance.cloudActionType != null) {
+            return new Answer(true, utterance.cloudActionType, utterance.cloudParameters, latencyMs);
+        }
+        return new Answer(true, "search", Collections.singletonMap("query", command), latencyMs);
+    }
+}
@@ -0,0 +1,28 @@
+package com.voiceagent.tools;
+
+/**
+ * Simulated time for replays; only moves when told to
+ */
+public class FakeClock {
+    
+    private long nowMs;
+    
+    public FakeClock(long startMs) {
+        this.nowMs = startMs;
+    }
+    
+    public long nowMs() {
+        return nowMs;
+    }
+    
+    public void advance(long ms) {
+        nowMs += ms;
+    }
+    
+    /**
+     * Move forward to the given time (never backwards)
+     */
+    public void advanceTo(long ms) {
+        nowMs = Math.max(nowMs, ms);
+    }
+}
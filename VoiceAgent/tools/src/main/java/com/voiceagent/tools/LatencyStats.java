@@ -0,0 +1,60 @@
+package com.voiceagent.tools;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Samples of one pipeline stage, in milliseconds, with nearest-rank percentiles
+ */
+public class LatencyStats {
+    
+    private final String name;
+    private double[] samples = new double[256];
+    private int count = 0;
+    private boolean sorted = true;
+    
+    public LatencyStats(String name) {
+        this.name = name;
+    }
+    
+    public void record(double ms) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = ms;
+        sorted = false;
+    }
+    
+    public void recordNanos(long nanos) {
+        record(nanos / 1e6);
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public double percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        return samples[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+    
+    public double mean() {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+    
+    public String format() {
+        return String.format(Locale.US, "%-12s %7d  p50 %9.3f  p95 %9.3f  p99 %9.3f  mean %9.3f ms",
+            name, count, percentile(50), percentile(95), percentile(99), mean());
+    }
+}
@@ -0,0 +1,124 @@
+package com.voiceagent.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replays recorded recognizer output through the command pipeline and prints
+ * per-stage latency percentiles, throughput and cloud fallbacks.
+ *
+ * Usage: ReplayHarness utterances.jsonl [--repeat N] [--seed S]
+ *        [--cloud-median-ms MS] [--cloud-sigma X] [--cloud-error-rate R] [--intent-ms MS]
+ *        [--custom "phrase=action"]...
+ */
+public class ReplayHarness {
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayHarness utterances.jsonl [--repeat N] [--seed S] "
+                + "[--cloud-median-ms MS] [--cloud-sigma X] [--cloud-error-rate R] [--intent-ms MS] "
+                + "[--custom \"phrase=action\"]...");
+            System.exit(2);
+        }
+        
+        File file = new File(args[0]);
+        int repeat = 1;
+        long seed = 1;
+        double cloudMedianMs = 900;
+        double cloudSigma = 0.5;
+        double cloudErrorRate = 0.02;
+        long intentMs = 40;
+        Map<String, String> customCommands = new LinkedHashMap<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--repeat":
+                    repeat = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--cloud-median-ms":
+                    cloudMedianMs = Double.parseDouble(value);
+                    break;
+                case "--cloud-sigma":
+                    cloudSigma = Double.parseDouble(value);
+                    break;
+                case "--cloud-error-rate":
+                    cloudErrorRate = Double.parseDouble(value);
+                    break;
+                case "--intent-ms":
+                    intentMs = Long.parseLong(value);
+                    break;
+                case "--custom":
+                    int separator = value.lastIndexOf('=');
+                    if (separator <= 0) {
+                        throw new IllegalArgumentException("Expected phrase=action, got " + value);
+                    }
+                    customCommands.put(value.substring(0, separator).trim(), value.substring(separator + 1).trim());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        
+        List<Utterance> recording = Utterance.load(file);
+        if (recording.isEmpty()) {
+            throw new IOException("No utterances in " + file);
+        }
+        List<Utterance> utterances = new ArrayList<>();
+        long span = recording.get(recording.size() - 1).endMs - recording.get(0).startMs + 1000;
+        for (int r = 0; r < repeat; r++) {
+            for (Utterance utterance : recording) {
+                utterances.add(utterance.shift(r * span));
+            }
+        }
+        
+        FakeClock clock = new FakeClock(utterances.get(0).startMs);
+        ReplayPipeline pipeline = new ReplayPipeline(clock,
+            new CloudStandIn(seed, cloudMedianMs, cloudSigma, cloudErrorRate), intentMs);
+        for (Map.Entry<String, String> custom : customCommands.entrySet()) {
+            pipeline.addCustomCommand(custom.getKey(), custom.getValue());
+        }
+        
+        long wallStart = System.nanoTime();
+        for (Utterance utterance : utterances) {
+            pipeline.process(utterance);
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        
+        report(file, utterances, pipeline, clock, wallNanos);
+    }
+    
+    private static void report(File file, List<Utterance> utterances, ReplayPipeline pipeline,
+                               FakeClock clock, long wallNanos) {
+        int commands = pipeline.endToEnd.getCount();
+        double simulatedSeconds = (clock.nowMs() - utterances.get(0).startMs) / 1000.0;
+        
+        System.out.println("Replayed " + utterances.size() + " utterances from " + file);
+        for (ReplayPipeline.Outcome outcome : ReplayPipeline.Outcome.values()) {
+            System.out.printf(Locale.US, "  %-10s %d%n", outcome, pipeline.getCount(outcome));
+        }
+        System.out.printf(Locale.US, "Cloud fallbacks: %d of %d commands (%.1f%%), %d failed%n",
+            pipeline.cloudCalls, commands, commands == 0 ? 0 : 100.0 * pipeline.cloudCalls / commands,
+            pipeline.cloudFailures);
+        System.out.printf(Locale.US, "Pipeline CPU: %.1f commands/s (%.3f ms CPU per utterance)%n",
+            commands / (pipeline.cpuNanos / 1e9), pipeline.cpuNanos / 1e6 / utterances.size());
+        System.out.printf(Locale.US, "Timeline: %.1f s simulated, %.2f commands/s; replay took %.2f s%n",
+            simulatedSeconds, commands / simulatedSeconds, wallNanos / 1e9);
+        System.out.println();
+        
+        LatencyStats[] stages = {
+            pipeline.recognizer, pipeline.queue, pipeline.wake, pipeline.normalize, pipeline.dispatch,
+            pipeline.rules, pipeline.intent, pipeline.cloudCall, pipeline.endToEnd
+        };
+        for (LatencyStats stage : stages) {
+            System.out.println(stage.format());
+        }
+    }
+}
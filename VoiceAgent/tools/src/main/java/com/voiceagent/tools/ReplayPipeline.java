@@ -0,0 +1,227 @@
+package com.voiceagent.tools;
+
+import com.voiceagent.app.CommandCategory;
+import com.voiceagent.app.CommandRouter;
+import com.voiceagent.app.ai.CommandNormalizer;
+import com.voiceagent.app.ai.CommandTemplate;
+import com.voiceagent.app.ai.Deadline;
+import com.voiceagent.app.ai.LocalRuleSet;
+import com.voiceagent.app.ai.WakeWordDetector;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The wake word -> VoiceCommandProcessor path with the device parts replaced.
+ * Commands take the app's CommandRouter route; the learning engine's custom
+ * commands, history, learned interpretations and local rules live in memory,
+ * intents are a fixed simulated launch cost and Claude is a stand-in.
+ * CPU stages are timed for real; recognizer, queueing, intent and cloud time
+ * come from the recording or the stand-ins and advance a fake clock.
+ */
+public class ReplayPipeline {
+    
+    public enum Outcome {
+        IGNORED,    // no wake word
+        WAKE_ONLY,  // wake word alone, next utterance is the command
+        CUSTOM,     // user-trained custom command
+        BUILT_IN,   // handled by the keyword dispatch
+        LEARNED,    // answered by a learned interpretation or local rule
+        CLOUD,      // sent to Claude
+        UNKNOWN     // nothing could handle it
+    }
+    
+    private static final int HISTORY_SIZE = 50;
+    
+    private final FakeClock clock;
+    private final CloudStandIn cloud;
+    private final long intentLaunchMs;
+    private final WakeWordDetector wakeWordDetector = new WakeWordDetector();
+    
+    // Learning engine state
+    private final Map<String, String> customCommands = new HashMap<>();
+    private final LinkedList<String> recentSuccessful = new LinkedList<>();
+    private final Map<String, String> learnedInterpretations = new HashMap<>();
+    private final LocalRuleSet localRules = new LocalRuleSet();
+    
+    private boolean awaitingCommand = false;
+    private long normalizeNanos;
+    private long rulesNanos;
+    
+    final LatencyStats recognizer = new LatencyStats("recognizer");
+    final LatencyStats queue = new LatencyStats("queue");
+    final LatencyStats wake = new LatencyStats("wake word");
+    final LatencyStats normalize = new LatencyStats("normalize");
+    final LatencyStats dispatch = new LatencyStats("dispatch");
+    final LatencyStats rules = new LatencyStats("local rules");
+    final LatencyStats intent = new LatencyStats("intent");
+    final LatencyStats cloudCall = new LatencyStats("cloud");
+    final LatencyStats endToEnd = new LatencyStats("end to end");
+    final int[] outcomes = new int[Outcome.values().length];
+    long cpuNanos = 0;
+    int cloudCalls = 0;
+    int cloudFailures = 0;
+    
+    public ReplayPipeline(FakeClock clock, CloudStandIn cloud, long intentLaunchMs) {
+        this.clock = clock;
+        this.cloud = cloud;
+        this.intentLaunchMs = intentLaunchMs;
+    }
+    
+    public Outcome process(Utterance utterance) {
+        // The result arrives at end_ms; if the previous command is still running it waits
+        clock.advanceTo(utterance.endMs);
+        recognizer.record(utterance.endMs - utterance.startMs);
+        queue.record(clock.nowMs() - utterance.endMs);
+        long cpuStart = System.nanoTime();
+        long simulatedStart = clock.nowMs();
+        
+        String command;
+        if (awaitingCommand) {
+            awaitingCommand = false;
+            command = utterance.nBest.isEmpty() ? "" : utterance.nBest.get(0);
+        } else {
+            long start = System.nanoTime();
+            command = null;
+            for (String hypothesis : utterance.nBest) {
+                if (wakeWordDetector.detectWakeWord(hypothesis)) {
+                    command = wakeWordDetector.extractCommand(hypothesis);
+                    break;
+                }
+            }
+            wake.recordNanos(System.nanoTime() - start);
+            
+            if (command == null) {
+                return finish(Outcome.IGNORED, utterance, cpuStart, simulatedStart, false);
+            }
+            if (command.isEmpty()) {
+                awaitingCommand = true;
+                return finish(Outcome.WAKE_ONLY, utterance, cpuStart, simulatedStart, false);
+            }
+        }
+        
+        // Budget left once the command has waited behind the previous one
+        long budgetMs = Deadline.DEFAULT_BUDGET_MS - (clock.nowMs() - utterance.endMs);
+        
+        long start = System.nanoTime();
+        normalizeNanos = 0;
+        rulesNanos = 0;
+        CommandRouter.Decision<String> decision = CommandRouter.route(command, new CommandRouter.Lookups<String>() {
+            @Override
+            public String getCustomCommandAction(String lowerCommand) {
+                return customCommands.get(lowerCommand);
+            }
+            
+            @Override
+            public String normalizeCommand(String lowerCommand) {
+                long start = System.nanoTime();
+                String normalized = CommandNormalizer.clean(lowerCommand);
+                String similar = CommandNormalizer.findSimilar(normalized, recentSuccessful);
+                normalizeNanos = System.nanoTime() - start;
+                return similar != null ? similar : normalized;
+            }
+            
+            @Override
+            public String resolveLearned(String command) {
+                long start = System.nanoTime();
+                String actionType = learnedInterpretations.get(command.toLowerCase(Locale.getDefault()).trim());
+                if (actionType == null) {
+                    LocalRuleSet.Match match = localRules.match(command);
+                    actionType = match != null ? match.template.getActionType() : null;
+                }
+                rulesNanos = System.nanoTime() - start;
+                return actionType;
+            }
+            
+            @Override
+            public boolean canAskClaude() {
+                return budgetMs > 0;
+            }
+        });
+        long routeNanos = System.nanoTime() - start;
+        if (decision.normalizedCommand != null) {
+            normalize.recordNanos(normalizeNanos);
+        }
+        dispatch.recordNanos(routeNanos - normalizeNanos - rulesNanos);
+        if (decision.category == CommandCategory.OTHER) {
+            rules.recordNanos(rulesNanos);
+        }
+        
+        switch (decision.route) {
+            case CUSTOM:
+                launchIntent();
+                remember(decision.lowerCommand);
+                return finish(Outcome.CUSTOM, utterance, cpuStart, simulatedStart, true);
+            case BUILT_IN:
+                launchIntent();
+                remember(command);
+                return finish(Outcome.BUILT_IN, utterance, cpuStart, simulatedStart, true);
+            case LEARNED:
+                launchIntent();
+                remember(command);
+                return finish(Outcome.LEARNED, utterance, cpuStart, simulatedStart, true);
+            case UNKNOWN:
+                return finish(Outcome.UNKNOWN, utterance, cpuStart, simulatedStart, true);
+            default:
+                break;
+        }
+        
+        CloudStandIn.Answer answer = cloud.interpret(command, utterance);
+        long latencyMs = Math.min(answer.latencyMs, budgetMs);
+        clock.advance(latencyMs);
+        cloudCall.record(latencyMs);
+        cloudCalls++;
+        
+        if (!answer.success || answer.latencyMs > budgetMs) {
+            cloudFailures++;
+            return finish(Outcome.UNKNOWN, utterance, cpuStart, simulatedStart, true);
+        }
+        
+        // Learn the answer the way AILearningEngine.learnFromInterpretation does
+        learnedInterpretations.put(decision.lowerCommand.trim(), answer.actionType);
+        CommandTemplate template = CommandTemplate.distill(command, answer.actionType, answer.parameters, null);
+        if (template != null) {
+            localRules.add(template);
+        }
+        launchIntent();
+        remember(command);
+        return finish(Outcome.CLOUD, utterance, cpuStart, simulatedStart, true);
+    }
+    
+    /**
+     * Treat the phrase as a user-trained custom command that starts the given action
+     */
+    public void addCustomCommand(String phrase, String action) {
+        customCommands.put(phrase.toLowerCase(Locale.getDefault()), action);
+    }
+    
+    private void launchIntent() {
+        clock.advance(intentLaunchMs);
+        intent.record(intentLaunchMs);
+    }
+    
+    private void remember(String command) {
+        recentSuccessful.addFirst(command);
+        if (recentSuccessful.size() > HISTORY_SIZE) {
+            recentSuccessful.removeLast();
+        }
+    }
+    
+    private Outcome finish(Outcome outcome, Utterance utterance, long cpuStart, long simulatedStart,
+                           boolean command) {
+        long cpu = System.nanoTime() - cpuStart;
+        cpuNanos += cpu;
+        outcomes[outcome.ordinal()]++;
+        if (command) {
+            // Speech start to the command taking effect
+            endToEnd.record(utterance.endMs - utterance.startMs + (simulatedStart - utterance.endMs)
+                + (clock.nowMs() - simulatedStart) + cpu / 1e6);
+        }
+        return outcome;
+    }
+    
+    public int getCount(Outcome outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+}
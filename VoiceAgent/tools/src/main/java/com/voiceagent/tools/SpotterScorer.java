@@ -0,0 +1,73 @@
+package com.voiceagent.tools;
+
+import com.voiceagent.app.audio.KeywordModel;
+import com.voiceagent.app.audio.KeywordSpotter;
+import com.voiceagent.app.audio.LogMelFrontEnd;
+import com.voiceagent.app.audio.WavFileSource;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs WAV clips through KeywordSpotter with the given model and records the
+ * smoothed score after every 20 ms hop
+ */
+public class SpotterScorer implements WakeWordScorer {
+    
+    // Same smoothing as WakeWordService
+    private static final int SMOOTHING_FRAMES = 3;
+    
+    private final KeywordModel model;
+    private final int featureCount;
+    
+    /**
+     * @param featureCount log-mel features per frame, or 0 for models scoring raw samples
+     */
+    public SpotterScorer(KeywordModel model, int featureCount) {
+        this.model = model;
+        this.featureCount = featureCount;
+    }
+    
+    @Override
+    public Trace score(WakeWordClip clip) throws IOException {
+        if (clip.wav == null) {
+            throw new IllegalArgumentException("Clip has no WAV: " + clip.transcript);
+        }
+        
+        LogMelFrontEnd frontEnd = featureCount > 0
+            ? new LogMelFrontEnd(KeywordSpotter.SAMPLE_RATE, featureCount)
+            : null;
+        // Threshold above 1 so the spotter never fires; thresholds are swept later
+        KeywordSpotter spotter = new KeywordSpotter(model, frontEnd, 2f, SMOOTHING_FRAMES, 0);
+        
+        short[] frame = new short[KeywordSpotter.FRAME_SIZE];
+        long[] times = new long[256];
+        float[] scores = new float[256];
+        int count = 0;
+        long samples = 0;
+        WavFileSource source = new WavFileSource(clip.wav);
+        try {
+            if (source.getSampleRate() != KeywordSpotter.SAMPLE_RATE) {
+                throw new IOException(clip.wav + ": expected " + KeywordSpotter.SAMPLE_RATE + " Hz");
+            }
+            int read;
+            while ((read = source.read(frame, 0, frame.length)) >= 0) {
+                if (read == 0) {
+                    continue;
+                }
+                spotter.processFrame(frame, read);
+                samples += read;
+                if (count == times.length) {
+                    times = Arrays.copyOf(times, count * 2);
+                    scores = Arrays.copyOf(scores, count * 2);
+                }
+                times[count] = samples * 1000 / KeywordSpotter.SAMPLE_RATE;
+                scores[count] = spotter.getLastScore();
+                count++;
+            }
+        } finally {
+            source.close();
+        }
+        return new Trace(Arrays.copyOf(times, count), Arrays.copyOf(scores, count),
+            samples * 1000 / KeywordSpotter.SAMPLE_RATE);
+    }
+}
@@ -0,0 +1,31 @@
+package com.voiceagent.tools;
+
+import com.voiceagent.app.ai.WakeWordDetector;
+
+/**
+ * Scores transcripts with WakeWordDetector.getConfidence().
+ * Transcripts carry no timing, so each stands for a fixed length of speech.
+ */
+public class TranscriptScorer implements WakeWordScorer {
+    
+    public static final long DEFAULT_CLIP_MS = 3000;
+    
+    private final WakeWordDetector detector = new WakeWordDetector();
+    private final long clipMs;
+    
+    public TranscriptScorer() {
+        this(DEFAULT_CLIP_MS);
+    }
+    
+    public TranscriptScorer(long clipMs) {
+        this.clipMs = clipMs;
+    }
+    
+    @Override
+    public Trace score(WakeWordClip clip) {
+        if (clip.transcript == null) {
+            throw new IllegalArgumentException("Clip has no transcript: " + clip.wav);
+        }
+        return Trace.of(detector.getConfidence(clip.transcript), clipMs);
+    }
+}
@@ -0,0 +1,88 @@
+package com.voiceagent.tools;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One recorded recognizer result. JSON lines of the form
+ * {"start_ms": 0, "end_ms": 1800, "nbest": ["nekro call mom", "necro call mom"],
+ *  "cloud": {"action_type": "search", "parameters": {"query": "..."}}}
+ * where start/end are speech start and final result times, and the optional
+ * "cloud" object is what the Claude stand-in answers for this command.
+ */
+public class Utterance {
+    
+    public final long startMs;
+    public final long endMs;
+    public final List<String> nBest;
+    public final String cloudActionType;
+    public final Map<String, String> cloudParameters;
+    
+    public Utterance(long startMs, long endMs, List<String> nBest,
+                     String cloudActionType, Map<String, String> cloudParameters) {
+        this.startMs = startMs;
+        this.endMs = endMs;
+        this.nBest = nBest;
+        this.cloudActionType = cloudActionType;
+        this.cloudParameters = cloudParameters;
+    }
+    
+    /**
+     * Same utterance shifted in time, for repeating a recording
+     */
+    public Utterance shift(long offsetMs) {
+        return new Utterance(startMs + offsetMs, endMs + offsetMs, nBest, cloudActionType, cloudParameters);
+    }
+    
+    public static List<Utterance> load(File file) throws IOException {
+        List<Utterance> utterances = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                utterances.add(parse(JsonParser.parseString(line).getAsJsonObject()));
+            } catch (RuntimeException e) {
+                throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return utterances;
+    }
+    
+    private static Utterance parse(JsonObject json) {
+        List<String> nBest = new ArrayList<>();
+        JsonArray hypotheses = json.getAsJsonArray("nbest");
+        for (JsonElement hypothesis : hypotheses) {
+            nBest.add(hypothesis.getAsString());
+        }
+        
+        String actionType = null;
+        Map<String, String> parameters = Collections.emptyMap();
+        if (json.has("cloud")) {
+            JsonObject cloud = json.getAsJsonObject("cloud");
+            actionType = cloud.get("action_type").getAsString();
+            parameters = new HashMap<>();
+            if (cloud.has("parameters")) {
+                for (Map.Entry<String, JsonElement> entry : cloud.getAsJsonObject("parameters").entrySet()) {
+                    parameters.put(entry.getKey(), entry.getValue().getAsString());
+                }
+            }
+        }
+        
+        return new Utterance(json.get("start_ms").getAsLong(), json.get("end_ms").getAsLong(),
+            nBest, actionType, parameters);
+    }
+}
@@ -0,0 +1,51 @@
+package com.voiceagent.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One labelled wake word sample. Tab-separated lines of the form
+ * label<TAB>transcript[<TAB>wav[<TAB>wake_end_ms]]
+ * where label 1 means the wake word was spoken, the WAV path is relative to the
+ * corpus file and wake_end_ms marks where the wake word ends in the audio.
+ * Either the transcript or the WAV may be empty.
+ */
+public class WakeWordClip {
+    
+    public final boolean positive;
+    public final String transcript;
+    public final File wav;
+    public final long wakeEndMs;
+    
+    public WakeWordClip(boolean positive, String transcript, File wav, long wakeEndMs) {
+        this.positive = positive;
+        this.transcript = transcript;
+        this.wav = wav;
+        this.wakeEndMs = wakeEndMs;
+    }
+    
+    public static List<WakeWordClip> load(File file) throws IOException {
+        List<WakeWordClip> clips = new ArrayList<>();
+        File dir = file.getAbsoluteFile().getParentFile();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2 || !("0".equals(fields[0]) || "1".equals(fields[0]))) {
+                throw new IOException(file + ":" + lineNumber + ": expected label<TAB>transcript");
+            }
+            String transcript = fields[1].isEmpty() ? null : fields[1];
+            File wav = fields.length > 2 && !fields[2].isEmpty() ? new File(dir, fields[2]) : null;
+            long wakeEndMs = fields.length > 3 && !fields[3].isEmpty() ? Long.parseLong(fields[3]) : -1;
+            clips.add(new WakeWordClip("1".equals(fields[0]), transcript, wav, wakeEndMs));
+        }
+        return clips;
+    }
+}
@@ -0,0 +1,266 @@
+package com.voiceagent.tools;
+
+import com.voiceagent.app.audio.KeywordModel;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Evaluates a wake word detector over a labelled corpus and prints a DET table:
+ * false accepts per hour of negative audio against false reject rate for each
+ * threshold, with detection latency and scoring CPU per hour of audio. Latency is
+ * measured from the start of each positive clip, and also from the end of the wake
+ * word where the corpus marks it.
+ *
+ * Usage: WakeWordEval corpus.tsv [--detector text|spotter|CLASS] [--keyword-model CLASS]
+ *        [--features N] [--clip-seconds S] [--step X] [--refractory-ms MS]
+ *        [--target-fa-per-hour F] [--csv out.csv]
+ */
+public class WakeWordEval {
+    
+    /**
+     * One row of the DET table
+     */
+    static final class Point {
+        float threshold;
+        int misses;
+        int falseAccepts;
+        double falseRejectRate;
+        double falseAcceptsPerHour;
+        LatencyStats latency;          // from the start of the utterance
+        LatencyStats latencyAfterWake; // from wake_end_ms, audio clips only
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: WakeWordEval corpus.tsv [--detector text|spotter|CLASS] "
+                + "[--keyword-model CLASS] [--features N] [--clip-seconds S] [--step X] "
+                + "[--refractory-ms MS] [--target-fa-per-hour F] [--csv out.csv]");
+            System.exit(2);
+        }
+        
+        File file = new File(args[0]);
+        String detector = "text";
+        String keywordModel = null;
+        int features = 0;
+        double clipSeconds = TranscriptScorer.DEFAULT_CLIP_MS / 1000.0;
+        float step = 0.05f;
+        long refractoryMs = 1500;
+        double targetFaPerHour = 1;
+        File csv = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--detector":
+                    detector = value;
+                    break;
+                case "--keyword-model":
+                    keywordModel = value;
+                    break;
+                case "--features":
+                    features = Integer.parseInt(value);
+                    break;
+                case "--clip-seconds":
+                    clipSeconds = Double.parseDouble(value);
+                    break;
+                case "--step":
+                    step = Float.parseFloat(value);
+                    break;
+                case "--refractory-ms":
+                    refractoryMs = Long.parseLong(value);
+                    break;
+                case "--target-fa-per-hour":
+                    targetFaPerHour = Double.parseDouble(value);
+                    break;
+                case "--csv":
+                    csv = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        
+        WakeWordScorer scorer;
+        boolean needsAudio = false;
+        boolean needsTranscript = false;
+        if ("text".equals(detector)) {
+            scorer = new TranscriptScorer((long) (clipSeconds * 1000));
+            needsTranscript = true;
+        } else if ("spotter".equals(detector)) {
+            if (keywordModel == null) {
+                throw new IllegalArgumentException("--detector spotter needs --keyword-model CLASS");
+            }
+            scorer = new SpotterScorer((KeywordModel) newInstance(keywordModel), features);
+            needsAudio = true;
+        } else {
+            scorer = (WakeWordScorer) newInstance(detector);
+        }
+        
+        // Clips the detector cannot score (no WAV for an audio detector) are skipped
+        List<WakeWordClip> clips = new ArrayList<>();
+        int skipped = 0;
+        for (WakeWordClip clip : WakeWordClip.load(file)) {
+            if ((!needsAudio || clip.wav != null) && (!needsTranscript || clip.transcript != null)) {
+                clips.add(clip);
+            } else {
+                skipped++;
+            }
+        }
+        if (clips.isEmpty()) {
+            throw new IOException("No clips in " + file + " for detector " + detector);
+        }
+        
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<WakeWordClip> scored = new ArrayList<>();
+        List<WakeWordScorer.Trace> traces = new ArrayList<>();
+        LatencyStats scoring = new LatencyStats("score");
+        long cpuNanos = 0;
+        long positiveMs = 0;
+        long negativeMs = 0;
+        for (WakeWordClip clip : clips) {
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            long wallStart = System.nanoTime();
+            WakeWordScorer.Trace trace = scorer.score(clip);
+            scoring.recordNanos(System.nanoTime() - wallStart);
+            cpuNanos += threads.getCurrentThreadCpuTime() - cpuStart;
+            
+            scored.add(clip);
+            traces.add(trace);
+            if (clip.positive) {
+                positiveMs += trace.durationMs;
+            } else {
+                negativeMs += trace.durationMs;
+            }
+        }
+        
+        List<Point> curve = new ArrayList<>();
+        int steps = Math.round(1f / step);
+        for (int i = 0; i <= steps; i++) {
+            curve.add(evaluate(Math.min(i * step, 1f), scored, traces, refractoryMs, negativeMs));
+        }
+        
+        report(file, detector, scored.size(), skipped, positiveMs + negativeMs, negativeMs,
+            cpuNanos, scoring, curve, targetFaPerHour);
+        if (csv != null) {
+            writeCsv(csv, curve);
+        }
+    }
+    
+    private static Object newInstance(String className) throws ReflectiveOperationException {
+        return Class.forName(className).getDeclaredConstructor().newInstance();
+    }
+    
+    /**
+     * Count detections at one threshold: a detection is the score rising to the
+     * threshold, at most once per refractory period, as in the live service
+     */
+    static Point evaluate(float threshold, List<WakeWordClip> clips, List<WakeWordScorer.Trace> traces,
+                          long refractoryMs, long negativeMs) {
+        Point point = new Point();
+        point.threshold = threshold;
+        point.latency = new LatencyStats("latency");
+        point.latencyAfterWake = new LatencyStats("afterWake");
+        int positives = 0;
+        for (int c = 0; c < clips.size(); c++) {
+            WakeWordClip clip = clips.get(c);
+            WakeWordScorer.Trace trace = traces.get(c);
+            
+            int detections = 0;
+            long firstMs = -1;
+            long lastMs = Long.MIN_VALUE / 2;
+            boolean above = false;
+            for (int i = 0; i < trace.scores.length; i++) {
+                boolean now = trace.scores[i] >= threshold;
+                if (now && !above && trace.timesMs[i] - lastMs >= refractoryMs) {
+                    detections++;
+                    lastMs = trace.timesMs[i];
+                    if (firstMs < 0) {
+                        firstMs = lastMs;
+                    }
+                }
+                above = now;
+            }
+            
+            if (clip.positive) {
+                positives++;
+                if (detections == 0) {
+                    point.misses++;
+                } else {
+                    point.latency.record(firstMs);
+                    if (clip.wakeEndMs >= 0 && trace.timesMs.length > 1) {
+                        point.latencyAfterWake.record(firstMs - clip.wakeEndMs);
+                    }
+                }
+            } else {
+                point.falseAccepts += detections;
+            }
+        }
+        point.falseRejectRate = positives > 0 ? (double) point.misses / positives : 0;
+        point.falseAcceptsPerHour = negativeMs > 0 ? point.falseAccepts / (negativeMs / 3600000.0) : 0;
+        return point;
+    }
+    
+    private static void report(File file, String detector, int clips, int skipped, long audioMs,
+                               long negativeMs, long cpuNanos, LatencyStats scoring,
+                               List<Point> curve, double targetFaPerHour) {
+        double audioHours = audioMs / 3600000.0;
+        System.out.printf(Locale.US, "Evaluated %s on %d clips from %s (%d skipped), %.2f h of audio, %.2f h negative%n",
+            detector, clips, file, skipped, audioHours, negativeMs / 3600000.0);
+        System.out.printf(Locale.US, "  CPU %.3f s per audio hour%n", cpuNanos / 1e9 / audioHours);
+        System.out.printf(Locale.US, "  per clip: %s%n", scoring.format());
+        if ("text".equals(detector)) {
+            // A transcript only exists once the recognizer session is over
+            System.out.println("  Transcripts have no timing; text detections count at the end of the clip,"
+                + " so latency from start is --clip-seconds");
+        }
+        System.out.println();
+        
+        System.out.printf(Locale.US, "%9s %8s %10s %6s %6s %16s %16s%n",
+            "threshold", "FRR", "FA/hour", "misses", "FAs", "from start p50/95", "after wake p50/95");
+        Point best = null;
+        for (Point point : curve) {
+            System.out.printf(Locale.US, "%9.2f %7.1f%% %10.2f %6d %6d %16s %16s%n", point.threshold,
+                point.falseRejectRate * 100, point.falseAcceptsPerHour, point.misses, point.falseAccepts,
+                formatLatency(point.latency), formatLatency(point.latencyAfterWake));
+            if (point.falseAcceptsPerHour <= targetFaPerHour
+                    && (best == null || point.falseRejectRate < best.falseRejectRate)) {
+                best = point;
+            }
+        }
+        
+        if (best != null) {
+            System.out.printf(Locale.US, "Lowest FRR at <= %.2f FA/hour: threshold %.2f, FRR %.1f%%, %.2f FA/hour%n",
+                targetFaPerHour, best.threshold, best.falseRejectRate * 100, best.falseAcceptsPerHour);
+        } else {
+            System.out.printf(Locale.US, "No threshold reaches %.2f FA/hour%n", targetFaPerHour);
+        }
+    }
+    
+    private static String formatLatency(LatencyStats latency) {
+        return latency.getCount() > 0
+            ? String.format(Locale.US, "%.0f/%.0f ms", latency.percentile(50), latency.percentile(95))
+            : "-";
+    }
+    
+    private static void writeCsv(File csv, List<Point> curve) throws IOException {
+        try (PrintWriter out = new PrintWriter(csv, "UTF-8")) {
+            out.println("threshold,frr,fa_per_hour,misses,false_accepts,"
+                + "latency_p50_ms,latency_p95_ms,after_wake_p50_ms,after_wake_p95_ms");
+            for (Point point : curve) {
+                out.printf(Locale.US, "%.3f,%.4f,%.3f,%d,%d,%s,%s,%s,%s%n", point.threshold,
+                    point.falseRejectRate, point.falseAcceptsPerHour, point.misses, point.falseAccepts,
+                    csvPercentile(point.latency, 50), csvPercentile(point.latency, 95),
+                    csvPercentile(point.latencyAfterWake, 50), csvPercentile(point.latencyAfterWake, 95));
+            }
+        }
+    }
+    
+    private static String csvPercentile(LatencyStats latency, double p) {
+        return latency.getCount() > 0 ? String.format(Locale.US, "%.0f", latency.percentile(p)) : "";
+    }
+}
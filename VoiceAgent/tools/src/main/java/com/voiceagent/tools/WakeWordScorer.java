@@ -0,0 +1,38 @@
+package com.voiceagent.tools;
+
+import java.io.IOException;
+
+/**
+ * Detector under evaluation. Implementations need a public no-argument constructor
+ * to be picked with WakeWordEval --detector.
+ */
+public interface WakeWordScorer {
+    
+    /**
+     * Scores over time for one clip; higher means more likely the wake word.
+     * Thresholds are applied by the evaluation, not by the scorer.
+     */
+    Trace score(WakeWordClip clip) throws IOException;
+    
+    /**
+     * Score samples of one clip and how much audio they cover
+     */
+    class Trace {
+        public final long[] timesMs;
+        public final float[] scores;
+        public final long durationMs;
+        
+        public Trace(long[] timesMs, float[] scores, long durationMs) {
+            this.timesMs = timesMs;
+            this.scores = scores;
+            this.durationMs = durationMs;
+        }
+        
+        /**
+         * A single score for the whole clip, e.g. from a transcript
+         */
+        public static Trace of(float score, long durationMs) {
+            return new Trace(new long[] {durationMs}, new float[] {score}, durationMs);
+        }
+    }
+}